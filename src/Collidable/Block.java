@@ -2,8 +2,10 @@
 package Collidable;
 
 import Geometry.Rectangle;
+import Observers.HitEventBus;
 import Observers.HitListener;
 import Observers.HitNotifier;
+import Observers.ListenerSet;
 import biuoop.DrawSurface;
 import Geometry.Point;
 import Sprites.Sprite;
@@ -11,8 +13,6 @@ import Movement.Velocity;
 import Game.Game;
 
 import java.awt.Color;
-import java.util.ArrayList;
-import java.util.List;
 
 import Movement.Ball;
 
@@ -26,8 +26,10 @@ import Movement.Ball;
 public class Block implements Collidable, Sprite, HitNotifier {
     private final Rectangle area;
     private final Color color;
-    private final List<HitListener> hitListeners;
-
+    private ListenerSet hitListeners;
+    private HitEventBus hitEvents;
+    private int category = CollisionLayers.BLOCK;
+    private boolean removed;
 
     /**
      * Constructs a Collidable.Block with the specified upper-left corner, width, height, and color.
@@ -40,7 +42,7 @@ public class Block implements Collidable, Sprite, HitNotifier {
     public Block(Point leftUp, double width, double height, Color color) {
         this.area = new Rectangle(leftUp, width, height);
         this.color = color;
-        this.hitListeners = new ArrayList<>();
+        this.hitListeners = ListenerSet.EMPTY;
     }
 
     /**
@@ -52,7 +54,7 @@ public class Block implements Collidable, Sprite, HitNotifier {
     public Block(Rectangle area, Color color) {
         this.area = area;
         this.color = color;
-        this.hitListeners = new ArrayList<>();
+        this.hitListeners = ListenerSet.EMPTY;
     }
 
     @Override
@@ -62,30 +64,36 @@ public class Block implements Collidable, Sprite, HitNotifier {
 
     @Override
     public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity) {
+        double[] velocity = {currentVelocity.getDx(), currentVelocity.getDy()};
+        bounce(hitter, collisionPoint, velocity);
+        return new Velocity(velocity[0], velocity[1]);
+    }
+
+    @Override
+    public void bounce(Ball hitter, Point collisionPoint, double[] velocity) {
         if (collisionPoint != null) {
             // Check for collision with the left or right sides of the block
-            if (area.getLeft().pointOnLine(collisionPoint) || area.getRight().pointOnLine(collisionPoint)) {
-                currentVelocity = new Velocity(-currentVelocity.getDx(), currentVelocity.getDy());
+            if (area.onLeftOrRight(collisionPoint)) {
+                velocity[0] = -velocity[0];
             }
             // Check for collision with the top or bottom sides of the block
-            if (area.getTop().pointOnLine(collisionPoint) || area.getDown().pointOnLine(collisionPoint)) {
-                currentVelocity = new Velocity(currentVelocity.getDx(), -currentVelocity.getDy());
+            if (area.onTopOrDown(collisionPoint)) {
+                velocity[1] = -velocity[1];
             }
 
         }
         if (!ballColorMatch(hitter)) {
             this.notifyHit(hitter);
         }
-        return currentVelocity;
     }
 
     @Override
     public void drawOn(DrawSurface d) {
         d.setColor(color);
-        d.fillRectangle((int) area.getUpperLeft().getX(), (int) area.getUpperLeft().getY(),
+        d.fillRectangle((int) area.getMinX(), (int) area.getMinY(),
                 (int) area.getWidth(), (int) area.getHeight());
         d.setColor(Color.black);
-        d.drawRectangle((int) area.getUpperLeft().getX(), (int) area.getUpperLeft().getY(),
+        d.drawRectangle((int) area.getMinX(), (int) area.getMinY(),
                 (int) area.getWidth(), (int) area.getHeight());
     }
 
@@ -96,7 +104,8 @@ public class Block implements Collidable, Sprite, HitNotifier {
     @Override
     public void addToGame(Game game) {
         game.addCollidable(this);
-        game.addSprite(this);
+        game.addStaticSprite(this);
+        removed = false;
     }
 
     @Override
@@ -104,6 +113,21 @@ public class Block implements Collidable, Sprite, HitNotifier {
         return "Collidable.Block";
     }
 
+    @Override
+    public int getCategory() {
+        return this.category;
+    }
+
+    /**
+     * Sets the collision category of this block (for example, Collidable.CollisionLayers.BACKGROUND
+     * for a block that balls should pass through).
+     *
+     * @param newCategory the new collision category, one of the Collidable.CollisionLayers bits.
+     */
+    public void setCategory(int newCategory) {
+        this.category = newCategory;
+    }
+
     /**
      * Checks if the color of the given ball matches the color of this object.
      *
@@ -122,6 +146,17 @@ public class Block implements Collidable, Sprite, HitNotifier {
     public void removeFromGame(Game game) {
         game.removeCollidable(this);
         game.removeSprite(this);
+        removed = true;
+    }
+
+    /**
+     * Returns whether this block was removed from the game (for example, by a listener notified earlier in the
+     * same tick).
+     *
+     * @return true if the block was removed, false otherwise.
+     */
+    public boolean isRemoved() {
+        return this.removed;
     }
 
     /**
@@ -130,22 +165,65 @@ public class Block implements Collidable, Sprite, HitNotifier {
      * @param hitter the ball that caused the hit event.
      */
     private void notifyHit(Ball hitter) {
-        // Make a copy of the hitListeners before iterating over them.
-        List<HitListener> listeners = new ArrayList<>(this.hitListeners);
+        if (hitEvents != null) {
+            // The listeners are notified when the bus is drained, at the end of the tick
+            hitEvents.publish(this, hitter);
+            return;
+        }
+        // The set is immutable, so the listeners may add or remove listeners without a copy being made first.
+        ListenerSet listeners = this.hitListeners;
         // Notify all listeners about a hit event:
-        for (HitListener hl : listeners) {
-            hl.hitEvent(this, hitter);
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).hitEvent(this, hitter);
         }
     }
 
     @Override
     public void addHitListener(HitListener hl) {
-        hitListeners.add(hl);
+        hitListeners = hitListeners.with(hl);
     }
 
     @Override
     public void removeHitListener(HitListener hl) {
-        hitListeners.remove(hl);
+        hitListeners = hitListeners.without(hl);
+    }
+
+    /**
+     * Returns the listeners of this block.
+     *
+     * @return the (immutable) set of the listeners.
+     */
+    public ListenerSet getHitListeners() {
+        return this.hitListeners;
+    }
+
+    /**
+     * Replaces the listeners of this block with the given set. Blocks with the same listeners should be given
+     * the same set, which they then share.
+     *
+     * @param listeners the (immutable) set of the listeners.
+     */
+    public void setHitListeners(ListenerSet listeners) {
+        this.hitListeners = listeners;
+    }
+
+    /**
+     * Returns the hit-event bus of this block.
+     *
+     * @return the bus the hits of this block are published to, or null if its listeners are notified at once.
+     */
+    public HitEventBus getHitEventBus() {
+        return this.hitEvents;
+    }
+
+    /**
+     * Publishes the hits of this block to the given bus, so its listeners are notified at the end of the tick
+     * rather than during the collision step.
+     *
+     * @param bus the hit-event bus, or null to notify the listeners at once.
+     */
+    public void setHitEventBus(HitEventBus bus) {
+        this.hitEvents = bus;
     }
 
     /**
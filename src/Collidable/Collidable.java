@@ -33,6 +33,41 @@ public interface Collidable {
      * @return The new velocity expected after the collision.
      */
     Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity);
+
+    /**
+     * Notifies the object that it has been hit, as hit does, but reads the velocity from, and writes the new
+     * velocity to, a scratch array of the caller ({dx, dy}), so a caller that answers many hits (see
+     * Movement.BallSystem) does not allocate a velocity for each. The velocities themselves stay immutable.
+     * By default the hit is answered by hit; the collidables of the game answer it without allocating.
+     *
+     * @param hitter         The ball that hit the collidable.
+     * @param collisionPoint The point at which the collision occurred.
+     * @param velocity       The velocity before the collision, replaced by the velocity after it.
+     */
+    default void bounce(Ball hitter, Point collisionPoint, double[] velocity) {
+        Velocity v = hit(hitter, collisionPoint, new Velocity(velocity[0], velocity[1]));
+        velocity[0] = v.getDx();
+        velocity[1] = v.getDy();
+    }
+
+    /**
+     * Returns the collision category of this object, one of the Collidable.CollisionLayers bits.
+     *
+     * @return The collision category of the object.
+     */
+    default int getCategory() {
+        return CollisionLayers.BLOCK;
+    }
+
+    /**
+     * Returns the mask of the ball categories this object collides with.
+     *
+     * @return The collision mask of the object.
+     */
+    default int getCollisionMask() {
+        return CollisionLayers.ALL;
+    }
+
     /**
      * Returns the name of this collidable object.
      *
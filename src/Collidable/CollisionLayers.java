@@ -0,0 +1,35 @@
+//209852706 Maya Diamant
+package Collidable;
+
+/**
+ * The Collidable.CollisionLayers class holds the collision categories of the game objects, one bit each.
+ * Every collidable and every ball has a category and a mask of the categories it collides with.
+ * A ball and a collidable collide only if the category of each one is in the mask of the other,
+ * which is checked before any geometry work.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public final class CollisionLayers {
+    // No category: collides with nothing
+    public static final int NONE = 0;
+    // The blocks, the default category of a collidable
+    public static final int BLOCK = 1;
+    // The edges of the screen
+    public static final int EDGE = 1 << 1;
+    // The paddle
+    public static final int PADDLE = 1 << 2;
+    // Background collidables, which balls ignore unless they ask for them
+    public static final int BACKGROUND = 1 << 3;
+    // The balls
+    public static final int BALL = 1 << 4;
+    // Every category
+    public static final int ALL = ~0;
+
+    /**
+     * This class only holds constants.
+     */
+    private CollisionLayers() {
+    }
+}
@@ -0,0 +1,104 @@
+//209852706 Maya Diamant
+package Engine;
+
+import java.util.Arrays;
+
+/**
+ * The Engine.Colliders class stores the collider components: the collision category and mask of an entity
+ * (see Collidable.CollisionLayers), and the Engine.EntityBlock that represents it in the game environment.
+ * The collision shape of an entity is its transform.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class Colliders extends ComponentStore {
+    // The components, one per index; the systems of the engine read them directly
+    int[] category;
+    int[] mask;
+    EntityBlock[] views;
+
+    /**
+     * Constructs an empty Engine.Colliders store.
+     */
+    public Colliders() {
+        this.category = new int[INITIAL_CAPACITY];
+        this.mask = new int[INITIAL_CAPACITY];
+        this.views = new EntityBlock[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Gives the given entity a collider.
+     *
+     * @param entity      the entity.
+     * @param newCategory the collision category of the entity.
+     * @param newMask     the mask of the ball categories the entity collides with.
+     * @param view        the block that represents the entity in the game environment.
+     */
+    void add(int entity, int newCategory, int newMask, EntityBlock view) {
+        int i = attach(entity);
+        category[i] = newCategory;
+        mask[i] = newMask;
+        views[i] = view;
+    }
+
+    /**
+     * Returns the collision category of the given entity.
+     *
+     * @param entity the entity, which has a collider.
+     * @return the collision category.
+     */
+    public int getCategory(int entity) {
+        return category[indexOf(entity)];
+    }
+
+    /**
+     * Sets the collision category of the given entity.
+     *
+     * @param entity      the entity, which has a collider.
+     * @param newCategory the new collision category.
+     */
+    public void setCategory(int entity, int newCategory) {
+        category[indexOf(entity)] = newCategory;
+    }
+
+    /**
+     * Returns the mask of the ball categories the given entity collides with.
+     *
+     * @param entity the entity, which has a collider.
+     * @return the collision mask.
+     */
+    public int getMask(int entity) {
+        return mask[indexOf(entity)];
+    }
+
+    /**
+     * Returns the block that represents the given entity in the game environment.
+     *
+     * @param entity the entity.
+     * @return the block of the entity, or null if it has no collider.
+     */
+    public EntityBlock getView(int entity) {
+        int i = indexOf(entity);
+        return i < 0 ? null : views[i];
+    }
+
+    @Override
+    protected void growComponents(int capacity) {
+        category = Arrays.copyOf(category, capacity);
+        mask = Arrays.copyOf(mask, capacity);
+        views = Arrays.copyOf(views, capacity);
+    }
+
+    @Override
+    protected void moveComponent(int from, int to) {
+        category[to] = category[from];
+        mask[to] = mask[from];
+        views[to] = views[from];
+    }
+
+    @Override
+    protected void clearComponent(int index) {
+        views[index] = null;
+    }
+}
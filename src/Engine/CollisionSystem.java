@@ -0,0 +1,149 @@
+//209852706 Maya Diamant
+package Engine;
+
+import Game.Game;
+import Geometry.Point;
+import Geometry.Rectangle;
+import Movement.Ball;
+import Observers.ListenerSet;
+
+/**
+ * The Engine.CollisionSystem class puts the entities that have a collider into the collision environment of
+ * a game, and answers the hits of the balls on them.
+ * Every collider is represented in the environment by an Engine.EntityBlock, so the balls collide with
+ * entities exactly as with blocks. An entity with a velocity is added as a dynamic collidable, and its block
+ * is moved after every tick; the others are static and indexed once.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class CollisionSystem {
+    private final Game game;
+    private final ScoringSystem scoring;
+
+    /**
+     * Constructs an Engine.CollisionSystem that adds the colliders to the given game.
+     *
+     * @param game    the game.
+     * @param scoring the system that scores the hits.
+     */
+    public CollisionSystem(Game game, ScoringSystem scoring) {
+        this.game = game;
+        this.scoring = scoring;
+    }
+
+    /**
+     * Gives the given entity a collider, and adds its block to the game. The entity must have a transform,
+     * and its velocity (if any) must be set first.
+     *
+     * @param world    the world of the entity.
+     * @param entity   the entity.
+     * @param category the collision category of the entity.
+     * @param mask     the mask of the ball categories the entity collides with.
+     * @return the block that represents the entity in the game.
+     */
+    public EntityBlock attach(World world, int entity, int category, int mask) {
+        return attach(world, entity, category, mask, new EntityBlock(world, entity, this));
+    }
+
+    /**
+     * Gives the given entity a collider represented by the given block (a block of a kind that answers its
+     * hits in its own way, such as an Engine.EntityPaddle), and adds the block to the game.
+     *
+     * @param world    the world of the entity.
+     * @param entity   the entity.
+     * @param category the collision category of the entity.
+     * @param mask     the mask of the ball categories the entity collides with.
+     * @param view     the block that represents the entity, made for it.
+     * @return the block.
+     */
+    EntityBlock attach(World world, int entity, int category, int mask, EntityBlock view) {
+        world.getColliders().add(entity, category, mask, view);
+        if (world.getVelocities().has(entity)) {
+            game.addDynamicCollidable(view);
+        } else {
+            game.addCollidable(view);
+        }
+        return view;
+    }
+
+    /**
+     * Removes the block of the given entity from the game, and destroys the entity.
+     *
+     * @param world  the world of the entity.
+     * @param entity the entity.
+     */
+    public void destroy(World world, int entity) {
+        EntityBlock view = world.getColliders().getView(entity);
+        if (view != null) {
+            game.removeCollidable(view);
+        }
+        world.destroy(entity);
+    }
+
+    /**
+     * Moves the blocks of the moving entities to their new positions.
+     *
+     * @param world the world.
+     */
+    public void update(World world) {
+        Transforms transforms = world.getTransforms();
+        Velocities velocities = world.getVelocities();
+        Colliders colliders = world.getColliders();
+        for (int i = 0; i < velocities.size(); i++) {
+            int entity = velocities.entityAt(i);
+            int c = colliders.indexOf(entity);
+            int k = transforms.indexOf(entity);
+            if (c < 0 || k < 0) {
+                continue;
+            }
+            // An entity that did not move leaves the environment as it is, so the collision queries made
+            // ahead of the tick (see Movement.BallSystem) stay valid
+            EntityBlock view = colliders.views[c];
+            if (view.moveTo(transforms.x[k], transforms.y[k], transforms.width[k], transforms.height[k])) {
+                game.updateCollidable(view);
+            }
+        }
+    }
+
+    /**
+     * Answers a hit of a ball on the block of an entity, the same way a Collidable.Block does: the velocity is
+     * reflected off the side that was hit, and unless the ball has the color of the block, the hit is scored
+     * and the listeners of the entity are notified.
+     *
+     * @param world          the world of the entity.
+     * @param view           the block of the entity that was hit.
+     * @param hitter         the ball that hit it.
+     * @param collisionPoint the point at which the collision occurred.
+     * @param velocity       the velocity of the ball before the collision ({dx, dy}), replaced by the velocity
+     *                       after it.
+     */
+    void bounce(World world, EntityBlock view, Ball hitter, Point collisionPoint, double[] velocity) {
+        Rectangle area = view.getCollisionRectangle();
+        if (collisionPoint != null) {
+            // Check for collision with the left or right sides of the block
+            if (area.onLeftOrRight(collisionPoint)) {
+                velocity[0] = -velocity[0];
+            }
+            // Check for collision with the top or bottom sides of the block
+            if (area.onTopOrDown(collisionPoint)) {
+                velocity[1] = -velocity[1];
+            }
+        }
+        if (!view.ballColorMatch(hitter)) {
+            int entity = view.getEntity();
+            scoring.onHit(world, entity);
+            if (view.getHitEventBus() != null) {
+                // The listeners are notified when the bus is drained, through the view
+                view.getHitEventBus().publish(view, hitter);
+                return;
+            }
+            // The set is immutable, so the listeners may destroy the entity without a copy being made first
+            ListenerSet listeners = world.getHitListeners().getListeners(entity);
+            for (int i = 0; i < listeners.size(); i++) {
+                listeners.get(i).hitEvent(view, hitter);
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+//209852706 Maya Diamant
+package Engine;
+
+import java.util.Arrays;
+
+/**
+ * The Engine.ComponentStore class is the base of the stores of the components of one type.
+ * It is a sparse set: the components are packed densely, in parallel arrays kept by the subclass, and every
+ * entity that has a component is mapped to the index of its component. Removing a component moves the last
+ * component into its place, so the components always fill the first size() indices, and a system that
+ * iterates them reads the arrays in order.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public abstract class ComponentStore {
+    // The number of components a store has room for when it is constructed
+    protected static final int INITIAL_CAPACITY = 16;
+
+    private int[] sparse;
+    private int[] entities;
+    private int size;
+
+    /**
+     * Constructs an empty Engine.ComponentStore.
+     */
+    protected ComponentStore() {
+        this.sparse = new int[INITIAL_CAPACITY];
+        Arrays.fill(sparse, -1);
+        this.entities = new int[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Checks whether the given entity has a component in this store.
+     *
+     * @param entity the entity.
+     * @return true if the entity has a component, false otherwise.
+     */
+    public boolean has(int entity) {
+        return entity >= 0 && entity < sparse.length && sparse[entity] >= 0;
+    }
+
+    /**
+     * Returns the index of the component of the given entity.
+     *
+     * @param entity the entity.
+     * @return the index of its component, or -1 if it has none.
+     */
+    public int indexOf(int entity) {
+        return entity >= 0 && entity < sparse.length ? sparse[entity] : -1;
+    }
+
+    /**
+     * Returns the entity whose component is at the given index.
+     *
+     * @param index the index of the component, between 0 and size() - 1.
+     * @return the entity.
+     */
+    public int entityAt(int index) {
+        return entities[index];
+    }
+
+    /**
+     * Returns the number of components in this store.
+     *
+     * @return the number of components.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gives the given entity a component, at the end of the store, growing the arrays if needed.
+     * An entity that already has a component keeps it.
+     *
+     * @param entity the entity.
+     * @return the index of the component of the entity, for the subclass to fill in.
+     */
+    protected int attach(int entity) {
+        if (has(entity)) {
+            return sparse[entity];
+        }
+        if (entity >= sparse.length) {
+            int oldLength = sparse.length;
+            sparse = Arrays.copyOf(sparse, Math.max(entity + 1, oldLength * 2));
+            Arrays.fill(sparse, oldLength, sparse.length, -1);
+        }
+        if (size == entities.length) {
+            entities = Arrays.copyOf(entities, size * 2);
+            growComponents(size * 2);
+        }
+        entities[size] = entity;
+        sparse[entity] = size;
+        return size++;
+    }
+
+    /**
+     * Removes the component of the given entity, moving the last component into its place.
+     *
+     * @param entity the entity.
+     * @return true if the entity had a component, false otherwise.
+     */
+    public boolean remove(int entity) {
+        int index = indexOf(entity);
+        if (index < 0) {
+            return false;
+        }
+        int last = --size;
+        if (index != last) {
+            moveComponent(last, index);
+            entities[index] = entities[last];
+            sparse[entities[index]] = index;
+        }
+        clearComponent(last);
+        sparse[entity] = -1;
+        return true;
+    }
+
+    /**
+     * Grows the component arrays to the given capacity.
+     *
+     * @param capacity the new capacity.
+     */
+    protected abstract void growComponents(int capacity);
+
+    /**
+     * Copies the component at one index over the component at another.
+     *
+     * @param from the index of the component to copy.
+     * @param to   the index to copy it to.
+     */
+    protected abstract void moveComponent(int from, int to);
+
+    /**
+     * Forgets the component at the given index, which is no longer used. Stores of objects release them,
+     * so they can be garbage collected.
+     *
+     * @param index the index of the component.
+     */
+    protected void clearComponent(int index) {
+    }
+}
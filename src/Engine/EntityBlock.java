@@ -0,0 +1,214 @@
+//209852706 Maya Diamant
+package Engine;
+
+import Collidable.Block;
+import Collidable.CollisionLayers;
+import Game.Game;
+import Geometry.Point;
+import Geometry.Rectangle;
+import Movement.Ball;
+import Movement.Velocity;
+import Observers.HitListener;
+import Observers.ListenerSet;
+import biuoop.DrawSurface;
+
+/**
+ * The Engine.EntityBlock class is a Collidable.Block that stands for an entity of an Engine.World, so the code
+ * written for blocks keeps working with entities: the balls collide with it, and hit listeners such as
+ * Observers.BlockRemover receive it as the block that was hit.
+ * The block holds no state of its own apart from its rectangle, which follows the transform of its entity
+ * (replaced when the entity moves): its collision filter, listeners and colors are the components of
+ * its entity. It is created by Engine.CollisionSystem, which adds it to the
+ * game, and removing it from the game destroys its entity.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class EntityBlock extends Block {
+    private final World world;
+    private final int entity;
+    private final CollisionSystem collisions;
+    private Rectangle area;
+
+    /**
+     * Constructs an Engine.EntityBlock of the given entity, which has a transform.
+     *
+     * @param world      the world of the entity.
+     * @param entity     the entity.
+     * @param collisions the system that answers the hits on the entity.
+     */
+    EntityBlock(World world, int entity, CollisionSystem collisions) {
+        super(rectangleOf(world, entity), world.getRenderables().has(entity)
+                ? world.getRenderables().getFill(entity) : null);
+        this.area = super.getCollisionRectangle();
+        this.world = world;
+        this.entity = entity;
+        this.collisions = collisions;
+    }
+
+    /**
+     * Returns the rectangle of the transform of the given entity.
+     *
+     * @param world  the world of the entity.
+     * @param entity the entity, which has a transform.
+     * @return the rectangle of the entity.
+     */
+    private static Rectangle rectangleOf(World world, int entity) {
+        Transforms transforms = world.getTransforms();
+        return new Rectangle(new Point(transforms.getX(entity), transforms.getY(entity)),
+                transforms.getWidth(entity), transforms.getHeight(entity));
+    }
+
+    /**
+     * Returns the entity this block stands for.
+     *
+     * @return the entity.
+     */
+    public int getEntity() {
+        return this.entity;
+    }
+
+    /**
+     * Checks whether this block still stands for its entity, which was not destroyed (its ID may have been
+     * given to a new entity since).
+     *
+     * @return true if the entity of this block exists, false otherwise.
+     */
+    public boolean isAttached() {
+        return world.getColliders().getView(entity) == this;
+    }
+
+    /**
+     * Moves this block: its collision rectangle is replaced by a rectangle of the given bounds, unless it
+     * already has them.
+     *
+     * @param minX   the new smallest x-coordinate.
+     * @param minY   the new smallest y-coordinate.
+     * @param width  the width of the rectangle.
+     * @param height the height of the rectangle.
+     * @return true if the rectangle moved, false if it already had these bounds.
+     */
+    boolean moveTo(double minX, double minY, double width, double height) {
+        if (minX == area.getMinX() && minY == area.getMinY() && width == area.getWidth()
+                && height == area.getHeight()) {
+            return false;
+        }
+        area = new Rectangle(minX, minY, width, height);
+        return true;
+    }
+
+    @Override
+    public Rectangle getCollisionRectangle() {
+        return this.area;
+    }
+
+    @Override
+    public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity) {
+        double[] velocity = {currentVelocity.getDx(), currentVelocity.getDy()};
+        bounce(hitter, collisionPoint, velocity);
+        return new Velocity(velocity[0], velocity[1]);
+    }
+
+    @Override
+    public void bounce(Ball hitter, Point collisionPoint, double[] velocity) {
+        collisions.bounce(world, this, hitter, collisionPoint, velocity);
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+        Renderables renderables = world.getRenderables();
+        int i = isAttached() ? renderables.indexOf(entity) : -1;
+        if (i < 0) {
+            return;
+        }
+        Rectangle area = getCollisionRectangle();
+        d.setColor(renderables.fill[i]);
+        d.fillRectangle((int) area.getMinX(), (int) area.getMinY(), (int) area.getWidth(), (int) area.getHeight());
+        if (renderables.outline[i] != null) {
+            d.setColor(renderables.outline[i]);
+            d.drawRectangle((int) area.getMinX(), (int) area.getMinY(),
+                    (int) area.getWidth(), (int) area.getHeight());
+        }
+    }
+
+    /**
+     * Does nothing: the block is added to the game by Engine.CollisionSystem when its entity gets a collider,
+     * and drawn by the Engine.RenderSystem.
+     *
+     * @param game the game.
+     */
+    @Override
+    public void addToGame(Game game) {
+    }
+
+    /**
+     * Removes this block from the game, and destroys its entity.
+     *
+     * @param game the game from which this block is to be removed.
+     */
+    @Override
+    public void removeFromGame(Game game) {
+        if (isAttached()) {
+            collisions.destroy(world, entity);
+        }
+    }
+
+    /**
+     * Returns whether this block was removed from the game, that is, whether its entity was destroyed.
+     *
+     * @return true if the block was removed, false otherwise.
+     */
+    @Override
+    public boolean isRemoved() {
+        return !isAttached();
+    }
+
+    @Override
+    public String myName() {
+        return "Engine.EntityBlock";
+    }
+
+    @Override
+    public int getCategory() {
+        return isAttached() ? world.getColliders().getCategory(entity) : CollisionLayers.NONE;
+    }
+
+    @Override
+    public void setCategory(int newCategory) {
+        if (isAttached()) {
+            world.getColliders().setCategory(entity, newCategory);
+        }
+    }
+
+    @Override
+    public int getCollisionMask() {
+        return isAttached() ? world.getColliders().getMask(entity) : CollisionLayers.NONE;
+    }
+
+    @Override
+    public void addHitListener(HitListener hl) {
+        if (isAttached()) {
+            world.getHitListeners().addListener(entity, hl);
+        }
+    }
+
+    @Override
+    public void removeHitListener(HitListener hl) {
+        if (isAttached()) {
+            world.getHitListeners().removeListener(entity, hl);
+        }
+    }
+
+    @Override
+    public ListenerSet getHitListeners() {
+        return isAttached() ? world.getHitListeners().getListeners(entity) : ListenerSet.EMPTY;
+    }
+
+    @Override
+    public void setHitListeners(ListenerSet listeners) {
+        if (isAttached()) {
+            world.getHitListeners().setListeners(entity, listeners);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+//209852706 Maya Diamant
+package Engine;
+
+import Collidable.Block;
+import Collidable.CollisionLayers;
+import Game.Game;
+import Geometry.Rectangle;
+import Sprites.Sprite;
+import biuoop.DrawSurface;
+import biuoop.KeyboardSensor;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The Engine.EntityEngine class runs an Engine.World inside a game, as one sprite.
+ * Every tick, the paddles are steered, the movement system moves the entities and the collision system moves
+ * their blocks in the collision environment; every frame, the render system draws them. Hits are answered by
+ * the collision system as they happen, and scored by the scoring system.
+ * The engine is a sprite like any other, so it is drawn (and its entities moved) in the order it was added
+ * to the game: it should be added before the sprites that are drawn above its entities, such as the balls.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class EntityEngine implements Sprite {
+    private final World world;
+    private final MovementSystem movement;
+    private final CollisionSystem collisions;
+    private final RenderSystem render;
+    private final List<EntityPaddle> paddles;
+
+    /**
+     * Constructs an Engine.EntityEngine with an empty world, whose entities collide and score in the given game.
+     *
+     * @param game the game.
+     */
+    public EntityEngine(Game game) {
+        this.world = new World();
+        this.movement = new MovementSystem();
+        this.collisions = new CollisionSystem(game, new ScoringSystem(game.getScoreCounter()));
+        this.render = new RenderSystem();
+        this.paddles = new ArrayList<>();
+    }
+
+    /**
+     * Returns the world of the engine.
+     *
+     * @return the world.
+     */
+    public World getWorld() {
+        return this.world;
+    }
+
+    /**
+     * Creates an entity drawn as a rectangle filled with the given color and outlined in black.
+     *
+     * @param area  the rectangle of the entity.
+     * @param color the fill color of the entity.
+     * @return the new entity.
+     */
+    public int createBox(Rectangle area, Color color) {
+        int entity = world.create();
+        world.getTransforms().add(entity, area.getMinX(), area.getMinY(), area.getWidth(), area.getHeight());
+        world.getRenderables().add(entity, color, Color.black);
+        return entity;
+    }
+
+    /**
+     * Gives the given entity a collider that balls of every category collide with, and adds it to the game.
+     * The velocity of the entity, if it moves, must be set first.
+     *
+     * @param entity   the entity, which has a transform.
+     * @param category the collision category of the entity.
+     * @return the block that represents the entity in the game.
+     */
+    public EntityBlock addCollider(int entity, int category) {
+        return collisions.attach(world, entity, category, CollisionLayers.ALL);
+    }
+
+    /**
+     * Creates a block: an entity drawn as a rectangle, that balls collide with, and whose hits are worth
+     * the given number of points.
+     *
+     * @param area   the rectangle of the block.
+     * @param color  the fill color of the block.
+     * @param points the number of points a hit on the block is worth.
+     * @return the block that represents the entity in the game.
+     */
+    public EntityBlock createBlock(Rectangle area, Color color, int points) {
+        int entity = createBox(area, color);
+        world.getScoreValues().set(entity, points);
+        return addCollider(entity, CollisionLayers.BLOCK);
+    }
+
+    /**
+     * Creates a paddle: an entity drawn as a rectangle, that balls of every category collide with as with a
+     * Movement.Paddle, and that the keyboard moves through its velocity (see Engine.EntityPaddle).
+     *
+     * @param keyboard    the keyboard sensor that steers the paddle.
+     * @param area        the rectangle of the paddle.
+     * @param color       the fill color of the paddle.
+     * @param screenWidth the width of the screen, past which the paddle wraps around.
+     * @param speed       the distance the paddle moves every tick while an arrow key is pressed.
+     * @return the block that represents the paddle in the game.
+     */
+    public EntityPaddle createPaddle(KeyboardSensor keyboard, Rectangle area, Color color, double screenWidth,
+                                     double speed) {
+        int entity = createBox(area, color);
+        world.getVelocities().set(entity, 0, 0);
+        EntityPaddle paddle = new EntityPaddle(world, entity, collisions, keyboard, screenWidth, speed);
+        collisions.attach(world, entity, CollisionLayers.PADDLE, CollisionLayers.ALL, paddle);
+        paddles.add(paddle);
+        return paddle;
+    }
+
+    /**
+     * Puts a Collidable.Block, made as usual but not added to a game, on the engine: an entity takes the area,
+     * color, collision category, hit listeners and hit-event bus of the block, and its Engine.EntityBlock is added
+     * to the game in place of the block. Code that makes blocks (a level, a level file) thus runs on the engine
+     * unchanged, and the listeners see the Engine.EntityBlock as the block that was hit.
+     *
+     * @param block  the block, which is not in any game.
+     * @param points the number of points a hit on the block is worth through its score value component, or 0 if
+     *               its hits are not scored by the engine (for example, when a listener scores them).
+     * @return the block that represents the entity in the game.
+     */
+    public EntityBlock adopt(Block block, int points) {
+        int entity = createBox(block.getCollisionRectangle(), block.getColor());
+        if (points != 0) {
+            world.getScoreValues().set(entity, points);
+        }
+        EntityBlock view = addCollider(entity, block.getCategory());
+        view.setHitListeners(block.getHitListeners());
+        view.setHitEventBus(block.getHitEventBus());
+        return view;
+    }
+
+    /**
+     * Destroys the given entity, removing its block (if any) from the game.
+     *
+     * @param entity the entity.
+     */
+    public void destroy(int entity) {
+        collisions.destroy(world, entity);
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+        render.drawOn(world, d, 1);
+    }
+
+    @Override
+    public void drawOn(DrawSurface d, double alpha) {
+        render.drawOn(world, d, alpha);
+    }
+
+    @Override
+    public void timePassed() {
+        for (int i = 0; i < paddles.size(); i++) {
+            paddles.get(i).steer();
+        }
+        movement.update(world);
+        collisions.update(world);
+    }
+
+    @Override
+    public void addToGame(Game game) {
+        game.addSprite(this);
+    }
+}
@@ -0,0 +1,91 @@
+//209852706 Maya Diamant
+package Engine;
+
+import Collidable.Block;
+import Collidable.CollisionLayers;
+import Game.Board;
+import Game.Game;
+import Game.Level;
+import Geometry.Rectangle;
+import Movement.Velocity;
+import Observers.BallRemover;
+import Observers.BlockRemover;
+import Observers.ListenerSet;
+import Sprites.ScoreIndicator;
+
+/**
+ * The Engine.EntityLevel class is the built-in board (see Game.Board) with its background, blocks and edges
+ * on an Engine.EntityEngine. The blocks and the edges are made as the usual Collidable.Block objects and put
+ * on the engine (see Engine.EntityEngine#adopt), which then moves, collides, scores and draws them as entities.
+ * The paddle is an entity too, with a velocity that the keyboard sets (see Engine.EntityPaddle), and the balls
+ * are the usual ones. The blocks are worth 5 points a hit through their score value
+ * component, instead of an Observers.ScoreTrackingListener, and are removed by the usual
+ * Observers.BlockRemover.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class EntityLevel implements Level {
+    // The points a hit on a block is worth
+    private static final int BLOCK_POINTS = 5;
+
+    @Override
+    public void build(Game game) {
+        // The engine is added first, so its entities are drawn below the score, the paddle and the balls
+        EntityEngine engine = new EntityEngine(game);
+        engine.addToGame(game);
+        engine.createBox(Board.getScreen(), Board.BACKGROUND);
+        BlockRemover remove = new BlockRemover(game, game.getBlocksCounter());
+        BallRemover ballsRemove = new BallRemover(game.getBallsCounter(), game);
+        ScoreIndicator display = new ScoreIndicator(game.getScoreCounter());
+        display.addToGame(game);
+
+        // Create the blocks, which all share one set of listeners
+        ListenerSet blockListeners = ListenerSet.of(remove);
+        for (int row = 0; row < Board.ROWS; row++) {
+            for (int j = Board.getBlocksInRow(row); j > 0; j--) {
+                Block block = new Block(Board.getBlockArea(row, j), Board.getRowColor(row));
+                block.setHitListeners(blockListeners);
+                block.setHitEventBus(game.getHitEventBus());
+                engine.adopt(block, BLOCK_POINTS);
+                game.getBlocksCounter().increase(1);
+            }
+        }
+
+        // Create the paddle
+        game.setPaddle(engine.createPaddle(game.getKeyboard(), Board.getPaddleArea(), Board.PADDLE_COLOR,
+                Board.WIDTH, Board.PADDLE_SPEED));
+
+        // Create the edges
+        Block bottom = edge(Board.getBottomEdge());
+        bottom.addHitListener(ballsRemove);
+        bottom.setHitEventBus(game.getHitEventBus());
+        engine.adopt(bottom, 0);
+        engine.adopt(edge(Board.getTopEdge()), 0);
+        engine.adopt(edge(Board.getLeftEdge()), 0);
+        engine.adopt(edge(Board.getRightEdge()), 0);
+
+        // Create and add balls to the game
+        game.getBallSystem().addToGame(game);
+        for (int i = 0; i < Board.BALLS; i++) {
+            Velocity v = Velocity.fromAngleAndSpeed(game.getRandom().nextInt(360), Board.BALL_SPEED);
+            if (game.spawnBall(Board.BALL_X, Board.BALL_Y, Board.BALL_RADIUS, Board.BACKGROUND, v.getDx(), v.getDy())
+                    != null) {
+                game.getBallsCounter().increase(1);
+            }
+        }
+    }
+
+    /**
+     * Makes an edge of the board, as a block of the edge category.
+     *
+     * @param area the area of the edge.
+     * @return the edge.
+     */
+    private static Block edge(Rectangle area) {
+        Block edge = new Block(area, Board.EDGE_COLOR);
+        edge.setCategory(CollisionLayers.EDGE);
+        return edge;
+    }
+}
@@ -0,0 +1,91 @@
+//209852706 Maya Diamant
+package Engine;
+
+import Geometry.Point;
+import Movement.Ball;
+import Movement.Paddle;
+import biuoop.KeyboardSensor;
+
+/**
+ * The Engine.EntityPaddle class is the block of a paddle entity: an entity with a transform, a velocity and a
+ * collider of the paddle category, steered by the keyboard. Every tick, before the movement system runs, the
+ * paddle sets the velocity of its entity from the arrow keys, so the movement system moves it like any other
+ * entity, and the collision system moves its block. A move past an end of the screen wraps around to the
+ * other end, as a Movement.Paddle does, and is made at once rather than by the velocity, so it is not drawn
+ * sliding across the screen. A ball bounces off it as off a Movement.Paddle.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class EntityPaddle extends EntityBlock {
+    private final World world;
+    private final KeyboardSensor keyboard;
+    private final double screenWidth;
+    private final double speed;
+
+    /**
+     * Constructs an Engine.EntityPaddle of the given entity, which has a transform and a velocity.
+     *
+     * @param world       the world of the entity.
+     * @param entity      the entity.
+     * @param collisions  the system that answers the hits on the entity.
+     * @param keyboard    the keyboard sensor that steers the paddle.
+     * @param screenWidth the width of the screen, past which the paddle wraps around.
+     * @param speed       the distance the paddle moves every tick while an arrow key is pressed.
+     */
+    EntityPaddle(World world, int entity, CollisionSystem collisions, KeyboardSensor keyboard, double screenWidth,
+                 double speed) {
+        super(world, entity, collisions);
+        this.world = world;
+        this.keyboard = keyboard;
+        this.screenWidth = screenWidth;
+        this.speed = speed;
+    }
+
+    /**
+     * Sets the velocity of the paddle entity for this tick from the arrow keys, or moves the entity at once if
+     * the paddle wraps around the screen.
+     */
+    void steer() {
+        if (!isAttached()) {
+            return;
+        }
+        Transforms transforms = world.getTransforms();
+        int entity = getEntity();
+        double x = transforms.getX(entity);
+        double maxX = screenWidth - transforms.getWidth(entity);
+        double newX = x;
+        boolean wrapped = false;
+        if (keyboard.isPressed(KeyboardSensor.LEFT_KEY)) {
+            newX -= speed;
+            if (newX < 0) {
+                newX = maxX;
+                wrapped = true;
+            }
+        }
+        if (keyboard.isPressed(KeyboardSensor.RIGHT_KEY)) {
+            newX += speed;
+            if (newX > maxX) {
+                newX = 0;
+                wrapped = true;
+            }
+        }
+        if (wrapped) {
+            transforms.setPosition(entity, newX, transforms.getY(entity));
+            world.getVelocities().set(entity, 0, 0);
+        } else {
+            world.getVelocities().set(entity, newX - x, 0);
+        }
+    }
+
+    @Override
+    public void bounce(Ball hitter, Point collisionPoint, double[] velocity) {
+        Paddle.reflect(getCollisionRectangle(), collisionPoint, velocity);
+    }
+
+    @Override
+    public String myName() {
+        return "Engine.EntityPaddle";
+    }
+}
@@ -0,0 +1,88 @@
+//209852706 Maya Diamant
+package Engine;
+
+import Observers.HitListener;
+import Observers.ListenerSet;
+
+import java.util.Arrays;
+
+/**
+ * The Engine.HitListeners class stores the hit-listener components: the listeners notified when an entity
+ * is hit by a ball, as an immutable Observers.ListenerSet, so entities with the same listeners share one set.
+ * Only the entities that have listeners need the component.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class HitListeners extends ComponentStore {
+    // The components, one per index; the systems of the engine read them directly
+    ListenerSet[] sets;
+
+    /**
+     * Constructs an empty Engine.HitListeners store.
+     */
+    public HitListeners() {
+        this.sets = new ListenerSet[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds a listener to the given entity, giving it the component if needed.
+     *
+     * @param entity the entity.
+     * @param hl     the listener to add.
+     */
+    public void addListener(int entity, HitListener hl) {
+        setListeners(entity, getListeners(entity).with(hl));
+    }
+
+    /**
+     * Removes a listener from the given entity, if it has it.
+     *
+     * @param entity the entity.
+     * @param hl     the listener to remove.
+     */
+    public void removeListener(int entity, HitListener hl) {
+        int i = indexOf(entity);
+        if (i >= 0) {
+            sets[i] = sets[i].without(hl);
+        }
+    }
+
+    /**
+     * Replaces the listeners of the given entity, giving it the component if needed.
+     *
+     * @param entity    the entity.
+     * @param listeners the (immutable) set of the listeners.
+     */
+    public void setListeners(int entity, ListenerSet listeners) {
+        int i = attach(entity);
+        sets[i] = listeners;
+    }
+
+    /**
+     * Returns the listeners of the given entity.
+     *
+     * @param entity the entity.
+     * @return the set of the listeners of the entity, empty if it has none.
+     */
+    public ListenerSet getListeners(int entity) {
+        int i = indexOf(entity);
+        return i < 0 ? ListenerSet.EMPTY : sets[i];
+    }
+
+    @Override
+    protected void growComponents(int capacity) {
+        sets = Arrays.copyOf(sets, capacity);
+    }
+
+    @Override
+    protected void moveComponent(int from, int to) {
+        sets[to] = sets[from];
+    }
+
+    @Override
+    protected void clearComponent(int index) {
+        sets[index] = null;
+    }
+}
@@ -0,0 +1,34 @@
+//209852706 Maya Diamant
+package Engine;
+
+/**
+ * The Engine.MovementSystem class moves the entities that have a transform and a velocity, one simulation
+ * tick at a time. It walks the velocity components in order, and remembers the previous position of every
+ * entity it moves, so the entity can be drawn between ticks.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class MovementSystem {
+
+    /**
+     * Moves every entity of the given world by its velocity.
+     *
+     * @param world the world.
+     */
+    public void update(World world) {
+        Transforms transforms = world.getTransforms();
+        Velocities velocities = world.getVelocities();
+        for (int i = 0; i < velocities.size(); i++) {
+            int k = transforms.indexOf(velocities.entityAt(i));
+            if (k < 0) {
+                continue;
+            }
+            transforms.previousX[k] = transforms.x[k];
+            transforms.previousY[k] = transforms.y[k];
+            transforms.x[k] += velocities.dx[i];
+            transforms.y[k] += velocities.dy[i];
+        }
+    }
+}
@@ -0,0 +1,42 @@
+//209852706 Maya Diamant
+package Engine;
+
+import biuoop.DrawSurface;
+
+/**
+ * The Engine.RenderSystem class draws the entities that have a transform and a renderable component,
+ * walking the renderable components in order.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class RenderSystem {
+
+    /**
+     * Draws every entity of the given world, between its position at the previous simulation tick and its
+     * current one.
+     *
+     * @param world the world.
+     * @param d     the drawing surface.
+     * @param alpha how far the frame is from the previous tick to the current one, between 0 and 1.
+     */
+    public void drawOn(World world, DrawSurface d, double alpha) {
+        Transforms transforms = world.getTransforms();
+        Renderables renderables = world.getRenderables();
+        for (int i = 0; i < renderables.size(); i++) {
+            int k = transforms.indexOf(renderables.entityAt(i));
+            if (k < 0) {
+                continue;
+            }
+            int x = (int) (transforms.previousX[k] + (transforms.x[k] - transforms.previousX[k]) * alpha);
+            int y = (int) (transforms.previousY[k] + (transforms.y[k] - transforms.previousY[k]) * alpha);
+            d.setColor(renderables.fill[i]);
+            d.fillRectangle(x, y, (int) transforms.width[k], (int) transforms.height[k]);
+            if (renderables.outline[i] != null) {
+                d.setColor(renderables.outline[i]);
+                d.drawRectangle(x, y, (int) transforms.width[k], (int) transforms.height[k]);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+//209852706 Maya Diamant
+package Engine;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+/**
+ * The Engine.Renderables class stores the renderable components: how the rectangle of an entity is drawn,
+ * filled with one color and outlined with another.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class Renderables extends ComponentStore {
+    // The components, one per index; the systems of the engine read them directly
+    Color[] fill;
+    Color[] outline;
+
+    /**
+     * Constructs an empty Engine.Renderables store.
+     */
+    public Renderables() {
+        this.fill = new Color[INITIAL_CAPACITY];
+        this.outline = new Color[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Gives the given entity a renderable component.
+     *
+     * @param entity       the entity.
+     * @param fillColor    the color the rectangle of the entity is filled with.
+     * @param outlineColor the color of the outline of the rectangle, or null for no outline.
+     */
+    public void add(int entity, Color fillColor, Color outlineColor) {
+        int i = attach(entity);
+        fill[i] = fillColor;
+        outline[i] = outlineColor;
+    }
+
+    /**
+     * Returns the fill color of the given entity.
+     *
+     * @param entity the entity, which has a renderable component.
+     * @return the fill color.
+     */
+    public Color getFill(int entity) {
+        return fill[indexOf(entity)];
+    }
+
+    @Override
+    protected void growComponents(int capacity) {
+        fill = Arrays.copyOf(fill, capacity);
+        outline = Arrays.copyOf(outline, capacity);
+    }
+
+    @Override
+    protected void moveComponent(int from, int to) {
+        fill[to] = fill[from];
+        outline[to] = outline[from];
+    }
+
+    @Override
+    protected void clearComponent(int index) {
+        fill[index] = null;
+        outline[index] = null;
+    }
+}
@@ -0,0 +1,56 @@
+//209852706 Maya Diamant
+package Engine;
+
+import java.util.Arrays;
+
+/**
+ * The Engine.ScoreValues class stores the score value components: the number of points a hit on an entity
+ * is worth.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class ScoreValues extends ComponentStore {
+    // The components, one per index; the systems of the engine read them directly
+    int[] points;
+
+    /**
+     * Constructs an empty Engine.ScoreValues store.
+     */
+    public ScoreValues() {
+        this.points = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Gives the given entity a score value, or changes it.
+     *
+     * @param entity    the entity.
+     * @param hitPoints the number of points a hit on the entity is worth.
+     */
+    public void set(int entity, int hitPoints) {
+        int i = attach(entity);
+        points[i] = hitPoints;
+    }
+
+    /**
+     * Returns the number of points a hit on the given entity is worth.
+     *
+     * @param entity the entity.
+     * @return the score value of the entity, or 0 if it has none.
+     */
+    public int getPoints(int entity) {
+        int i = indexOf(entity);
+        return i < 0 ? 0 : points[i];
+    }
+
+    @Override
+    protected void growComponents(int capacity) {
+        points = Arrays.copyOf(points, capacity);
+    }
+
+    @Override
+    protected void moveComponent(int from, int to) {
+        points[to] = points[from];
+    }
+}
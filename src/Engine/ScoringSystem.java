@@ -0,0 +1,38 @@
+//209852706 Maya Diamant
+package Engine;
+
+import Observers.Counter;
+
+/**
+ * The Engine.ScoringSystem class adds the score value of an entity to the score whenever the entity is hit.
+ * It replaces an Observers.ScoreTrackingListener on every block with one component per entity.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class ScoringSystem {
+    private final Counter score;
+
+    /**
+     * Constructs an Engine.ScoringSystem that adds to the given score.
+     *
+     * @param score the counter of the score.
+     */
+    public ScoringSystem(Counter score) {
+        this.score = score;
+    }
+
+    /**
+     * Scores a hit on the given entity.
+     *
+     * @param world  the world of the entity.
+     * @param entity the entity that was hit.
+     */
+    public void onHit(World world, int entity) {
+        int points = world.getScoreValues().getPoints(entity);
+        if (points != 0) {
+            score.increase(points);
+        }
+    }
+}
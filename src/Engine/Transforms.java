@@ -0,0 +1,128 @@
+//209852706 Maya Diamant
+package Engine;
+
+import java.util.Arrays;
+
+/**
+ * The Engine.Transforms class stores the transform components: the position and the size of an entity, as an
+ * axis-aligned rectangle, and its position at the previous simulation tick, for drawing between ticks.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class Transforms extends ComponentStore {
+    // The components, one per index; the systems of the engine read them directly
+    double[] x;
+    double[] y;
+    double[] width;
+    double[] height;
+    double[] previousX;
+    double[] previousY;
+
+    /**
+     * Constructs an empty Engine.Transforms store.
+     */
+    public Transforms() {
+        this.x = new double[INITIAL_CAPACITY];
+        this.y = new double[INITIAL_CAPACITY];
+        this.width = new double[INITIAL_CAPACITY];
+        this.height = new double[INITIAL_CAPACITY];
+        this.previousX = new double[INITIAL_CAPACITY];
+        this.previousY = new double[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Gives the given entity a transform.
+     *
+     * @param entity the entity.
+     * @param minX   the smallest x-coordinate of the entity.
+     * @param minY   the smallest y-coordinate of the entity.
+     * @param w      the width of the entity.
+     * @param h      the height of the entity.
+     */
+    public void add(int entity, double minX, double minY, double w, double h) {
+        int i = attach(entity);
+        x[i] = minX;
+        y[i] = minY;
+        width[i] = w;
+        height[i] = h;
+        previousX[i] = minX;
+        previousY[i] = minY;
+    }
+
+    /**
+     * Returns the smallest x-coordinate of the given entity.
+     *
+     * @param entity the entity, which has a transform.
+     * @return the x-coordinate.
+     */
+    public double getX(int entity) {
+        return x[indexOf(entity)];
+    }
+
+    /**
+     * Returns the smallest y-coordinate of the given entity.
+     *
+     * @param entity the entity, which has a transform.
+     * @return the y-coordinate.
+     */
+    public double getY(int entity) {
+        return y[indexOf(entity)];
+    }
+
+    /**
+     * Returns the width of the given entity.
+     *
+     * @param entity the entity, which has a transform.
+     * @return the width.
+     */
+    public double getWidth(int entity) {
+        return width[indexOf(entity)];
+    }
+
+    /**
+     * Returns the height of the given entity.
+     *
+     * @param entity the entity, which has a transform.
+     * @return the height.
+     */
+    public double getHeight(int entity) {
+        return height[indexOf(entity)];
+    }
+
+    /**
+     * Moves the given entity to a new position, without drawing it between the old one and the new one.
+     *
+     * @param entity the entity, which has a transform.
+     * @param minX   the new smallest x-coordinate.
+     * @param minY   the new smallest y-coordinate.
+     */
+    public void setPosition(int entity, double minX, double minY) {
+        int i = indexOf(entity);
+        x[i] = minX;
+        y[i] = minY;
+        previousX[i] = minX;
+        previousY[i] = minY;
+    }
+
+    @Override
+    protected void growComponents(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+    }
+
+    @Override
+    protected void moveComponent(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        width[to] = width[from];
+        height[to] = height[from];
+        previousX[to] = previousX[from];
+        previousY[to] = previousY[from];
+    }
+}
@@ -0,0 +1,71 @@
+//209852706 Maya Diamant
+package Engine;
+
+import java.util.Arrays;
+
+/**
+ * The Engine.Velocities class stores the velocity components: the distance an entity moves every simulation
+ * tick. An entity with a transform and no velocity never moves.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class Velocities extends ComponentStore {
+    // The components, one per index; the systems of the engine read them directly
+    double[] dx;
+    double[] dy;
+
+    /**
+     * Constructs an empty Engine.Velocities store.
+     */
+    public Velocities() {
+        this.dx = new double[INITIAL_CAPACITY];
+        this.dy = new double[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Gives the given entity a velocity, or changes its velocity.
+     *
+     * @param entity the entity.
+     * @param vx     the distance moved along the x-axis every tick.
+     * @param vy     the distance moved along the y-axis every tick.
+     */
+    public void set(int entity, double vx, double vy) {
+        int i = attach(entity);
+        dx[i] = vx;
+        dy[i] = vy;
+    }
+
+    /**
+     * Returns the distance the given entity moves along the x-axis every tick.
+     *
+     * @param entity the entity, which has a velocity.
+     * @return the x-component of the velocity.
+     */
+    public double getDx(int entity) {
+        return dx[indexOf(entity)];
+    }
+
+    /**
+     * Returns the distance the given entity moves along the y-axis every tick.
+     *
+     * @param entity the entity, which has a velocity.
+     * @return the y-component of the velocity.
+     */
+    public double getDy(int entity) {
+        return dy[indexOf(entity)];
+    }
+
+    @Override
+    protected void growComponents(int capacity) {
+        dx = Arrays.copyOf(dx, capacity);
+        dy = Arrays.copyOf(dy, capacity);
+    }
+
+    @Override
+    protected void moveComponent(int from, int to) {
+        dx[to] = dx[from];
+        dy[to] = dy[from];
+    }
+}
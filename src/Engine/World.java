@@ -0,0 +1,156 @@
+//209852706 Maya Diamant
+package Engine;
+
+import java.util.Arrays;
+
+/**
+ * The Engine.World class holds the entities of the engine and their components.
+ * An entity is only an integer ID; everything it is made of lives in the component stores, one store per
+ * type of component, each packed densely so the systems iterate it in order. The IDs of destroyed entities
+ * are reused by the entities created afterwards.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class World {
+    private final Transforms transforms;
+    private final Velocities velocities;
+    private final Colliders colliders;
+    private final Renderables renderables;
+    private final HitListeners hitListeners;
+    private final ScoreValues scoreValues;
+    private final ComponentStore[] stores;
+    private boolean[] alive;
+    private int[] freeIds;
+    private int freeCount;
+    private int nextId;
+    private int count;
+
+    /**
+     * Constructs an empty Engine.World.
+     */
+    public World() {
+        this.transforms = new Transforms();
+        this.velocities = new Velocities();
+        this.colliders = new Colliders();
+        this.renderables = new Renderables();
+        this.hitListeners = new HitListeners();
+        this.scoreValues = new ScoreValues();
+        this.stores = new ComponentStore[] {transforms, velocities, colliders, renderables, hitListeners,
+                scoreValues};
+        this.alive = new boolean[ComponentStore.INITIAL_CAPACITY];
+        this.freeIds = new int[ComponentStore.INITIAL_CAPACITY];
+        this.freeCount = 0;
+        this.nextId = 0;
+        this.count = 0;
+    }
+
+    /**
+     * Creates an entity with no components.
+     *
+     * @return the ID of the new entity.
+     */
+    public int create() {
+        int entity = freeCount > 0 ? freeIds[--freeCount] : nextId++;
+        if (entity >= alive.length) {
+            alive = Arrays.copyOf(alive, alive.length * 2);
+        }
+        alive[entity] = true;
+        count++;
+        return entity;
+    }
+
+    /**
+     * Destroys an entity, removing all its components. Destroying an entity twice does nothing.
+     *
+     * @param entity the entity.
+     */
+    public void destroy(int entity) {
+        if (!isAlive(entity)) {
+            return;
+        }
+        for (ComponentStore store : stores) {
+            store.remove(entity);
+        }
+        alive[entity] = false;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[freeCount++] = entity;
+        count--;
+    }
+
+    /**
+     * Checks whether the given entity exists.
+     *
+     * @param entity the entity.
+     * @return true if the entity was created and not destroyed, false otherwise.
+     */
+    public boolean isAlive(int entity) {
+        return entity >= 0 && entity < alive.length && alive[entity];
+    }
+
+    /**
+     * Returns the number of entities in the world.
+     *
+     * @return the number of entities.
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * Returns the transform components.
+     *
+     * @return the transforms.
+     */
+    public Transforms getTransforms() {
+        return this.transforms;
+    }
+
+    /**
+     * Returns the velocity components.
+     *
+     * @return the velocities.
+     */
+    public Velocities getVelocities() {
+        return this.velocities;
+    }
+
+    /**
+     * Returns the collider components.
+     *
+     * @return the colliders.
+     */
+    public Colliders getColliders() {
+        return this.colliders;
+    }
+
+    /**
+     * Returns the renderable components.
+     *
+     * @return the renderables.
+     */
+    public Renderables getRenderables() {
+        return this.renderables;
+    }
+
+    /**
+     * Returns the hit-listener components.
+     *
+     * @return the hit listeners.
+     */
+    public HitListeners getHitListeners() {
+        return this.hitListeners;
+    }
+
+    /**
+     * Returns the score value components.
+     *
+     * @return the score values.
+     */
+    public ScoreValues getScoreValues() {
+        return this.scoreValues;
+    }
+}
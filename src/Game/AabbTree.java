@@ -0,0 +1,490 @@
+//209852706 Maya Diamant
+package Game;
+
+import Collidable.Collidable;
+import Geometry.Rectangle;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The Game.AabbTree class is a dynamic bounding-volume hierarchy over the collision rectangles of collidables.
+ * Every leaf holds one collidable, and every inner node holds the box that bounds both of its children.
+ * The tree is kept height-balanced on every insert and remove, so trajectory queries,
+ * which skip every subtree whose box the trajectory misses, stay logarithmic whatever the level layout is.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class AabbTree implements CollisionIndex {
+    // Marks a missing node (no parent, no child, empty tree)
+    private static final int NULL = -1;
+    // Slack added around every rectangle, so touching points (within the game precision) are never pruned
+    private static final double PADDING = 1e-5;
+    // Extra room given to a moved leaf, so small movements do not restructure the tree
+    private static final double MARGIN = 2;
+
+    private double[] minX;
+    private double[] minY;
+    private double[] maxX;
+    private double[] maxY;
+    private int[] parent;
+    private int[] left;
+    private int[] right;
+    private int[] height;
+    private Collidable[] items;
+    private int root;
+    private int freeList;
+    private int capacity;
+    private final Map<Collidable, Integer> leaves;
+
+    /**
+     * Constructs an empty Game.AabbTree.
+     */
+    public AabbTree() {
+        this.leaves = new IdentityHashMap<>();
+        this.root = NULL;
+        this.freeList = NULL;
+        this.capacity = 0;
+        this.minX = new double[0];
+        this.minY = new double[0];
+        this.maxX = new double[0];
+        this.maxY = new double[0];
+        this.parent = new int[0];
+        this.left = new int[0];
+        this.right = new int[0];
+        this.height = new int[0];
+        this.items = new Collidable[0];
+        grow(16);
+    }
+
+    @Override
+    public void insert(Collidable c) {
+        if (leaves.containsKey(c)) {
+            return;
+        }
+        int leaf = allocateNode();
+        setBox(leaf, c.getCollisionRectangle(), PADDING);
+        items[leaf] = c;
+        height[leaf] = 0;
+        insertLeaf(leaf);
+        leaves.put(c, leaf);
+    }
+
+    @Override
+    public void remove(Collidable c) {
+        Integer leaf = leaves.remove(c);
+        if (leaf == null) {
+            return;
+        }
+        removeLeaf(leaf);
+        freeNode(leaf);
+    }
+
+    @Override
+    public void update(Collidable c) {
+        Integer leaf = leaves.get(c);
+        if (leaf == null) {
+            insert(c);
+            return;
+        }
+        Rectangle rect = c.getCollisionRectangle();
+        // The leaf box still bounds the moved rectangle, so the tree is left untouched
+        if (rect.getMinX() >= minX[leaf] && rect.getMinY() >= minY[leaf]
+                && rect.getMaxX() <= maxX[leaf] && rect.getMaxY() <= maxY[leaf]) {
+            return;
+        }
+        removeLeaf(leaf);
+        setBox(leaf, rect, MARGIN);
+        insertLeaf(leaf);
+    }
+
+    @Override
+    public boolean closestCollision(double x0, double y0, double dx, double dy, double radius,
+                                    CollisionQuery query) {
+        if (root == NULL || entryTime(root, x0, y0, dx, dy, radius) > 1) {
+            return false;
+        }
+        // Every level of a balanced tree pushes at most one extra node
+        int[] stack = query.stack(height[root] + 2);
+        boolean found = false;
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            if (items[node] != null) {
+                if (query.test(items[node], x0, y0, dx, dy, radius)) {
+                    found = true;
+                }
+                continue;
+            }
+            double tLeft = entryTime(left[node], x0, y0, dx, dy, radius);
+            double tRight = entryTime(right[node], x0, y0, dx, dy, radius);
+            // Push the farther child first, so the nearer one is visited first and tightens the bound sooner
+            int near = tLeft <= tRight ? left[node] : right[node];
+            int far = tLeft <= tRight ? right[node] : left[node];
+            double tNear = Math.min(tLeft, tRight);
+            double tFar = Math.max(tLeft, tRight);
+            if (tFar <= 1 && tFar <= query.getT()) {
+                stack[top++] = far;
+            }
+            if (tNear <= 1 && tNear <= query.getT()) {
+                stack[top++] = near;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the height of the tree, which is logarithmic in the number of collidables.
+     *
+     * @return the height of the tree, or 0 if it is empty.
+     */
+    public int getHeight() {
+        return root == NULL ? 0 : height[root];
+    }
+
+    /**
+     * Returns the trajectory parameter (0 at the start, 1 at the end) at which the trajectory enters
+     * the box of the given node grown by the given radius, using the slab method.
+     *
+     * @param node the node whose box is tested.
+     * @param x0   the x-coordinate of the start of the trajectory.
+     * @param y0   the y-coordinate of the start of the trajectory.
+     * @param dx   the change in x along the trajectory.
+     * @param dy   the change in y along the trajectory.
+     * @param r    the radius of the moving circle, or 0 for a segment.
+     * @return the entry parameter (0 if the start is inside the box), or infinity if the box is missed.
+     */
+    private double entryTime(int node, double x0, double y0, double dx, double dy, double r) {
+        double tMin = 0;
+        double tMax = 1;
+        if (dx == 0) {
+            if (x0 < (minX[node] - r) || x0 > (maxX[node] + r)) {
+                return Double.POSITIVE_INFINITY;
+            }
+        } else {
+            double t1 = ((minX[node] - r) - x0) / dx;
+            double t2 = ((maxX[node] + r) - x0) / dx;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        if (dy == 0) {
+            if (y0 < (minY[node] - r) || y0 > (maxY[node] + r)) {
+                return Double.POSITIVE_INFINITY;
+            }
+        } else {
+            double t1 = ((minY[node] - r) - y0) / dy;
+            double t2 = ((maxY[node] + r) - y0) / dy;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        return tMin <= tMax ? tMin : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Finds the best sibling for the given leaf and links the leaf into the tree next to it,
+     * then refits and rebalances every ancestor.
+     *
+     * @param leaf the detached leaf to insert.
+     */
+    private void insertLeaf(int leaf) {
+        if (root == NULL) {
+            root = leaf;
+            parent[leaf] = NULL;
+            return;
+        }
+        // Descend towards the child whose box grows the least (by perimeter) when the leaf is added
+        int index = root;
+        while (items[index] == null) {
+            int child1 = left[index];
+            int child2 = right[index];
+            double area = perimeter(index);
+            double combinedArea = unionPerimeter(index, leaf);
+            double cost = 2 * combinedArea;
+            double inheritanceCost = 2 * (combinedArea - area);
+            double cost1 = descendCost(child1, leaf) + inheritanceCost;
+            double cost2 = descendCost(child2, leaf) + inheritanceCost;
+            if (cost < cost1 && cost < cost2) {
+                break;
+            }
+            index = cost1 < cost2 ? child1 : child2;
+        }
+        int sibling = index;
+        int oldParent = parent[sibling];
+        int newParent = allocateNode();
+        parent[newParent] = oldParent;
+        items[newParent] = null;
+        height[newParent] = height[sibling] + 1;
+        unionBox(newParent, sibling, leaf);
+        if (oldParent != NULL) {
+            if (left[oldParent] == sibling) {
+                left[oldParent] = newParent;
+            } else {
+                right[oldParent] = newParent;
+            }
+        } else {
+            root = newParent;
+        }
+        left[newParent] = sibling;
+        right[newParent] = leaf;
+        parent[sibling] = newParent;
+        parent[leaf] = newParent;
+        refitFrom(parent[leaf]);
+    }
+
+    /**
+     * Unlinks the given leaf from the tree, replacing its parent by its sibling,
+     * then refits and rebalances every ancestor.
+     *
+     * @param leaf the leaf to detach.
+     */
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL;
+            return;
+        }
+        int oldParent = parent[leaf];
+        int grandParent = parent[oldParent];
+        int sibling = left[oldParent] == leaf ? right[oldParent] : left[oldParent];
+        if (grandParent != NULL) {
+            if (left[grandParent] == oldParent) {
+                left[grandParent] = sibling;
+            } else {
+                right[grandParent] = sibling;
+            }
+            parent[sibling] = grandParent;
+            freeNode(oldParent);
+            refitFrom(grandParent);
+        } else {
+            root = sibling;
+            parent[sibling] = NULL;
+            freeNode(oldParent);
+        }
+    }
+
+    /**
+     * Walks from the given node up to the root, rebalancing each node and recomputing its box and height.
+     *
+     * @param node the first node to refit.
+     */
+    private void refitFrom(int node) {
+        int index = node;
+        while (index != NULL) {
+            index = balance(index);
+            int child1 = left[index];
+            int child2 = right[index];
+            height[index] = 1 + Math.max(height[child1], height[child2]);
+            unionBox(index, child1, child2);
+            index = parent[index];
+        }
+    }
+
+    /**
+     * Performs a left or right rotation if the given node is imbalanced.
+     *
+     * @param a the node to balance.
+     * @return the node that took the place of the given node.
+     */
+    private int balance(int a) {
+        if (items[a] != null || height[a] < 2) {
+            return a;
+        }
+        int b = left[a];
+        int c = right[a];
+        int balance = height[c] - height[b];
+        if (balance > 1) {
+            // Rotate c up
+            int f = left[c];
+            int g = right[c];
+            left[c] = a;
+            parent[c] = parent[a];
+            parent[a] = c;
+            replaceChild(parent[c], a, c);
+            if (height[f] > height[g]) {
+                right[c] = f;
+                right[a] = g;
+                parent[g] = a;
+                unionBox(a, b, g);
+                unionBox(c, a, f);
+                height[a] = 1 + Math.max(height[b], height[g]);
+                height[c] = 1 + Math.max(height[a], height[f]);
+            } else {
+                right[c] = g;
+                right[a] = f;
+                parent[f] = a;
+                unionBox(a, b, f);
+                unionBox(c, a, g);
+                height[a] = 1 + Math.max(height[b], height[f]);
+                height[c] = 1 + Math.max(height[a], height[g]);
+            }
+            return c;
+        }
+        if (balance < -1) {
+            // Rotate b up
+            int d = left[b];
+            int e = right[b];
+            left[b] = a;
+            parent[b] = parent[a];
+            parent[a] = b;
+            replaceChild(parent[b], a, b);
+            if (height[d] > height[e]) {
+                right[b] = d;
+                left[a] = e;
+                parent[e] = a;
+                unionBox(a, c, e);
+                unionBox(b, a, d);
+                height[a] = 1 + Math.max(height[c], height[e]);
+                height[b] = 1 + Math.max(height[a], height[d]);
+            } else {
+                right[b] = e;
+                left[a] = d;
+                parent[d] = a;
+                unionBox(a, c, d);
+                unionBox(b, a, e);
+                height[a] = 1 + Math.max(height[c], height[d]);
+                height[b] = 1 + Math.max(height[a], height[e]);
+            }
+            return b;
+        }
+        return a;
+    }
+
+    /**
+     * Points the given parent (or the root, if there is no parent) at a new child instead of an old one.
+     *
+     * @param node     the parent node, or NULL for the root.
+     * @param oldChild the child being replaced.
+     * @param newChild the child taking its place.
+     */
+    private void replaceChild(int node, int oldChild, int newChild) {
+        if (node == NULL) {
+            root = newChild;
+        } else if (left[node] == oldChild) {
+            left[node] = newChild;
+        } else {
+            right[node] = newChild;
+        }
+    }
+
+    /**
+     * Returns the cost of descending into the given child when inserting the given leaf.
+     *
+     * @param child the candidate child.
+     * @param leaf  the leaf being inserted.
+     * @return the perimeter growth of the child (or the new perimeter, if the child is a leaf).
+     */
+    private double descendCost(int child, int leaf) {
+        if (items[child] != null) {
+            return unionPerimeter(child, leaf);
+        }
+        return unionPerimeter(child, leaf) - perimeter(child);
+    }
+
+    /**
+     * Returns the perimeter of the box of the given node.
+     *
+     * @param node the node.
+     * @return the perimeter of its box.
+     */
+    private double perimeter(int node) {
+        return 2 * ((maxX[node] - minX[node]) + (maxY[node] - minY[node]));
+    }
+
+    /**
+     * Returns the perimeter of the box bounding both given nodes.
+     *
+     * @param n1 the first node.
+     * @param n2 the second node.
+     * @return the perimeter of their union.
+     */
+    private double unionPerimeter(int n1, int n2) {
+        double width = Math.max(maxX[n1], maxX[n2]) - Math.min(minX[n1], minX[n2]);
+        double heightY = Math.max(maxY[n1], maxY[n2]) - Math.min(minY[n1], minY[n2]);
+        return 2 * (width + heightY);
+    }
+
+    /**
+     * Sets the box of the target node to the union of the boxes of two other nodes.
+     *
+     * @param target the node whose box is set.
+     * @param n1     the first node.
+     * @param n2     the second node.
+     */
+    private void unionBox(int target, int n1, int n2) {
+        minX[target] = Math.min(minX[n1], minX[n2]);
+        minY[target] = Math.min(minY[n1], minY[n2]);
+        maxX[target] = Math.max(maxX[n1], maxX[n2]);
+        maxY[target] = Math.max(maxY[n1], maxY[n2]);
+    }
+
+    /**
+     * Sets the box of the given leaf to the given rectangle, enlarged by the given margin.
+     *
+     * @param leaf   the leaf node.
+     * @param rect   the collision rectangle.
+     * @param margin the slack added on every side.
+     */
+    private void setBox(int leaf, Rectangle rect, double margin) {
+        minX[leaf] = rect.getMinX() - margin;
+        minY[leaf] = rect.getMinY() - margin;
+        maxX[leaf] = rect.getMaxX() + margin;
+        maxY[leaf] = rect.getMaxY() + margin;
+    }
+
+    /**
+     * Takes a node from the free list, growing the node arrays if needed.
+     *
+     * @return the index of the new node.
+     */
+    private int allocateNode() {
+        if (freeList == NULL) {
+            grow(capacity * 2);
+        }
+        int node = freeList;
+        freeList = parent[node];
+        parent[node] = NULL;
+        left[node] = NULL;
+        right[node] = NULL;
+        height[node] = 0;
+        items[node] = null;
+        return node;
+    }
+
+    /**
+     * Returns a node to the free list.
+     *
+     * @param node the node to free.
+     */
+    private void freeNode(int node) {
+        items[node] = null;
+        height[node] = -1;
+        parent[node] = freeList;
+        freeList = node;
+    }
+
+    /**
+     * Grows the node arrays to the given capacity, adding the new nodes to the free list.
+     *
+     * @param newCapacity the new number of nodes.
+     */
+    private void grow(int newCapacity) {
+        minX = Arrays.copyOf(minX, newCapacity);
+        minY = Arrays.copyOf(minY, newCapacity);
+        maxX = Arrays.copyOf(maxX, newCapacity);
+        maxY = Arrays.copyOf(maxY, newCapacity);
+        parent = Arrays.copyOf(parent, newCapacity);
+        left = Arrays.copyOf(left, newCapacity);
+        right = Arrays.copyOf(right, newCapacity);
+        height = Arrays.copyOf(height, newCapacity);
+        items = Arrays.copyOf(items, newCapacity);
+        for (int i = newCapacity - 1; i >= capacity; i--) {
+            parent[i] = freeList;
+            height[i] = -1;
+            freeList = i;
+        }
+        capacity = newCapacity;
+    }
+}
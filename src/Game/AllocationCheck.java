@@ -0,0 +1,112 @@
+//209852706 Maya Diamant
+package Game;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * The Game.AllocationCheck class checks that the steady-state frame of the game allocates nothing on the heap.
+ * It plays a headless game for every seed in a range, with the paddle following the balls, and measures the
+ * bytes the playing thread allocates on every simulated frame (the input policy and one tick), through the
+ * allocation counter of the JVM. The first passes over the seeds only warm the JVM up (class loading,
+ * interpreted code and code being recompiled allocate on their own, and a short warm-up leaves the odd frame
+ * that does), and the frames of the last pass must all allocate zero bytes.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class AllocationCheck {
+    // The number of passes over the seeds that only warm the JVM up, before the measured pass
+    private static final int WARMUP_PASSES = 5;
+
+    private final long maxTicks;
+    private long frames;
+    private long allocatingFrames;
+    private long worstBytes;
+    private long worstSeed;
+    private long worstTick;
+
+    /**
+     * Constructs a Game.AllocationCheck.
+     *
+     * @param maxTicks the most ticks a game may run before it is stopped.
+     */
+    public AllocationCheck(long maxTicks) {
+        this.maxTicks = maxTicks;
+    }
+
+    /**
+     * Checks whether the JVM can measure the bytes allocated by a thread, which the check needs.
+     *
+     * @return true if the check can run, false otherwise.
+     */
+    public static boolean isSupported() {
+        return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .isThreadAllocatedMemorySupported();
+    }
+
+    /**
+     * Plays the seeds in the given range, warming up first, and measures every frame of the last pass.
+     *
+     * @param fromSeed the first seed (inclusive).
+     * @param toSeed   the last seed (exclusive).
+     * @return true if no measured frame allocated, false otherwise.
+     */
+    public boolean run(long fromSeed, long toSeed) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+        for (int pass = 0; pass <= WARMUP_PASSES; pass++) {
+            boolean measured = pass == WARMUP_PASSES;
+            for (long seed = fromSeed; seed < toSeed; seed++) {
+                play(threads, seed, measured);
+            }
+        }
+        return allocatingFrames == 0;
+    }
+
+    /**
+     * Plays one game with the given seed, and measures its frames if asked to.
+     *
+     * @param threads  the thread bean that counts the allocated bytes.
+     * @param seed     the seed of the game.
+     * @param measured whether the frames of this game are measured.
+     */
+    private void play(com.sun.management.ThreadMXBean threads, long seed, boolean measured) {
+        long threadId = Thread.currentThread().getId();
+        HeadlessKeyboard keyboard = new HeadlessKeyboard();
+        Game game = Game.createHeadless(keyboard, seed);
+        // The balls are stepped on this thread only, so every byte of the frame is counted
+        game.getBallSystem().setPool(null);
+        game.initialize();
+        InputPolicy policy = InputPolicy.followLowestBall();
+        for (long tick = 0; tick < maxTicks; tick++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            policy.beforeTick(game, keyboard, tick);
+            if (game.runHeadless(1) == 0) {
+                break;
+            }
+            long bytes = threads.getThreadAllocatedBytes(threadId) - before;
+            if (!measured) {
+                continue;
+            }
+            frames++;
+            if (bytes > 0) {
+                allocatingFrames++;
+            }
+            if (bytes > worstBytes) {
+                worstBytes = bytes;
+                worstSeed = seed;
+                worstTick = tick;
+            }
+        }
+        game.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("measured frames: %d, allocating frames: %d, worst frame: %d bytes (seed %d, tick %d)",
+                frames, allocatingFrames, worstBytes, worstSeed, worstTick);
+    }
+}
@@ -1,6 +1,13 @@
 //209852706 Maya Diamant
 package Game;
 
+import Observers.HitEventBus;
+import Observers.HitStatistics;
+import Sprites.ImageDrawSurface;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * The Game.Ass3Game class serves as the entry point for the game application.
@@ -15,17 +22,262 @@ public class Ass3Game {
     /**
      * The main method where the application starts.
      * It creates an instance of the Game.GameEnvironment.Game.Game class, initializes it, and runs the game.
+     * With the arguments "--headless [game seconds] [seed]" the game runs without a window, as fast as it can,
+     * and reports how many ticks per second it simulated (with "--dirty-rects", every tick is also drawn
+     * offscreen, and the pixels redrawn per frame are reported; with "--hit-bus", the hits are also counted by a
+     * slow consumer of the bus, and the counters of the bus are reported). With the arguments
+     * "--batch [first seed] [last seed] [game seconds]" a headless game is played for every seed from the first
+     * to the last (both included), on all the cores, with the paddle following the balls, and the aggregated
+     * results are reported. With the arguments "--alloc-check [first seed] [last seed] [game seconds]" the games
+     * of the seeds from the first to the last (both included) are played on this thread, and the program fails
+     * (with exit status 1) if a frame allocates on the heap once warmed up.
+     * With the arguments "--draw-bench [blocks] [frames]" a board of blocks is drawn offscreen, sprite by sprite
+     * and through a color batch, and the color changes and frame times of both ways are reported. With the
+     * arguments "--stream [chunks] [climb speed] [seed]" a headless game of a streamed marathon level is played,
+     * with the paddle following the balls, and the chunks it kept in the game are reported. With the arguments
+     * "--block-memory [blocks]" the heap a brick takes with its listeners is measured and reported. With the
+     * arguments "--write-level <file> [blocks]" the built-in board (or a grid of the given number of bricks) is
+     * written to a level file in the binary level format, and the times to load it and build a game from it are
+     * reported; the file may then be played with the option "--level <file>".
+     * The options of the game (see Game.GameOptions) may appear anywhere among the arguments, and apply to the
+     * windowed game and to the games of the headless and batch modes. Once the windowed game is over, its frame
+     * counters are printed.
      *
-     * @param args Command line arguments (not used in this application)
+     * @param commandLine Command line arguments
      */
-    public static void main(String[] args) {
+    public static void main(String[] commandLine) {
+        GameOptions options = new GameOptions(commandLine);
+        String[] args = options.getArguments();
+        if (args.length > 0 && "--headless".equals(args[0])) {
+            runHeadless(args, options);
+            return;
+        }
+        if (args.length > 0 && "--batch".equals(args[0])) {
+            runBatch(args, options);
+            return;
+        }
+        if (args.length > 0 && "--alloc-check".equals(args[0])) {
+            runAllocationCheck(args);
+            return;
+        }
+        if (args.length > 0 && "--draw-bench".equals(args[0])) {
+            runDrawBenchmark(args);
+            return;
+        }
+        if (args.length > 0 && "--stream".equals(args[0])) {
+            runStreamedLevel(args);
+            return;
+        }
+        if (args.length > 0 && "--block-memory".equals(args[0])) {
+            runBlockFootprint(args);
+            return;
+        }
+        if (args.length > 1 && "--write-level".equals(args[0])) {
+            runLevelBenchmark(args);
+            return;
+        }
         // Create an instance of the Game.GameEnvironment.Game.Game class
         Game game = new Game();
 
-        // Initialize the game
-        game.initialize();
+        // Initialize the game, with the options applied
+        options.getLevel().build(game);
 
         // Run the game
         game.run();
+        printFrames(game, options);
+    }
+
+    /**
+     * Prints the frame counters of a windowed game that is over.
+     *
+     * @param game    the game.
+     * @param options the options of the game.
+     */
+    private static void printFrames(Game game, GameOptions options) {
+        System.out.println(options);
+        System.out.printf("frames shown: %d (%.1f per second), repeated: %d%n",
+                game.getFrames(), game.getFramesPerSecond(), game.getRepeatedFrames());
+        printRedrawnPixels(game);
+    }
+
+    /**
+     * Prints the pixels redrawn per frame, if the game redraws only the changed regions of the frames.
+     *
+     * @param game the game.
+     */
+    private static void printRedrawnPixels(Game game) {
+        DirtyRectRenderer renderer = game.getDirtyRectRenderer();
+        if (renderer != null) {
+            System.out.printf("frames drawn: %d, pixels redrawn per frame: mean %.0f of %d%n",
+                    renderer.getFrames(), renderer.getMeanPixelsRedrawn(), Board.WIDTH * Board.HEIGHT);
+        }
+    }
+
+    /**
+     * Runs a headless game for the given number of game seconds (60 by default), with the given seed
+     * (0 by default), and prints the ticks per second and the result.
+     *
+     * @param args    the command line arguments, starting with "--headless".
+     * @param options the options of the game.
+     */
+    private static void runHeadless(String[] args, GameOptions options) {
+        double gameSeconds = args.length > 1 ? Double.parseDouble(args[1]) : 60;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        Game game = Game.createHeadless(new HeadlessKeyboard(), seed);
+        options.getLevel().build(game);
+        HitEventBus bus = game.getHitEventBus();
+        HitStatistics statistics = new HitStatistics();
+        if (bus != null) {
+            bus.addAsyncListener(statistics);
+        }
+        long maxTicks = Math.round(gameSeconds * game.getTickRate());
+        DirtyRectRenderer renderer = game.getDirtyRectRenderer();
+        if (renderer == null) {
+            game.runHeadless(maxTicks);
+        } else {
+            // The frames are drawn between the ticks, and only the ticks are timed
+            ImageDrawSurface screen = new ImageDrawSurface(
+                    new BufferedImage(Board.WIDTH, Board.HEIGHT, BufferedImage.TYPE_INT_RGB));
+            while (game.getTicks() < maxTicks && game.runHeadless(1) > 0) {
+                renderer.drawFrame(screen, 1);
+            }
+            screen.dispose();
+        }
+        game.shutdown();
+        System.out.println(options);
+        printRedrawnPixels(game);
+        if (bus != null) {
+            System.out.printf("hit bus: published %d, consumed %d, dropped %d, most waiting %d of %d%n",
+                    bus.getPublished(), bus.getConsumed(), bus.getDropped(), bus.getHighWater(), bus.getCapacity());
+            System.out.println(statistics);
+        }
+        System.out.printf("ticks: %d (%.1f game seconds)%n", game.getTicks(), game.getGameSeconds());
+        System.out.printf("ticks per second: %.0f%n", game.getTicksPerSecond());
+        System.out.printf("score: %d, blocks left: %d, balls left: %d%n",
+                game.getScore(), game.getRemainingBlocks(), game.getRemainingBalls());
+    }
+
+    /**
+     * Plays a headless game for every seed from the first to the last, both included (0 to 99 by default), for
+     * at most the given number of game seconds each (600 by default), and prints the aggregated report.
+     *
+     * @param args    the command line arguments, starting with "--batch".
+     * @param options the options of the games.
+     */
+    private static void runBatch(String[] args, GameOptions options) {
+        long fromSeed = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        long lastSeed = args.length > 2 ? Long.parseLong(args[2]) : 99;
+        double gameSeconds = args.length > 3 ? Double.parseDouble(args[3]) : 600;
+        BatchRunner runner = new BatchRunner(options.getLevel(), InputPolicy.followLowestBall(),
+                Math.round(gameSeconds * 60));
+        long startTime = System.nanoTime();
+        BatchReport report = runner.run(fromSeed, lastSeed + 1, null);
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.out.println(report);
+        System.out.println(options);
+        System.out.printf("wall time: %.2f s, ticks per second: %.0f%n", seconds, report.getTotalTicks() / seconds);
+    }
+
+    /**
+     * Checks that the frames of the headless games of the seeds from the first to the last, both included (0 to 9
+     * by default), played for at most the given number of game seconds each (60 by default), allocate nothing
+     * once the JVM is warmed up, prints the measurements, and exits with status 1 if a frame allocated.
+     *
+     * @param args the command line arguments, starting with "--alloc-check".
+     */
+    private static void runAllocationCheck(String[] args) {
+        long fromSeed = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        long lastSeed = args.length > 2 ? Long.parseLong(args[2]) : 9;
+        double gameSeconds = args.length > 3 ? Double.parseDouble(args[3]) : 60;
+        if (!AllocationCheck.isSupported()) {
+            System.out.println("allocation check: this JVM does not count the bytes a thread allocates");
+            System.exit(1);
+        }
+        AllocationCheck check = new AllocationCheck(Math.round(gameSeconds * 60));
+        boolean passed = check.run(fromSeed, lastSeed + 1);
+        System.out.println(check);
+        System.out.println(passed ? "allocation check passed" : "allocation check FAILED");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Draws a board of the given number of blocks (5000 by default) offscreen, the given number of frames
+     * (200 by default) in every round, sprite by sprite and through a color batch, and prints the comparison.
+     *
+     * @param args the command line arguments, starting with "--draw-bench".
+     */
+    private static void runDrawBenchmark(String[] args) {
+        int blocks = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int frames = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        DrawBenchmark benchmark = new DrawBenchmark(blocks, frames);
+        benchmark.run();
+        System.out.println(benchmark);
+    }
+
+    /**
+     * Plays a headless game of a streamed level of the given number of chunks (1000 by default), which the
+     * camera climbs at the given speed (1 by default) every tick, with the given seed (0 by default), until the
+     * game is over, and prints the result, the most chunks that were in the game at once and the bricks that
+     * scrolled away unbroken.
+     *
+     * @param args the command line arguments, starting with "--stream".
+     */
+    private static void runStreamedLevel(String[] args) {
+        int chunks = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        double climbSpeed = args.length > 2 ? Double.parseDouble(args[2]) : 1;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        HeadlessKeyboard keyboard = new HeadlessKeyboard();
+        Game game = Game.createHeadless(keyboard, seed);
+        StreamedLevel level = new StreamedLevel(chunks, climbSpeed);
+        level.build(game);
+        InputPolicy policy = InputPolicy.followLowestBall();
+        LevelStreamer streamer = level.getStreamer();
+        int mostChunks = 0;
+        for (long tick = 0; ; tick++) {
+            policy.beforeTick(game, keyboard, tick);
+            if (game.runHeadless(1) == 0) {
+                break;
+            }
+            mostChunks = Math.max(mostChunks, streamer.getLoadedChunks());
+        }
+        game.shutdown();
+        System.out.printf("ticks: %d (%.1f game seconds)%n", game.getTicks(), game.getGameSeconds());
+        System.out.printf("score: %d, blocks left: %d, balls left: %d%n",
+                game.getScore(), game.getRemainingBlocks(), game.getRemainingBalls());
+        System.out.printf("chunks: %d, most in the game at once: %d, evicted or skipped: %d, bricks left in them: %d%n",
+                chunks, mostChunks, streamer.getEvictedChunks(), streamer.getStrandedBricks());
+    }
+
+    /**
+     * Measures the bytes a brick takes with its listeners, held in every way, over the given number of blocks
+     * (200000 by default), and prints them.
+     *
+     * @param args the command line arguments, starting with "--block-memory".
+     */
+    private static void runBlockFootprint(String[] args) {
+        int blocks = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+        BlockFootprint footprint = new BlockFootprint(blocks);
+        footprint.run();
+        System.out.println(footprint);
+    }
+
+    /**
+     * Writes a level file of the built-in board, or of a grid of the given number of bricks (0, the built-in
+     * board, by default), and prints the times to load it and build a game from it.
+     *
+     * @param args the command line arguments, starting with "--write-level" and the level file.
+     */
+    private static void runLevelBenchmark(String[] args) {
+        int blocks = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        LevelBenchmark benchmark = new LevelBenchmark(Path.of(args[1]), blocks);
+        try {
+            benchmark.run();
+        } catch (IOException e) {
+            System.out.println("level file: " + e.getMessage());
+            System.exit(1);
+        }
+        System.out.println(benchmark);
     }
 }
@@ -0,0 +1,106 @@
+//209852706 Maya Diamant
+package Game;
+
+/**
+ * The Game.BatchReport class aggregates the results of many headless games as they are streamed in:
+ * the number of games, how many cleared the level, the score range and mean, the mean number of ticks
+ * to clear the level and the mean number of balls lost. Results may be added from several threads at once.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class BatchReport {
+    private long games;
+    private long cleared;
+    private long totalScore;
+    private int minScore = Integer.MAX_VALUE;
+    private int maxScore = Integer.MIN_VALUE;
+    private long totalTicks;
+    private long totalTicksToClear;
+    private long totalBallsLost;
+
+    /**
+     * Adds the result of a game to the report.
+     *
+     * @param result the result of the game.
+     */
+    public synchronized void add(GameResult result) {
+        games++;
+        totalScore += result.getScore();
+        minScore = Math.min(minScore, result.getScore());
+        maxScore = Math.max(maxScore, result.getScore());
+        totalTicks += result.getTicks();
+        totalBallsLost += result.getBallsLost();
+        if (result.isCleared()) {
+            cleared++;
+            totalTicksToClear += result.getTicks();
+        }
+    }
+
+    /**
+     * Returns the number of games in the report.
+     *
+     * @return the number of games.
+     */
+    public synchronized long getGames() {
+        return games;
+    }
+
+    /**
+     * Returns the number of games that cleared the level.
+     *
+     * @return the number of cleared games.
+     */
+    public synchronized long getCleared() {
+        return cleared;
+    }
+
+    /**
+     * Returns the total number of ticks simulated by all the games.
+     *
+     * @return the total number of ticks.
+     */
+    public synchronized long getTotalTicks() {
+        return totalTicks;
+    }
+
+    /**
+     * Returns the mean score of the games.
+     *
+     * @return the mean score, or 0 if there are no games.
+     */
+    public synchronized double getMeanScore() {
+        return games == 0 ? 0 : (double) totalScore / games;
+    }
+
+    /**
+     * Returns the mean number of ticks the games that cleared the level took to clear it.
+     *
+     * @return the mean number of ticks to clear, or 0 if no game cleared the level.
+     */
+    public synchronized double getMeanTicksToClear() {
+        return cleared == 0 ? 0 : (double) totalTicksToClear / cleared;
+    }
+
+    /**
+     * Returns the mean number of balls lost per game.
+     *
+     * @return the mean number of balls lost, or 0 if there are no games.
+     */
+    public synchronized double getMeanBallsLost() {
+        return games == 0 ? 0 : (double) totalBallsLost / games;
+    }
+
+    @Override
+    public synchronized String toString() {
+        if (games == 0) {
+            return "no games";
+        }
+        return String.format("games: %d, cleared: %d (%.1f%%)%nscore: mean %.1f, min %d, max %d%n"
+                        + "ticks to clear: mean %.1f%nballs lost: mean %.2f%ntotal ticks: %d",
+                games, cleared, 100.0 * cleared / games, (double) totalScore / games, minScore, maxScore,
+                cleared == 0 ? 0 : (double) totalTicksToClear / cleared, (double) totalBallsLost / games,
+                totalTicks);
+    }
+}
@@ -0,0 +1,129 @@
+//209852706 Maya Diamant
+package Game;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * The Game.BatchRunner class plays a level over a range of seeds, one independent headless game per seed,
+ * with the given input policy playing the paddle. The games run concurrently on a fork-join pool (all the
+ * cores by default), and share nothing, so the batch scales with the number of cores. The result of every
+ * game is streamed to a listener as soon as the game ends, and aggregated into a Game.BatchReport.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class BatchRunner {
+    private final Level level;
+    private final InputPolicy policy;
+    private final long maxTicks;
+    private ForkJoinPool pool;
+
+    /**
+     * Constructs a Game.BatchRunner.
+     *
+     * @param level    the level every game starts with.
+     * @param policy   the input policy that plays the paddle.
+     * @param maxTicks the most ticks a game may run before it is stopped.
+     */
+    public BatchRunner(Level level, InputPolicy policy, long maxTicks) {
+        this.level = level;
+        this.policy = policy;
+        this.maxTicks = maxTicks;
+        this.pool = ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Sets the fork-join pool the games run on.
+     *
+     * @param forkJoinPool the pool.
+     */
+    public void setPool(ForkJoinPool forkJoinPool) {
+        this.pool = forkJoinPool;
+    }
+
+    /**
+     * Plays one game for every seed in the given range, and returns the aggregated report.
+     *
+     * @param fromSeed the first seed (inclusive).
+     * @param toSeed   the last seed (exclusive).
+     * @param listener receives the result of every game as soon as it ends, from the thread that played it
+     *                 (so it must be thread-safe), or null.
+     * @return the report of all the games.
+     */
+    public BatchReport run(long fromSeed, long toSeed, Consumer<GameResult> listener) {
+        BatchReport report = new BatchReport();
+        pool.invoke(new SeedRange(fromSeed, toSeed, report, listener));
+        return report;
+    }
+
+    /**
+     * Plays one headless game with the given seed.
+     *
+     * @param seed the seed of the game.
+     * @return the result of the game.
+     */
+    public GameResult play(long seed) {
+        HeadlessKeyboard keyboard = new HeadlessKeyboard();
+        Game game = Game.createHeadless(keyboard, seed);
+        // The games already run in parallel, so the balls of each game are stepped on its own thread
+        game.getBallSystem().setPool(null);
+        level.build(game);
+        int balls = game.getRemainingBalls();
+        while (game.getTicks() < maxTicks) {
+            policy.beforeTick(game, keyboard, game.getTicks());
+            if (game.runHeadless(1) == 0) {
+                break;
+            }
+        }
+        game.shutdown();
+        return new GameResult(seed, game.getScore(), game.getTicks(), game.getRemainingBlocks() == 0,
+                balls - game.getRemainingBalls(), game.getRemainingBlocks());
+    }
+
+    /**
+     * The BatchRunner.SeedRange class is a fork-join task that plays the games of a range of seeds,
+     * splitting the range in halves until it holds a single seed.
+     */
+    private final class SeedRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+        private final transient BatchReport report;
+        private final transient Consumer<GameResult> listener;
+
+        /**
+         * Constructs a BatchRunner.SeedRange.
+         *
+         * @param from     the first seed (inclusive).
+         * @param to       the last seed (exclusive).
+         * @param report   the report the results are added to.
+         * @param listener the listener the results are streamed to, or null.
+         */
+        SeedRange(long from, long to, BatchReport report, Consumer<GameResult> listener) {
+            this.from = from;
+            this.to = to;
+            this.report = report;
+            this.listener = listener;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (to > from) {
+                    GameResult result = play(from);
+                    report.add(result);
+                    if (listener != null) {
+                        listener.accept(result);
+                    }
+                }
+                return;
+            }
+            long middle = from + (to - from) / 2;
+            invokeAll(new SeedRange(from, middle, report, listener), new SeedRange(middle, to, report, listener));
+        }
+    }
+}
@@ -0,0 +1,232 @@
+//209852706 Maya Diamant
+package Game;
+
+import Collidable.Block;
+import Collidable.CollisionLayers;
+import Geometry.Point;
+import Geometry.Rectangle;
+import Movement.Paddle;
+import Movement.Velocity;
+import Observers.BallRemover;
+import Observers.BlockRemover;
+import Observers.HitPointsGate;
+import Observers.ListenerSet;
+import Observers.ScoreTrackingListener;
+import Sprites.ScoreIndicator;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The Game.BinaryLevel class is a level read from a file in the binary level format, which Game.BinaryLevelWriter
+ * writes. The file is memory-mapped, and every build reads the block records straight from the mapping, creating
+ * the blocks and indexing them for collisions in one pass; builds only read the mapping, so several games may be
+ * built from one level at once (as by Game.BatchRunner).
+ * The format is big-endian, and made of:
+ * <ul>
+ *     <li>a header of 32 bytes: the magic number "ARKL", the version (a short), the size of a block record in
+ *     bytes (a short), the width and the height of the board, the palette index of the background (or -1 for
+ *     none), the number of balls, the number of colors in the palette and the number of blocks (ints);</li>
+ *     <li>the palette, one ARGB int per color;</li>
+ *     <li>the block records: the x- and y-coordinates of the upper-left corner (floats), the width and the height
+ *     (unsigned shorts), the palette index of the color, the hit points and the listener profile (unsigned bytes),
+ *     and a reserved byte. A later version may make the records longer; the loader skips what it does not know.
+ *     </li>
+ * </ul>
+ * The board is closed by edges 10 pixels thick, as in the built-in level; the bottom edge removes the balls.
+ * The paddle and the balls start at the bottom of the board.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class BinaryLevel implements Level {
+    // The magic number the files start with, "ARKL" in ASCII
+    public static final int MAGIC = 0x41524B4C;
+    // The version of the format written by Game.BinaryLevelWriter
+    public static final int VERSION = 1;
+    // The size of the header in bytes
+    public static final int HEADER_SIZE = 32;
+    // The size of a block record of version 1 in bytes
+    public static final int RECORD_SIZE = 16;
+    // The profile of a block that is never removed and has no listeners
+    public static final int PROFILE_WALL = 0;
+    // The profile of a block that is removed after its hit points and scores its last hit
+    public static final int PROFILE_BRICK = 1;
+    // The profile of a block that removes the balls that hit it, like the bottom edge
+    public static final int PROFILE_PIT = 2;
+    // The thickness of the edges of the board
+    private static final int EDGE_SIZE = 10;
+
+    private final ByteBuffer records;
+    private final int recordSize;
+    private final int blockCount;
+    private final Color[] palette;
+    private final int width;
+    private final int height;
+    private final int background;
+    private final int balls;
+
+    /**
+     * Constructs a Game.BinaryLevel over the given (validated) block records.
+     *
+     * @param records    the block records.
+     * @param recordSize the size of a record in bytes.
+     * @param blockCount the number of records.
+     * @param palette    the colors of the palette.
+     * @param width      the width of the board.
+     * @param height     the height of the board.
+     * @param background the palette index of the background, or -1 for none.
+     * @param balls      the number of balls.
+     */
+    private BinaryLevel(ByteBuffer records, int recordSize, int blockCount, Color[] palette, int width, int height,
+                        int background, int balls) {
+        this.records = records;
+        this.recordSize = recordSize;
+        this.blockCount = blockCount;
+        this.palette = palette;
+        this.width = width;
+        this.height = height;
+        this.background = background;
+        this.balls = balls;
+    }
+
+    /**
+     * Memory-maps a level file and checks its header, its palette and its blocks: every block must have a color
+     * in the palette, a size, and a position that puts it wholly on the board (so infinite and NaN coordinates
+     * are rejected too). The mapping stays valid after the file is closed.
+     *
+     * @param file the level file.
+     * @return the level.
+     * @throws IOException if the file cannot be read, is not a level of a known version, or has a bad block.
+     */
+    public static BinaryLevel load(Path file) throws IOException {
+        MappedByteBuffer map;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (map.capacity() < HEADER_SIZE || map.getInt(0) != MAGIC) {
+            throw new IOException(file + " is not a level file");
+        }
+        int version = map.getShort(4);
+        int recordSize = map.getShort(6);
+        if (version < 1 || version > VERSION || recordSize < RECORD_SIZE) {
+            throw new IOException(file + " is a level of an unknown version " + version);
+        }
+        int width = map.getInt(8);
+        int height = map.getInt(12);
+        int background = map.getInt(16);
+        int balls = map.getInt(20);
+        int paletteSize = map.getInt(24);
+        int blockCount = map.getInt(28);
+        long recordsStart = HEADER_SIZE + 4L * paletteSize;
+        if (width <= 0 || height <= 0 || balls < 0 || paletteSize < 0 || paletteSize > 256 || blockCount < 0
+                || background < -1 || background >= paletteSize
+                || recordsStart + (long) recordSize * blockCount > map.capacity()) {
+            throw new IOException(file + " is a damaged level file");
+        }
+        Color[] palette = new Color[paletteSize];
+        for (int i = 0; i < paletteSize; i++) {
+            palette[i] = new Color(map.getInt(HEADER_SIZE + 4 * i), true);
+        }
+        ByteBuffer records = map.slice((int) recordsStart, recordSize * blockCount);
+        for (int i = 0, offset = 0; i < blockCount; i++, offset += recordSize) {
+            if ((records.get(offset + 12) & 0xFF) >= paletteSize) {
+                throw new IOException(file + " has a block with no color in the palette");
+            }
+            float x = records.getFloat(offset);
+            float y = records.getFloat(offset + 4);
+            int w = records.getShort(offset + 8) & 0xFFFF;
+            int h = records.getShort(offset + 10) & 0xFFFF;
+            // The negated comparisons are also true for NaN
+            if (!(x >= 0 && y >= 0 && x + w <= width && y + h <= height) || w == 0 || h == 0) {
+                throw new IOException(file + " has block " + i + " outside the board or of no size");
+            }
+        }
+        return new BinaryLevel(records, recordSize, blockCount, palette, width, height, background, balls);
+    }
+
+    @Override
+    public void build(Game game) {
+        if (background >= 0) {
+            game.addStaticSprite(new Block(new Point(0, 0), width, height, palette[background]));
+        }
+        BlockRemover remove = new BlockRemover(game, game.getBlocksCounter());
+        BallRemover ballsRemove = new BallRemover(game.getBallsCounter(), game);
+        ScoreTrackingListener scores = new ScoreTrackingListener(game.getScoreCounter());
+        new ScoreIndicator(game.getScoreCounter()).addToGame(game);
+        ListenerSet brickListeners = ListenerSet.of(remove, scores);
+        ListenerSet pitListeners = ListenerSet.of(ballsRemove);
+
+        // The edges are added first, so the collision index covers the whole board before the blocks come
+        addEdge(game, new Rectangle(new Point(0, height), width, EDGE_SIZE), pitListeners);
+        addEdge(game, new Rectangle(new Point(0, 0), width, EDGE_SIZE), ListenerSet.EMPTY);
+        addEdge(game, new Rectangle(new Point(0, 0), EDGE_SIZE, height), ListenerSet.EMPTY);
+        addEdge(game, new Rectangle(new Point(width - EDGE_SIZE, 0), EDGE_SIZE, height), ListenerSet.EMPTY);
+
+        // Create the blocks, reading the records from the mapping; the blocks of a profile share their listeners
+        for (int i = 0, offset = 0; i < blockCount; i++, offset += recordSize) {
+            Block block = new Block(new Rectangle(records.getFloat(offset), records.getFloat(offset + 4),
+                    records.getShort(offset + 8) & 0xFFFF, records.getShort(offset + 10) & 0xFFFF),
+                    palette[records.get(offset + 12) & 0xFF]);
+            int hitPoints = records.get(offset + 13) & 0xFF;
+            int profile = records.get(offset + 14) & 0xFF;
+            if (profile == PROFILE_BRICK) {
+                block.setHitListeners(hitPoints > 1
+                        ? ListenerSet.of(new HitPointsGate(hitPoints, brickListeners)) : brickListeners);
+                block.setHitEventBus(game.getHitEventBus());
+                game.getBlocksCounter().increase(1);
+            } else if (profile == PROFILE_PIT) {
+                block.setHitListeners(pitListeners);
+                block.setHitEventBus(game.getHitEventBus());
+            }
+            block.addToGame(game);
+        }
+
+        // Create and add the paddle to the game
+        Paddle paddle = new Paddle(game.getKeyboard(), new Rectangle(new Point(0, height - 30), 100, 20),
+                Color.white, width, 10);
+        paddle.addToGame(game);
+        game.setPaddle(paddle);
+
+        // Create and add the balls to the game
+        game.getBallSystem().addToGame(game);
+        for (int i = 0; i < balls; i++) {
+            Velocity v = Velocity.fromAngleAndSpeed(game.getRandom().nextInt(360), 5);
+            if (game.spawnBall(width - 300, height - 100, 5, Color.white, v.getDx(), v.getDy()) != null) {
+                game.getBallsCounter().increase(1);
+            }
+        }
+    }
+
+    /**
+     * Adds an edge of the board to the given game.
+     *
+     * @param game      the game.
+     * @param area      the area of the edge.
+     * @param listeners the listeners of the edge.
+     */
+    private void addEdge(Game game, Rectangle area, ListenerSet listeners) {
+        Block edge = new Block(area, Color.lightGray);
+        edge.setCategory(CollisionLayers.EDGE);
+        edge.setHitListeners(listeners);
+        if (listeners.size() > 0) {
+            edge.setHitEventBus(game.getHitEventBus());
+        }
+        edge.addToGame(game);
+    }
+
+    /**
+     * Returns the number of blocks in the level, the edges excluded.
+     *
+     * @return the number of blocks.
+     */
+    public int getBlockCount() {
+        return this.blockCount;
+    }
+}
@@ -0,0 +1,163 @@
+//209852706 Maya Diamant
+package Game;
+
+import Geometry.Rectangle;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Game.BinaryLevelWriter class collects the blocks of a level and writes them to a file in the binary level
+ * format of Game.BinaryLevel. The colors are gathered into the palette as the blocks are added, up to 256 of them.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class BinaryLevelWriter {
+    // The most colors in a palette, as a block record holds its color in one byte
+    private static final int MAX_COLORS = 256;
+
+    private final int width;
+    private final int height;
+    private final List<Color> palette;
+    private final Map<Color, Integer> paletteIndex;
+    private ByteBuffer records;
+    private int blockCount;
+    private int background;
+    private int balls;
+
+    /**
+     * Constructs an empty Game.BinaryLevelWriter of a board of the given size, with no background and 3 balls.
+     *
+     * @param width  the width of the board.
+     * @param height the height of the board.
+     */
+    public BinaryLevelWriter(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.palette = new ArrayList<>();
+        this.paletteIndex = new HashMap<>();
+        this.records = ByteBuffer.allocate(BinaryLevel.RECORD_SIZE * 64);
+        this.blockCount = 0;
+        this.background = -1;
+        this.balls = 3;
+    }
+
+    /**
+     * Returns the palette index of the given color, adding the color to the palette if it is not in it yet.
+     *
+     * @param color the color.
+     * @return the palette index of the color, or -1 if the palette is full.
+     */
+    private int indexOf(Color color) {
+        Integer index = paletteIndex.get(color);
+        if (index == null) {
+            if (palette.size() == MAX_COLORS) {
+                return -1;
+            }
+            index = palette.size();
+            palette.add(color);
+            paletteIndex.put(color, index);
+        }
+        return index;
+    }
+
+    /**
+     * Sets the color of the background of the level.
+     *
+     * @param color the color of the background, or null for none.
+     * @return true if the color was set, false if the palette is full.
+     */
+    public boolean setBackground(Color color) {
+        int index = color == null ? -1 : indexOf(color);
+        if (color != null && index < 0) {
+            return false;
+        }
+        this.background = index;
+        return true;
+    }
+
+    /**
+     * Sets the number of balls the level starts with.
+     *
+     * @param count the number of balls.
+     */
+    public void setBalls(int count) {
+        this.balls = count;
+    }
+
+    /**
+     * Adds a block to the level. The width and the height are rounded to whole pixels, of at most 65535.
+     *
+     * @param area      the area of the block.
+     * @param color     the color of the block.
+     * @param hitPoints the number of hits a brick takes, at most 255.
+     * @param profile   the listener profile of the block, one of the BinaryLevel.PROFILE_ values.
+     * @return true if the block was added, false if the palette is full.
+     */
+    public boolean addBlock(Rectangle area, Color color, int hitPoints, int profile) {
+        int index = indexOf(color);
+        if (index < 0) {
+            return false;
+        }
+        if (records.remaining() < BinaryLevel.RECORD_SIZE) {
+            ByteBuffer grown = ByteBuffer.allocate(records.capacity() * 2);
+            records.flip();
+            grown.put(records);
+            records = grown;
+        }
+        records.putFloat((float) area.getUpperLeft().getX());
+        records.putFloat((float) area.getUpperLeft().getY());
+        records.putShort((short) Math.round(area.getWidth()));
+        records.putShort((short) Math.round(area.getHeight()));
+        records.put((byte) index);
+        records.put((byte) hitPoints);
+        records.put((byte) profile);
+        records.put((byte) 0);
+        blockCount++;
+        return true;
+    }
+
+    /**
+     * Writes the level to the given file, replacing it if it exists.
+     *
+     * @param file the level file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void writeTo(Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(BinaryLevel.HEADER_SIZE + 4 * palette.size());
+        header.putInt(BinaryLevel.MAGIC);
+        header.putShort((short) BinaryLevel.VERSION);
+        header.putShort((short) BinaryLevel.RECORD_SIZE);
+        header.putInt(width);
+        header.putInt(height);
+        header.putInt(background);
+        header.putInt(balls);
+        header.putInt(palette.size());
+        header.putInt(blockCount);
+        for (Color color : palette) {
+            header.putInt(color.getRGB());
+        }
+        header.flip();
+        ByteBuffer body = records.duplicate();
+        body.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+        }
+    }
+}
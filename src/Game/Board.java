@@ -0,0 +1,148 @@
+//209852706 Maya Diamant
+package Game;
+
+import Geometry.Point;
+import Geometry.Rectangle;
+
+import java.awt.Color;
+
+/**
+ * The Game.Board class describes the built-in board: the screen, its background and edges, the rows of
+ * blocks with their colors, the paddle and where the balls start. Every level that builds the board (see
+ * The rectangles are made anew on every call.
+ * The rectangles are made anew on every call, as a rectangle may be moved in place by its owner.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public final class Board {
+    // The size of the screen
+    public static final int WIDTH = 800;
+    public static final int HEIGHT = 600;
+    // The thickness of the edges
+    public static final int EDGE = 10;
+    // The number of rows of blocks, and the number of blocks in the first (longest) row
+    public static final int ROWS = 6;
+    public static final int FIRST_ROW_BLOCKS = 12;
+    // The size of a block, and the top of the first row
+    public static final int BLOCK_WIDTH = 40;
+    public static final int BLOCK_HEIGHT = 20;
+    public static final int FIRST_ROW_TOP = 100;
+    // The color of the background, which is also the color of the balls
+    public static final Color BACKGROUND = new Color(255, 204, 229); // Light magenta
+    // The color of the edges
+    public static final Color EDGE_COLOR = Color.lightGray;
+    // The paddle: its size, speed and color
+    public static final int PADDLE_WIDTH = 100;
+    public static final int PADDLE_HEIGHT = 20;
+    public static final double PADDLE_SPEED = 10;
+    public static final Color PADDLE_COLOR = Color.white;
+    // The balls: how many, where they start, their radius and speed
+    public static final int BALLS = 3;
+    public static final double BALL_X = 500;
+    public static final double BALL_Y = 500;
+    public static final int BALL_RADIUS = 5;
+    public static final double BALL_SPEED = 5;
+    // The colors of the rows of blocks, from the top
+    private static final Color[] ROW_COLORS = {
+            new Color(255, 179, 186), // Light pink
+            new Color(255, 223, 186), // Peach
+            new Color(255, 255, 186), // Light yellow
+            new Color(186, 255, 201), // Mint green
+            new Color(186, 225, 255), // Light blue
+            new Color(204, 204, 255), // Lavender
+    };
+
+    /**
+     * The board is only described by the static members of the class.
+     */
+    private Board() {
+    }
+
+    /**
+     * Returns the number of blocks in the given row: every row has one block less than the row above it.
+     *
+     * @param row the row, from 0 (the top row).
+     * @return the number of blocks in the row.
+     */
+    public static int getBlocksInRow(int row) {
+        return FIRST_ROW_BLOCKS - row;
+    }
+
+    /**
+     * Returns the area of a block. The rows are aligned to the right edge, so the blocks are counted from it.
+     *
+     * @param row          the row of the block, from 0 (the top row).
+     * @param fromTheRight the position of the block from the right edge, from 1 (the block next to the edge).
+     * @return the area of the block.
+     */
+    public static Rectangle getBlockArea(int row, int fromTheRight) {
+        return new Rectangle(new Point(WIDTH - EDGE - BLOCK_WIDTH * fromTheRight, FIRST_ROW_TOP + row * BLOCK_HEIGHT),
+                BLOCK_WIDTH, BLOCK_HEIGHT);
+    }
+
+    /**
+     * Returns the color of the blocks of the given row.
+     *
+     * @param row the row, from 0 (the top row).
+     * @return the color of the blocks of the row.
+     */
+    public static Color getRowColor(int row) {
+        return ROW_COLORS[row];
+    }
+
+    /**
+     * Returns the area of the whole screen, which the background covers.
+     *
+     * @return the area of the screen.
+     */
+    public static Rectangle getScreen() {
+        return new Rectangle(new Point(0, 0), WIDTH, HEIGHT);
+    }
+
+    /**
+     * Returns the area of the top edge.
+     *
+     * @return the area of the top edge.
+     */
+    public static Rectangle getTopEdge() {
+        return new Rectangle(new Point(0, 0), WIDTH, EDGE);
+    }
+
+    /**
+     * Returns the area of the left edge.
+     *
+     * @return the area of the left edge.
+     */
+    public static Rectangle getLeftEdge() {
+        return new Rectangle(new Point(0, 0), EDGE, HEIGHT);
+    }
+
+    /**
+     * Returns the area of the right edge.
+     *
+     * @return the area of the right edge.
+     */
+    public static Rectangle getRightEdge() {
+        return new Rectangle(new Point(WIDTH - EDGE, 0), EDGE, HEIGHT);
+    }
+
+    /**
+     * Returns the area of the bottom edge, just below the screen: a ball that hits it is lost.
+     *
+     * @return the area of the bottom edge.
+     */
+    public static Rectangle getBottomEdge() {
+        return new Rectangle(new Point(0, HEIGHT), WIDTH, EDGE);
+    }
+
+    /**
+     * Returns the area of the paddle when the game starts.
+     *
+     * @return the area of the paddle.
+     */
+    public static Rectangle getPaddleArea() {
+        return new Rectangle(new Point(0, HEIGHT - EDGE - PADDLE_HEIGHT), PADDLE_WIDTH, PADDLE_HEIGHT);
+    }
+}
@@ -0,0 +1,45 @@
+//209852706 Maya Diamant
+package Game;
+
+/**
+ * The Game.ChunkSource interface represents a level that is streamed in chunks by a Game.LevelStreamer:
+ * horizontal bands of the same height, numbered from the top of the level, each a Game.TileField of its own.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public interface ChunkSource {
+
+    /**
+     * Returns the number of chunks of the level.
+     *
+     * @return the number of chunks.
+     */
+    int getChunkCount();
+
+    /**
+     * Returns the height of a chunk.
+     *
+     * @return the height of a chunk.
+     */
+    double getChunkHeight();
+
+    /**
+     * Returns the y-coordinate of the top of the first chunk.
+     *
+     * @return the top of the level.
+     */
+    double getTop();
+
+    /**
+     * Builds the tiles of the given chunk, with their IDs defined, in a new tile field that lies between
+     * getTop() + index * getChunkHeight() and the top of the next chunk.
+     * This is called on the loader thread of the streamer, so it must not touch the game; the field is added
+     * to the game later, on the thread of the game.
+     *
+     * @param index the index of the chunk.
+     * @return the tile field of the chunk.
+     */
+    TileField loadChunk(int index);
+}
@@ -0,0 +1,54 @@
+//209852706 Maya Diamant
+package Game;
+
+import Collidable.Collidable;
+
+/**
+ * The Game.CollisionIndex interface represents a spatial index over collidables,
+ * used by the Game.GameEnvironment to answer trajectory queries without testing every collidable.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public interface CollisionIndex {
+
+    /**
+     * Adds the given collidable to the index.
+     *
+     * @param c the collidable to index.
+     */
+    void insert(Collidable c);
+
+    /**
+     * Removes the given collidable from the index.
+     *
+     * @param c the collidable to remove.
+     */
+    void remove(Collidable c);
+
+    /**
+     * Re-indexes the given collidable after its collision rectangle has changed.
+     *
+     * @param c the collidable whose rectangle has changed.
+     */
+    void update(Collidable c);
+
+    /**
+     * Finds the closest collision of a circle of the given radius whose center moves along the trajectory
+     * (x0, y0) + t * (dx, dy), 0 <= t <= 1. A radius of 0 casts a plain segment.
+     * A hit is only recorded if it is closer than the result already held by the query, so the results
+     * of several indexes can be merged into one query.
+     * Implementations must not allocate, and must only read the index, so that queries
+     * with different Game.CollisionQuery holders can run side by side.
+     *
+     * @param x0     the x-coordinate of the start of the trajectory.
+     * @param y0     the y-coordinate of the start of the trajectory.
+     * @param dx     the change in x along the trajectory.
+     * @param dy     the change in y along the trajectory.
+     * @param radius the radius of the moving circle, or 0 for a segment.
+     * @param query  the holder that receives the closest collision.
+     * @return true if a closer collision was recorded in the query, false otherwise.
+     */
+    boolean closestCollision(double x0, double y0, double dx, double dy, double radius, CollisionQuery query);
+}
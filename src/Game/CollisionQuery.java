@@ -0,0 +1,185 @@
+//209852706 Maya Diamant
+package Game;
+
+import Collidable.Collidable;
+import Collidable.CollisionLayers;
+import Geometry.SegmentHit;
+
+import java.util.Arrays;
+
+/**
+ * The Game.CollisionQuery class is a reusable holder for the result of a collision query:
+ * the collidable that is hit first, the trajectory parameter t of the hit (0 at the start, 1 at the end),
+ * the face of its rectangle that is hit and the hit point. It also carries the scratch state the
+ * collision indexes need, so a query allocates nothing and several queries can run side by side,
+ * each with its own Game.CollisionQuery.
+ * A query carries the collision category and mask of the moving object, and skips the collidables
+ * it does not collide with before testing their geometry.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class CollisionQuery {
+    private final SegmentHit segmentHit;
+    private int[] stack;
+    private Collidable collidable;
+    private double t;
+    private int face;
+    private double x;
+    private double y;
+    private int category;
+    private int mask;
+
+    /**
+     * Constructs an empty Game.CollisionQuery.
+     */
+    public CollisionQuery() {
+        this.segmentHit = new SegmentHit();
+        this.stack = new int[64];
+        this.category = CollisionLayers.ALL;
+        this.mask = CollisionLayers.ALL;
+        clear();
+    }
+
+    /**
+     * Sets the collision category and mask of the moving object. Until changed, the query only hits the
+     * collidables whose category is in the mask and whose mask contains the category.
+     *
+     * @param newCategory the collision category of the moving object.
+     * @param newMask     the mask of the collidable categories the moving object collides with.
+     */
+    public void setFilter(int newCategory, int newMask) {
+        this.category = newCategory;
+        this.mask = newMask;
+    }
+
+    /**
+     * Forgets the current result, so the query can be run again.
+     */
+    void clear() {
+        this.collidable = null;
+        this.t = Double.POSITIVE_INFINITY;
+        this.face = SegmentHit.NONE;
+    }
+
+    /**
+     * Records the given hit as the result if it is closer than the current result.
+     *
+     * @param c   the collidable that was hit.
+     * @param hit the hit on the collision rectangle of the collidable.
+     * @return true if the result was replaced, false otherwise.
+     */
+    boolean offer(Collidable c, SegmentHit hit) {
+        if (hit.getT() >= this.t) {
+            return false;
+        }
+        this.collidable = c;
+        this.t = hit.getT();
+        this.face = hit.getFace();
+        this.x = hit.getX();
+        this.y = hit.getY();
+        return true;
+    }
+
+    /**
+     * Tests the collision rectangle of the given collidable against a circle of the given radius swept along
+     * the trajectory (a segment if the radius is 0), and records the hit if it is the closest so far.
+     * A collidable that is filtered out by the category and mask of the query is not tested at all.
+     *
+     * @param c      the collidable to test.
+     * @param x0     the x-coordinate of the start of the trajectory.
+     * @param y0     the y-coordinate of the start of the trajectory.
+     * @param dx     the change in x along the trajectory.
+     * @param dy     the change in y along the trajectory.
+     * @param radius the radius of the moving circle, or 0 for a segment.
+     * @return true if the result was replaced, false otherwise.
+     */
+    boolean test(Collidable c, double x0, double y0, double dx, double dy, double radius) {
+        if (!accepts(c.getCategory(), c.getCollisionMask())) {
+            return false;
+        }
+        boolean hit = radius == 0
+                ? c.getCollisionRectangle().intersectSegment(x0, y0, dx, dy, segmentHit)
+                : c.getCollisionRectangle().intersectSweptCircle(x0, y0, dx, dy, radius, segmentHit);
+        return hit && offer(c, segmentHit);
+    }
+
+    /**
+     * Checks whether the moving object of the query collides with collidables of the given category and mask.
+     *
+     * @param otherCategory the collision category of the collidables.
+     * @param otherMask     the collision mask of the collidables.
+     * @return true if the query may hit the collidables, false if they are filtered out.
+     */
+    boolean accepts(int otherCategory, int otherMask) {
+        return (otherCategory & mask) != 0 && (otherMask & category) != 0;
+    }
+
+    /**
+     * Returns the scratch hit of the query, for the collidables that test their own geometry.
+     *
+     * @return the scratch hit.
+     */
+    SegmentHit getSegmentHit() {
+        return this.segmentHit;
+    }
+
+    /**
+     * Returns a scratch stack of node indexes with at least the given capacity.
+     *
+     * @param capacity the minimal capacity of the stack.
+     * @return the scratch stack.
+     */
+    int[] stack(int capacity) {
+        if (stack.length < capacity) {
+            stack = Arrays.copyOf(stack, Math.max(capacity, stack.length * 2));
+        }
+        return this.stack;
+    }
+
+    /**
+     * Returns the collidable that is hit first.
+     *
+     * @return the collidable that is hit first, or null if nothing is hit.
+     */
+    public Collidable getCollidable() {
+        return this.collidable;
+    }
+
+    /**
+     * Returns the trajectory parameter of the hit (0 at the start, 1 at the end).
+     *
+     * @return the trajectory parameter of the hit, or infinity if nothing is hit.
+     */
+    public double getT() {
+        return this.t;
+    }
+
+    /**
+     * Returns the face of the collision rectangle that is hit.
+     *
+     * @return one of the Geometry.SegmentHit face constants.
+     */
+    public int getFace() {
+        return this.face;
+    }
+
+    /**
+     * Returns the x-coordinate of the hit point.
+     *
+     * @return the x-coordinate of the hit point.
+     */
+    public double getX() {
+        return this.x;
+    }
+
+    /**
+     * Returns the y-coordinate of the hit point.
+     *
+     * @return the y-coordinate of the hit point.
+     */
+    public double getY() {
+        return this.y;
+    }
+}
@@ -0,0 +1,129 @@
+//209852706 Maya Diamant
+package Game;
+
+import Sprites.DirtyRegionTracker;
+import Sprites.ImageDrawSurface;
+import Sprites.SpriteCollection;
+import Sprites.StaticLayer;
+import biuoop.DrawSurface;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * The Game.DirtyRectRenderer class composes the frames of the game into offscreen images, redrawing only the
+ * parts of the screen that changed since the image was last drawn.
+ * Every frame, the sprites are recorded into a Game.FrameSnapshot. The snapshot of the previous frame and the
+ * new one are both drawn onto a Sprites.DirtyRegionTracker, which marks where the sprites were and where they
+ * are now, and so are the static sprites that were added or removed. Only that region of the image is redrawn:
+ * the static layer is copied back into it, and the new snapshot is drawn over it.
+ * The frames alternate between two images, as the window may still be showing the previous one; each image
+ * keeps the region that changed since it was last drawn.
+ * The window is still shown whole, as biuoop.GUI shows a complete frame every time, so the savings are in
+ * drawing the frame, not in showing it. The renderer counts the pixels redrawn per frame.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class DirtyRectRenderer {
+    private final SpriteCollection sprites;
+    private final StaticLayer staticLayer;
+    private final ImageDrawSurface[] buffers;
+    private final DirtyRegionTracker[] damage;
+    private FrameSnapshot previous;
+    private FrameSnapshot current;
+    private int next;
+    private long frames;
+    private long lastPixels;
+    private long totalPixels;
+
+    /**
+     * Constructs a Game.DirtyRectRenderer of the given sprites. The static layer is composited by the
+     * renderer from now on.
+     *
+     * @param sprites     the sprites of the game, the static layer included.
+     * @param staticLayer the static layer of the game.
+     * @param width       the width of the screen.
+     * @param height      the height of the screen.
+     */
+    public DirtyRectRenderer(SpriteCollection sprites, StaticLayer staticLayer, int width, int height) {
+        this.sprites = sprites;
+        this.staticLayer = staticLayer;
+        this.buffers = new ImageDrawSurface[2];
+        this.damage = new DirtyRegionTracker[2];
+        for (int i = 0; i < 2; i++) {
+            buffers[i] = new ImageDrawSurface(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB));
+            damage[i] = new DirtyRegionTracker(width, height);
+        }
+        this.previous = new FrameSnapshot(width, height);
+        this.current = new FrameSnapshot(width, height);
+        staticLayer.setComposited(true);
+    }
+
+    /**
+     * Draws a frame of the sprites, between their previous and their current simulation tick, onto the given
+     * drawing surface.
+     *
+     * @param d     the drawing surface of the window.
+     * @param alpha how far the frame is from the previous tick to the current one, between 0 and 1.
+     */
+    public void drawFrame(DrawSurface d, double alpha) {
+        FrameSnapshot recorded = previous;
+        previous = current;
+        current = recorded;
+        current.reset(frames);
+        sprites.drawAllOn(current, alpha);
+
+        BufferedImage layerImage = staticLayer.getImage(d.getWidth(), d.getHeight());
+        for (DirtyRegionTracker tracker : damage) {
+            staticLayer.drawChangesOn(tracker);
+            previous.replay(tracker);
+            current.replay(tracker);
+        }
+        staticLayer.forgetChanges();
+
+        ImageDrawSurface buffer = buffers[next];
+        DirtyRegionTracker region = damage[next];
+        next = 1 - next;
+        lastPixels = region.getDirtyPixels();
+        if (!region.isClean()) {
+            buffer.setClip(region.toClip());
+            buffer.drawImage(0, 0, layerImage);
+            // The sprites are opaque and were drawn in the same places outside the region, so drawing them
+            // unclipped changes no pixel there, and draws them exactly as a full frame would
+            buffer.setClip(null);
+            current.replay(buffer);
+            region.clear();
+        }
+        totalPixels += lastPixels;
+        frames++;
+        d.drawImage(0, 0, buffer.getImage());
+    }
+
+    /**
+     * Returns the number of pixels redrawn in the last frame.
+     *
+     * @return the number of pixels redrawn in the last frame.
+     */
+    public long getPixelsRedrawn() {
+        return this.lastPixels;
+    }
+
+    /**
+     * Returns the mean number of pixels redrawn per frame.
+     *
+     * @return the mean number of pixels redrawn per frame, or 0 if no frame was drawn.
+     */
+    public double getMeanPixelsRedrawn() {
+        return frames == 0 ? 0 : (double) totalPixels / frames;
+    }
+
+    /**
+     * Returns the number of frames drawn.
+     *
+     * @return the number of frames.
+     */
+    public long getFrames() {
+        return this.frames;
+    }
+}
@@ -0,0 +1,212 @@
+//209852706 Maya Diamant
+package Game;
+
+import Collidable.Block;
+import Geometry.Point;
+import Sprites.DrawBatch;
+import Sprites.ImageDrawSurface;
+import Sprites.Sprite;
+import Sprites.SpriteCollection;
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The Game.DrawBenchmark class compares drawing a board of many blocks sprite by sprite with drawing it through
+ * a Sprites.DrawBatch. The blocks fill the screen in a grid, colored from a small palette, and the board is drawn
+ * onto an offscreen image both ways: the benchmark counts the color changes of each way, checks that the two
+ * images are the same pixel for pixel (the blocks do not overlap), and times the frames of each way, the ways
+ * taking turns so both run on an equally warm JVM.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class DrawBenchmark {
+    // The number of rounds that only warm the JVM up, before the measured rounds
+    private static final int WARMUP_ROUNDS = 3;
+    // The number of measured rounds; the best round of each way is reported
+    private static final int ROUNDS = 5;
+    // The colors of the blocks
+    private static final Color[] PALETTE = {
+            Color.red, Color.green, Color.blue, Color.yellow, Color.cyan, Color.magenta, Color.orange,
+    };
+
+    private final int blocks;
+    private final int frames;
+    private int plainColorChanges;
+    private int batchedColorChanges;
+    private long differentPixels;
+    private double plainMillis;
+    private double batchedMillis;
+
+    /**
+     * Constructs a Game.DrawBenchmark.
+     *
+     * @param blocks the number of blocks on the board.
+     * @param frames the number of frames drawn each way in a round.
+     */
+    public DrawBenchmark(int blocks, int frames) {
+        this.blocks = blocks;
+        this.frames = frames;
+    }
+
+    /**
+     * Builds the board, counts the color changes, compares the images and times the frames of both ways.
+     */
+    public void run() {
+        SpriteCollection board = new SpriteCollection(buildBoard());
+        ImageDrawSurface plain = new ImageDrawSurface(
+                new BufferedImage(Board.WIDTH, Board.HEIGHT, BufferedImage.TYPE_INT_RGB));
+        ImageDrawSurface batched = new ImageDrawSurface(
+                new BufferedImage(Board.WIDTH, Board.HEIGHT, BufferedImage.TYPE_INT_RGB));
+        DrawBatch batch = new DrawBatch(Board.WIDTH, Board.HEIGHT);
+
+        ColorCounter counter = new ColorCounter();
+        board.drawAllOn(counter);
+        plainColorChanges = counter.changes;
+        board.drawAllOn(plain);
+        board.drawAllOn(batched, 1, batch);
+        batchedColorChanges = batch.getColorChanges();
+        differentPixels = countDifferentPixels(plain.getImage(), batched.getImage());
+
+        plainMillis = Double.MAX_VALUE;
+        batchedMillis = Double.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int frame = 0; frame < frames; frame++) {
+                board.drawAllOn(plain);
+            }
+            long middle = System.nanoTime();
+            for (int frame = 0; frame < frames; frame++) {
+                board.drawAllOn(batched, 1, batch);
+            }
+            long end = System.nanoTime();
+            if (round >= WARMUP_ROUNDS) {
+                plainMillis = Math.min(plainMillis, (middle - start) / 1e6 / frames);
+                batchedMillis = Math.min(batchedMillis, (end - middle) / 1e6 / frames);
+            }
+        }
+        plain.dispose();
+        batched.dispose();
+    }
+
+    /**
+     * Builds the blocks of the board: a grid as square as the screen allows, filled row by row, where every
+     * three neighboring blocks of a row share a color and the colors shift by one from row to row.
+     *
+     * @return the blocks.
+     */
+    private List<Sprite> buildBoard() {
+        int columns = (int) Math.ceil(Math.sqrt(blocks * (double) Board.WIDTH / Board.HEIGHT));
+        int rows = (blocks + columns - 1) / columns;
+        double width = (double) Board.WIDTH / columns;
+        double height = (double) Board.HEIGHT / rows;
+        List<Sprite> sprites = new ArrayList<>(blocks);
+        for (int i = 0; i < blocks; i++) {
+            int column = i % columns;
+            int row = i / columns;
+            sprites.add(new Block(new Point(column * width, row * height), width, height,
+                    PALETTE[(column / 3 + row) % PALETTE.length]));
+        }
+        return sprites;
+    }
+
+    /**
+     * Counts the pixels that differ between two images of the same size.
+     *
+     * @param first  the first image.
+     * @param second the second image.
+     * @return the number of different pixels.
+     */
+    private static long countDifferentPixels(BufferedImage first, BufferedImage second) {
+        long different = 0;
+        for (int y = 0; y < first.getHeight(); y++) {
+            for (int x = 0; x < first.getWidth(); x++) {
+                if (first.getRGB(x, y) != second.getRGB(x, y)) {
+                    different++;
+                }
+            }
+        }
+        return different;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("blocks: %d, color changes: %d unbatched, %d batched, different pixels: %d%n"
+                        + "frame time: %.3f ms unbatched, %.3f ms batched (best of %d rounds of %d frames)",
+                blocks, plainColorChanges, batchedColorChanges, differentPixels,
+                plainMillis, batchedMillis, ROUNDS, frames);
+    }
+
+    /**
+     * ColorCounter is a drawing surface that draws nothing, and counts the times the color is changed.
+     */
+    private static final class ColorCounter implements DrawSurface {
+        private int changes;
+
+        @Override
+        public int getWidth() {
+            return Board.WIDTH;
+        }
+
+        @Override
+        public int getHeight() {
+            return Board.HEIGHT;
+        }
+
+        @Override
+        public void setColor(Color color) {
+            changes++;
+        }
+
+        @Override
+        public void drawLine(int x1, int y1, int x2, int y2) {
+        }
+
+        @Override
+        public void drawOval(int x, int y, int w, int h) {
+        }
+
+        @Override
+        public void fillOval(int x, int y, int w, int h) {
+        }
+
+        @Override
+        public void drawRectangle(int x, int y, int w, int h) {
+        }
+
+        @Override
+        public void fillRectangle(int x, int y, int w, int h) {
+        }
+
+        @Override
+        public void drawImage(int x, int y, Image image) {
+        }
+
+        @Override
+        public void drawCircle(int x, int y, int r) {
+        }
+
+        @Override
+        public void fillCircle(int x, int y, int r) {
+        }
+
+        @Override
+        public void drawText(int x, int y, String s, int fontSize) {
+        }
+
+        @Override
+        public void drawPolygon(Polygon p) {
+        }
+
+        @Override
+        public void fillPolygon(Polygon p) {
+        }
+    }
+}
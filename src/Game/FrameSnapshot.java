@@ -0,0 +1,237 @@
+//209852706 Maya Diamant
+package Game;
+
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.util.Arrays;
+
+/**
+ * The Game.FrameSnapshot class is a drawing surface that records the drawing commands of a frame instead of
+ * drawing them, so that the frame can be drawn later, on another thread, onto a real drawing surface.
+ * Every command is stored as an opcode and up to four integers, in one flat array, and its color, text,
+ * image or polygon (if any) in a parallel array, so recording a frame allocates nothing once the arrays
+ * are big enough (except for copying polygons, which are mutable).
+ * The simulation thread records a snapshot and hands it over; from then on the snapshot is only read.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class FrameSnapshot implements DrawSurface {
+    // The number of integers stored per command: the opcode and four arguments
+    private static final int STRIDE = 5;
+    // The opcodes of the recorded commands
+    private static final int SET_COLOR = 0;
+    private static final int DRAW_LINE = 1;
+    private static final int DRAW_OVAL = 2;
+    private static final int FILL_OVAL = 3;
+    private static final int DRAW_RECTANGLE = 4;
+    private static final int FILL_RECTANGLE = 5;
+    private static final int DRAW_IMAGE = 6;
+    private static final int DRAW_CIRCLE = 7;
+    private static final int FILL_CIRCLE = 8;
+    private static final int DRAW_TEXT = 9;
+    private static final int DRAW_POLYGON = 10;
+    private static final int FILL_POLYGON = 11;
+
+    private final int width;
+    private final int height;
+    private int[] commands;
+    private Object[] objects;
+    private int size;
+    private long tick;
+
+    /**
+     * Constructs an empty Game.FrameSnapshot of a surface of the given size.
+     *
+     * @param width  the width of the surface.
+     * @param height the height of the surface.
+     */
+    public FrameSnapshot(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.commands = new int[STRIDE * 256];
+        this.objects = new Object[256];
+        this.size = 0;
+        this.tick = -1;
+    }
+
+    /**
+     * Forgets the recorded commands, to record the frame of the given tick.
+     *
+     * @param newTick the simulation tick the frame is recorded at.
+     */
+    public void reset(long newTick) {
+        Arrays.fill(objects, 0, size, null);
+        this.size = 0;
+        this.tick = newTick;
+    }
+
+    /**
+     * Returns the simulation tick this frame was recorded at.
+     *
+     * @return the tick of the frame, or -1 if nothing was recorded yet.
+     */
+    public long getTick() {
+        return this.tick;
+    }
+
+    /**
+     * Returns the number of recorded commands.
+     *
+     * @return the number of commands.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Draws the recorded commands onto the given drawing surface, in order.
+     *
+     * @param d the drawing surface.
+     */
+    public void replay(DrawSurface d) {
+        for (int i = 0; i < size; i++) {
+            int k = i * STRIDE;
+            int a = commands[k + 1];
+            int b = commands[k + 2];
+            int c = commands[k + 3];
+            int e = commands[k + 4];
+            switch (commands[k]) {
+                case SET_COLOR:
+                    d.setColor((Color) objects[i]);
+                    break;
+                case DRAW_LINE:
+                    d.drawLine(a, b, c, e);
+                    break;
+                case DRAW_OVAL:
+                    d.drawOval(a, b, c, e);
+                    break;
+                case FILL_OVAL:
+                    d.fillOval(a, b, c, e);
+                    break;
+                case DRAW_RECTANGLE:
+                    d.drawRectangle(a, b, c, e);
+                    break;
+                case FILL_RECTANGLE:
+                    d.fillRectangle(a, b, c, e);
+                    break;
+                case DRAW_IMAGE:
+                    d.drawImage(a, b, (Image) objects[i]);
+                    break;
+                case DRAW_CIRCLE:
+                    d.drawCircle(a, b, c);
+                    break;
+                case FILL_CIRCLE:
+                    d.fillCircle(a, b, c);
+                    break;
+                case DRAW_TEXT:
+                    d.drawText(a, b, (String) objects[i], c);
+                    break;
+                case DRAW_POLYGON:
+                    d.drawPolygon((Polygon) objects[i]);
+                    break;
+                default:
+                    d.fillPolygon((Polygon) objects[i]);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Records a command.
+     *
+     * @param op     the opcode of the command.
+     * @param a      the first argument.
+     * @param b      the second argument.
+     * @param c      the third argument.
+     * @param e      the fourth argument.
+     * @param object the color, text, image or polygon of the command, or null.
+     */
+    private void record(int op, int a, int b, int c, int e, Object object) {
+        if (size == objects.length) {
+            commands = Arrays.copyOf(commands, commands.length * 2);
+            objects = Arrays.copyOf(objects, objects.length * 2);
+        }
+        int k = size * STRIDE;
+        commands[k] = op;
+        commands[k + 1] = a;
+        commands[k + 2] = b;
+        commands[k + 3] = c;
+        commands[k + 4] = e;
+        objects[size++] = object;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    @Override
+    public void setColor(Color color) {
+        record(SET_COLOR, 0, 0, 0, 0, color);
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        record(DRAW_LINE, x1, y1, x2, y2, null);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int w, int h) {
+        record(DRAW_OVAL, x, y, w, h, null);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int w, int h) {
+        record(FILL_OVAL, x, y, w, h, null);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int w, int h) {
+        record(DRAW_RECTANGLE, x, y, w, h, null);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int w, int h) {
+        record(FILL_RECTANGLE, x, y, w, h, null);
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image image) {
+        record(DRAW_IMAGE, x, y, 0, 0, image);
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        record(DRAW_CIRCLE, x, y, r, 0, null);
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        record(FILL_CIRCLE, x, y, r, 0, null);
+    }
+
+    @Override
+    public void drawText(int x, int y, String s, int fontSize) {
+        record(DRAW_TEXT, x, y, fontSize, 0, s);
+    }
+
+    @Override
+    public void drawPolygon(Polygon p) {
+        record(DRAW_POLYGON, 0, 0, 0, 0, new Polygon(p.xpoints, p.ypoints, p.npoints));
+    }
+
+    @Override
+    public void fillPolygon(Polygon p) {
+        record(FILL_POLYGON, 0, 0, 0, 0, new Polygon(p.xpoints, p.ypoints, p.npoints));
+    }
+}
@@ -2,24 +2,31 @@
 package Game;
 
 import Collidable.Collidable;
-import Geometry.Point;
+import Collidable.CollisionLayers;
 import Movement.Ball;
+import Movement.BallPool;
+import Movement.BallSystem;
 import Movement.Paddle;
 import Movement.Velocity;
 import Observers.BallRemover;
 import Observers.BlockRemover;
+import Observers.ConcurrentCounter;
 import Observers.Counter;
+import Observers.HitEventBus;
+import Observers.ListenerSet;
 import Observers.ScoreTrackingListener;
 import Sprites.ScoreIndicator;
 import Sprites.Sprite;
 import Sprites.SpriteCollection;
+import Sprites.StaticLayer;
 import biuoop.DrawSurface;
 import biuoop.GUI;
+import biuoop.KeyboardSensor;
 import biuoop.Sleeper;
-import Geometry.Rectangle;
 
 import java.awt.Color;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 import Collidable.Block;
@@ -33,26 +40,236 @@ import Collidable.Block;
  * @since 2024-07-04
  */
 public class Game {
+    // The number of nanoseconds in a second
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    // The longest frame time that is simulated; a longer stall slows the game down instead of
+    // running a burst of ticks that would stall the next frame too
+    private static final long MAX_FRAME_NANOS = NANOS_PER_SECOND / 4;
+    // The most balls in play at once; spawns beyond it are refused by the ball pool
+    private static final int MAX_BALLS = 4096;
+
     private final SpriteCollection sprites;
+    private final StaticLayer staticLayer;
     private final GameEnvironment environment;
+    private final BallSystem ballSystem;
+    private final BallPool ballPool;
     private final GUI gui;
+    private final KeyboardSensor keyboard;
+    private final Random random;
     private final Sleeper sleeper;
-    private final Counter blocksCounter;
-    private final Counter ballsCounter;
-    private final Counter score;
+    private final List<Runnable> shutdownTasks;
+    private Counter blocksCounter;
+    private Counter ballsCounter;
+    private Counter score;
+    private int ticksPerSecond;
+    private int framesPerSecond;
+    private boolean useRenderThread;
+    private DirtyRectRenderer dirtyRenderer;
+    private HitEventBus hitEvents;
+    private long ticks;
+    private long simulationNanos;
+    private long frames;
+    private long repeatedFrames;
+    private long windowNanos;
+    private boolean over;
+    private Collidable paddle;
 
     /**
      * Constructs a new Game.GameEnvironment.Game.Game object and initializes the sprite collection,
      * game environment, GUI, and sleeper.
      */
     public Game() {
+        this(new GUI("Arkanoid", 800, 600), null, new Random());
+    }
+
+    /**
+     * Constructs a game with the given window (or none) and random generator.
+     *
+     * @param gui      the window of the game, or null for a headless game.
+     * @param keyboard the keyboard sensor of a headless game (a game with a window uses its keyboard).
+     * @param random   the random generator of the game.
+     */
+    private Game(GUI gui, KeyboardSensor keyboard, Random random) {
         this.sprites = new SpriteCollection(new ArrayList<>());
+        this.staticLayer = new StaticLayer();
+        this.sprites.addSprite(staticLayer);
         this.environment = new GameEnvironment(new ArrayList<>());
-        this.gui = new GUI("Arkanoid", 800, 600);
+        this.ballSystem = new BallSystem(environment);
+        this.ballPool = new BallPool(ballSystem, MAX_BALLS);
+        this.gui = gui;
+        this.keyboard = gui == null ? keyboard : gui.getKeyboardSensor();
+        this.random = random;
         this.sleeper = new Sleeper();
+        this.shutdownTasks = new ArrayList<>();
         this.blocksCounter = new Counter(0);
         this.ballsCounter = new Counter(0);
         this.score = new Counter(0);
+        this.ticksPerSecond = 60;
+        this.framesPerSecond = 60;
+    }
+
+    /**
+     * Creates a headless game: the full simulation (environment, sprites, listeners and counters) without
+     * a window. A headless game runs as fast as it can, with no frame cap, and with the given seed
+     * the same game is played every time.
+     *
+     * @param keyboard the keyboard sensor that moves the paddle.
+     * @param seed     the seed of the random generator of the game.
+     * @return the new headless game.
+     */
+    public static Game createHeadless(KeyboardSensor keyboard, long seed) {
+        return new Game(null, keyboard, new Random(seed));
+    }
+
+    /**
+     * Checks whether this game runs without a window.
+     *
+     * @return true if the game is headless, false otherwise.
+     */
+    public boolean isHeadless() {
+        return this.gui == null;
+    }
+
+    /**
+     * Sets the number of simulation ticks per second. The balls and the paddle move one step per tick,
+     * so this is the speed of the game, whatever the frame rate.
+     *
+     * @param ticks the number of simulation ticks per second.
+     */
+    public void setTickRate(int ticks) {
+        this.ticksPerSecond = ticks;
+    }
+
+    /**
+     * Sets whether the frames are drawn on a render thread of their own (see Game.RenderThread), while
+     * the simulation runs on the thread that calls run(). Frames drawn by the render thread show the
+     * latest tick, without interpolation.
+     *
+     * @param enabled true to draw on a render thread, false to draw on the simulation thread.
+     */
+    public void setRenderThread(boolean enabled) {
+        this.useRenderThread = enabled;
+    }
+
+    /**
+     * Sets the spatial index the static collidables of the game are kept in, which answers the collision
+     * queries (a Game.UniformGrid by default, or a Game.AabbTree for levels with very uneven block sizes).
+     * Set before the game is initialized.
+     *
+     * @param index the (empty) collision index.
+     */
+    public void setCollisionIndex(CollisionIndex index) {
+        environment.setIndex(index);
+    }
+
+    /**
+     * Returns the number of simulation ticks per second.
+     *
+     * @return the number of simulation ticks per second.
+     */
+    public int getTickRate() {
+        return this.ticksPerSecond;
+    }
+
+    /**
+     * Sets whether the frames are composed offscreen, redrawing only the regions of the screen that changed
+     * (see Game.DirtyRectRenderer). This applies to frames drawn on the simulation thread.
+     *
+     * @param enabled true to redraw only the changed regions, false to redraw every frame whole.
+     */
+    public void setDirtyRectangles(boolean enabled) {
+        if (enabled && dirtyRenderer == null) {
+            dirtyRenderer = new DirtyRectRenderer(sprites, staticLayer, 800, 600);
+        } else if (!enabled) {
+            dirtyRenderer = null;
+            staticLayer.setComposited(false);
+        }
+    }
+
+    /**
+     * Returns the renderer that redraws only the changed regions of the screen, with its frame cost counters.
+     *
+     * @return the renderer, or null if the frames are redrawn whole.
+     */
+    public DirtyRectRenderer getDirtyRectRenderer() {
+        return this.dirtyRenderer;
+    }
+
+    /**
+     * Sets the bus that the hits of the blocks and of the bottom edge are published to, so their listeners
+     * are notified at the end of the tick (see Observers.HitEventBus). Set before the game is initialized.
+     *
+     * @param bus the hit-event bus, or null to notify the listeners during the collision step.
+     */
+    public void setHitEventBus(HitEventBus bus) {
+        this.hitEvents = bus;
+    }
+
+    /**
+     * Sets whether the score, block and ball counters may be updated from several threads at once
+     * (see Observers.ConcurrentCounter). The counters of a game that runs on one thread need not be.
+     * Set before the game is initialized, as the counters are replaced and keep their values. The thread that
+     * first updates a new counter (the thread of the game) owns it, and updates it at the cost of a plain one.
+     *
+     * @param enabled true for counters that may be updated concurrently, false for plain counters.
+     */
+    public void setConcurrentCounters(boolean enabled) {
+        this.blocksCounter = counter(enabled, blocksCounter.getValue());
+        this.ballsCounter = counter(enabled, ballsCounter.getValue());
+        this.score = counter(enabled, score.getValue());
+    }
+
+    /**
+     * Creates a counter with the given value.
+     *
+     * @param concurrent true for a counter that may be updated concurrently, false for a plain counter.
+     * @param value      the initial value of the counter.
+     * @return the new counter.
+     */
+    private static Counter counter(boolean concurrent, int value) {
+        return concurrent ? new ConcurrentCounter(value) : new Counter(value);
+    }
+
+    /**
+     * Returns the bus that the hits of the blocks are published to.
+     *
+     * @return the hit-event bus, or null if the listeners are notified during the collision step.
+     */
+    public HitEventBus getHitEventBus() {
+        return this.hitEvents;
+    }
+
+    /**
+     * Stops the threads the game started: the worker of its hit-event bus, once the slow consumers have been
+     * notified of every hit, and the threads of the objects that asked to be stopped with the game (see
+     * addShutdownTask). Called once the game is over (run calls it itself); a bus belongs to one game.
+     */
+    public void shutdown() {
+        if (hitEvents != null) {
+            hitEvents.shutdown();
+        }
+        for (Runnable task : shutdownTasks) {
+            task.run();
+        }
+        shutdownTasks.clear();
+    }
+
+    /**
+     * Adds a task to run when the game shuts down, such as stopping a thread of an object of the game.
+     *
+     * @param task the task.
+     */
+    public void addShutdownTask(Runnable task) {
+        shutdownTasks.add(task);
+    }
+
+    /**
+     * Sets the number of frames drawn per second.
+     *
+     * @param frames the number of frames per second.
+     */
+    public void setFrameRate(int frames) {
+        this.framesPerSecond = frames;
     }
 
     /**
@@ -64,6 +281,87 @@ public class Game {
         environment.addCollidable(c);
     }
 
+    /**
+     * Adds a collidable object that moves every frame (like the paddle) to the game environment.
+     *
+     * @param c The collidable object to be added.
+     */
+    public void addDynamicCollidable(Collidable c) {
+        environment.addDynamicCollidable(c);
+    }
+
+    /**
+     * Adds a tile field to the game environment, which answers the collision queries for its tiles.
+     *
+     * @param field The tile field to be added.
+     */
+    public void addTileField(TileField field) {
+        environment.addTileField(field);
+    }
+
+    /**
+     * Removes a tile field from the game environment.
+     *
+     * @param field The tile field to be removed.
+     */
+    public void removeTileField(TileField field) {
+        environment.removeTileField(field);
+    }
+
+    /**
+     * Notifies the game environment that the collision rectangle of a collidable has changed.
+     *
+     * @param c The collidable object that has moved.
+     */
+    public void updateCollidable(Collidable c) {
+        environment.updateCollidable(c);
+    }
+
+    /**
+     * Returns the ball system that simulates and draws the balls of this game.
+     *
+     * @return the ball system of the game.
+     */
+    public BallSystem getBallSystem() {
+        return this.ballSystem;
+    }
+
+    /**
+     * Returns the pool the balls of this game are spawned from and released to.
+     *
+     * @return the ball pool of the game.
+     */
+    public BallPool getBallPool() {
+        return this.ballPool;
+    }
+
+    /**
+     * Spawns a ball in the ball system of this game, from the ball pool. The caller counts the ball.
+     *
+     * @param cx    the x-coordinate of the center of the ball.
+     * @param cy    the y-coordinate of the center of the ball.
+     * @param r     the radius of the ball.
+     * @param color the color of the ball.
+     * @param dx    the change in the x-direction per movement step.
+     * @param dy    the change in the y-direction per movement step.
+     * @return the ball, or null if the game already has the maximum number of balls.
+     */
+    public Ball spawnBall(double cx, double cy, int r, Color color, double dx, double dy) {
+        return ballPool.acquire(cx, cy, r, color, dx, dy);
+    }
+
+    /**
+     * Removes a ball from this game, releasing it to the ball pool if it was spawned in the ball system of
+     * the game. The ball must not be used afterwards.
+     *
+     * @param ball the ball to remove.
+     */
+    public void releaseBall(Ball ball) {
+        if (!ballPool.release(ball)) {
+            ball.removeFromGame(this);
+        }
+    }
+
     /**
      * Adds a sprite object to the sprite collection.
      *
@@ -78,100 +376,370 @@ public class Game {
      * and adds them to the game.
      */
     public void initialize() {
-        Random rnd = new Random();
-        int rectsAmount = 12;
-        int linesAmount = 6;
-        Color[] colors = new Color[8];
-        colors[0] = new Color(255, 179, 186); // Light pink
-        colors[1] = new Color(255, 223, 186); // Peach
-        colors[2] = new Color(255, 255, 186); // Light yellow
-        colors[3] = new Color(186, 255, 201); // Mint green
-        colors[4] = new Color(186, 225, 255); // Light blue
-        colors[5] = new Color(204, 204, 255); // Lavender
-        colors[6] = new Color(255, 204, 229); // Light magenta
         // Create and add the screen background block
-        Block screen = new Block(new Point(0, 0), 800, 600, colors[6]);
-        addSprite(screen);
+        Block screen = new Block(Board.getScreen(), Board.BACKGROUND);
+        addStaticSprite(screen);
         BlockRemover remove = new BlockRemover(this, blocksCounter);
         BallRemover ballsRemove = new BallRemover(ballsCounter, this);
         ScoreTrackingListener scores = new ScoreTrackingListener(score);
         ScoreIndicator display = new ScoreIndicator(score);
         display.addToGame(this);
-        // Define colors for the blocks
 
-        // Create and add blocks to the game
-        for (int i = 0; i < linesAmount; i++) {
-            for (int j = rectsAmount - i; j > 0; j--) {
-                Block block = new Block(new Point(790 - (40 * j), 100 + i * 20), 40, 20, colors[i]);
+        // Create and add blocks to the game; they all share one set of listeners
+        ListenerSet blockListeners = ListenerSet.of(remove, scores);
+        // The set a block moves to once its remover leaves is remembered by the shared set, so it is made now,
+        // rather than allocated by the first block removed during the game
+        blockListeners.without(remove);
+        for (int row = 0; row < Board.ROWS; row++) {
+            for (int j = Board.getBlocksInRow(row); j > 0; j--) {
+                Block block = new Block(Board.getBlockArea(row, j), Board.getRowColor(row));
                 block.addToGame(this);
-                block.addHitListener(remove);
-                block.addHitListener(scores);
+                block.setHitListeners(blockListeners);
+                block.setHitEventBus(hitEvents);
                 blocksCounter.increase(1);
             }
         }
 
         // Create and add the paddle to the game
-        Rectangle rectangle = new Rectangle(new Point(0, 570), 100, 20);
-        Paddle paddle = new Paddle(gui, rectangle, Color.white, 800, 10);
-        paddle.addToGame(this);
+        Paddle boardPaddle = new Paddle(keyboard, Board.getPaddleArea(), Board.PADDLE_COLOR, Board.WIDTH,
+                Board.PADDLE_SPEED);
+        boardPaddle.addToGame(this);
+        paddle = boardPaddle;
 
         // Create and add the edges to the game
-        Block topEdge = new Block(new Point(0, 0), 800, 10, Color.lightGray);
-        Block leftEdge = new Block(new Point(0, 0), 10, 600, Color.lightGray);
-        Block rightEdge = new Block(new Point(790, 0), 10, 600, Color.lightGray);
-        Block bottomEdge = new Block(new Point(0, 600), 800, 10, Color.lightGray);
+        Block topEdge = new Block(Board.getTopEdge(), Board.EDGE_COLOR);
+        Block leftEdge = new Block(Board.getLeftEdge(), Board.EDGE_COLOR);
+        Block rightEdge = new Block(Board.getRightEdge(), Board.EDGE_COLOR);
+        Block bottomEdge = new Block(Board.getBottomEdge(), Board.EDGE_COLOR);
+        topEdge.setCategory(CollisionLayers.EDGE);
+        leftEdge.setCategory(CollisionLayers.EDGE);
+        rightEdge.setCategory(CollisionLayers.EDGE);
+        bottomEdge.setCategory(CollisionLayers.EDGE);
         bottomEdge.addToGame(this);
         bottomEdge.addHitListener(ballsRemove);
+        bottomEdge.setHitEventBus(hitEvents);
         topEdge.addToGame(this);
         leftEdge.addToGame(this);
         rightEdge.addToGame(this);
 
-        // Create and add balls to the game
-        Ball[] balls = new Ball[3];
-        for (int i = 0; i < balls.length; i++) {
-            balls[i] = new Ball(new Point(500, 500), 5, colors[6], environment);
-            balls[i].setVelocity(Velocity.fromAngleAndSpeed(rnd.nextInt(360), 5));
-            balls[i].addToGame(this);
-            ballsCounter.increase(1);
+        // Create and add balls to the game; the ball system steps and draws all of them at once
+        ballSystem.addToGame(this);
+        for (int i = 0; i < Board.BALLS; i++) {
+            Velocity v = Velocity.fromAngleAndSpeed(random.nextInt(360), Board.BALL_SPEED);
+            if (spawnBall(Board.BALL_X, Board.BALL_Y, Board.BALL_RADIUS, Board.BACKGROUND, v.getDx(), v.getDy())
+                    != null) {
+                ballsCounter.increase(1);
+            }
+        }
+    }
+
+    /**
+     * Runs one simulation tick: notifies all sprites that time has passed, then the listeners of the hits
+     * published to the hit-event bus during the tick.
+     */
+    private void tick() {
+        this.sprites.notifyAllTimePassed();
+        if (hitEvents != null) {
+            hitEvents.drain();
         }
     }
 
     /**
      * Runs the game -- starts the animation loop.
+     * The simulation advances in fixed ticks: the time that has passed since the previous frame is added to
+     * an accumulator, and as many ticks are run as fit in it. The frame is then drawn between the last two
+     * ticks, so a slow frame drops smoothness but not game time.
      */
     public void run() {
-        // Set frames per second and milliseconds per frame
-        int framesPerSecond = 60;
-        int millisecondsPerFrame = 1000 / framesPerSecond;
+        if (isHeadless()) {
+            runHeadless(Long.MAX_VALUE);
+            shutdown();
+            return;
+        }
+        if (useRenderThread) {
+            runWithRenderThread();
+            return;
+        }
+        long nanosPerTick = NANOS_PER_SECOND / ticksPerSecond;
+        long nanosPerFrame = NANOS_PER_SECOND / framesPerSecond;
+        long accumulator = 0;
+        long previousTime = System.nanoTime();
+        long runStart = previousTime;
 
         // Main game loop
         while (true) {
-            long startTime = System.currentTimeMillis(); // timing
-            DrawSurface d = gui.getDrawSurface();
+            long startTime = System.nanoTime(); // timing
+            accumulator += Math.min(startTime - previousTime, MAX_FRAME_NANOS);
+            previousTime = startTime;
 
-            // Draw all sprites on the drawing surface
-            this.sprites.drawAllOn(d);
-            gui.show(d);
+            // Notify all sprites that time has passed, once per tick that is due
+            while (accumulator >= nanosPerTick) {
+                tick();
+                accumulator -= nanosPerTick;
+                if (isOver()) {
+                    windowNanos = System.nanoTime() - runStart;
+                    shutdown();
+                    gui.close();
+                    return;
+                }
+            }
 
-            // Notify all sprites that time has passed
-            this.sprites.notifyAllTimePassed();
+            // Draw all sprites on the drawing surface, between the last two ticks
+            DrawSurface d = gui.getDrawSurface();
+            if (dirtyRenderer != null) {
+                dirtyRenderer.drawFrame(d, (double) accumulator / nanosPerTick);
+            } else {
+                this.sprites.drawAllOn(d, (double) accumulator / nanosPerTick);
+            }
+            gui.show(d);
+            frames++;
 
             // timing
-            long usedTime = System.currentTimeMillis() - startTime;
-            long milliSecondLeftToSleep = millisecondsPerFrame - usedTime;
+            long usedTime = System.nanoTime() - startTime;
+            long milliSecondLeftToSleep = (nanosPerFrame - usedTime) / 1_000_000L;
             if (milliSecondLeftToSleep > 0) {
                 sleeper.sleepFor(milliSecondLeftToSleep);
             }
-            if (blocksCounter.getValue() == 0) {
-                score.increase(100);
+        }
+    }
+
+    /**
+     * Runs the game with the frames drawn on a render thread. This thread only simulates: after every tick
+     * it records the sprites into a frame snapshot and publishes it to the render thread, then sleeps until
+     * the next tick is due.
+     */
+    private void runWithRenderThread() {
+        long nanosPerTick = NANOS_PER_SECOND / ticksPerSecond;
+        RenderThread renderer = new RenderThread(gui, framesPerSecond);
+        FrameSnapshot frame = renderer.getRecording();
+        long tick = 0;
+        frame.reset(tick);
+        this.sprites.drawAllOn(frame);
+        frame = renderer.publish();
+        renderer.start();
+        long nextTick = System.nanoTime();
+        long runStart = nextTick;
+        while (true) {
+            tick();
+            tick++;
+            if (isOver()) {
+                renderer.finish();
+                windowNanos = System.nanoTime() - runStart;
+                frames = renderer.getFramesDrawn();
+                repeatedFrames = renderer.getRepeatedFrames();
+                shutdown();
                 gui.close();
                 return;
             }
-            if (ballsCounter.getValue() == 0) {
-                gui.close();
-                return;
+            frame.reset(tick);
+            this.sprites.drawAllOn(frame);
+            frame = renderer.publish();
+
+            // timing
+            nextTick += nanosPerTick;
+            long now = System.nanoTime();
+            if (now - nextTick > MAX_FRAME_NANOS) {
+                nextTick = now;
+            }
+            long milliSecondLeftToSleep = (nextTick - now) / 1_000_000L;
+            if (milliSecondLeftToSleep > 0) {
+                sleeper.sleepFor(milliSecondLeftToSleep);
+            }
+        }
+    }
+
+    /**
+     * Runs the simulation without drawing or sleeping, as fast as it can, until the game is over or the
+     * given number of ticks has been simulated. This is how a headless game runs.
+     *
+     * @param maxTicks the most ticks to simulate.
+     * @return the number of ticks simulated.
+     */
+    public long runHeadless(long maxTicks) {
+        long startTime = System.nanoTime();
+        long ran = 0;
+        while (ran < maxTicks && !over) {
+            tick();
+            ran++;
+            if (isOver()) {
+                break;
             }
         }
+        this.ticks += ran;
+        this.simulationNanos += System.nanoTime() - startTime;
+        return ran;
+    }
+
+    /**
+     * Returns the number of ticks simulated by runHeadless so far.
+     *
+     * @return the number of simulated ticks.
+     */
+    public long getTicks() {
+        return this.ticks;
+    }
+
+    /**
+     * Returns the number of ticks runHeadless has simulated per second of wall time.
+     *
+     * @return the number of ticks per second, or 0 if nothing was simulated yet.
+     */
+    public double getTicksPerSecond() {
+        return simulationNanos == 0 ? 0 : ticks * (double) NANOS_PER_SECOND / simulationNanos;
+    }
+
+    /**
+     * Returns the number of game seconds simulated by runHeadless so far, at the tick rate of the game.
+     *
+     * @return the number of simulated game seconds.
+     */
+    public double getGameSeconds() {
+        return (double) ticks / ticksPerSecond;
+    }
+
+    /**
+     * Returns the number of frames run has shown in the window.
+     *
+     * @return the number of frames shown.
+     */
+    public long getFrames() {
+        return this.frames;
+    }
+
+    /**
+     * Returns the number of frames the render thread showed again with the tick of the frame before (see
+     * Game.RenderThread), as the simulation had not finished a newer one.
+     *
+     * @return the number of repeated frames, 0 if the frames were drawn on the simulation thread.
+     */
+    public long getRepeatedFrames() {
+        return this.repeatedFrames;
+    }
+
+    /**
+     * Returns the number of frames run has shown per second of wall time, once the game is over.
+     *
+     * @return the number of frames per second, or 0 if the window was not run to the end.
+     */
+    public double getFramesPerSecond() {
+        return windowNanos == 0 ? 0 : frames * (double) NANOS_PER_SECOND / windowNanos;
+    }
+
+    /**
+     * Returns the paddle of the game: the collidable the player moves (a Movement.Paddle, or the paddle entity
+     * of an Engine.EntityLevel).
+     *
+     * @return the paddle, or null if the game has none.
+     */
+    public Collidable getPaddle() {
+        return this.paddle;
+    }
+
+    /**
+     * Sets the paddle of the game, for levels that build their own paddle.
+     *
+     * @param newPaddle the paddle of the game.
+     */
+    public void setPaddle(Collidable newPaddle) {
+        this.paddle = newPaddle;
+    }
+
+    /**
+     * Returns the keyboard sensor of the game, which moves the paddle.
+     *
+     * @return the keyboard sensor.
+     */
+    public KeyboardSensor getKeyboard() {
+        return this.keyboard;
+    }
+
+    /**
+     * Returns the score of the game.
+     *
+     * @return the score.
+     */
+    public int getScore() {
+        return this.score.getValue();
+    }
+
+    /**
+     * Returns the counter of the score, for levels that score hits.
+     *
+     * @return the counter of the score.
+     */
+    public Counter getScoreCounter() {
+        return this.score;
+    }
+
+    /**
+     * Returns the counter of the blocks left in the game, for levels that add blocks.
+     *
+     * @return the counter of the remaining blocks.
+     */
+    public Counter getBlocksCounter() {
+        return this.blocksCounter;
+    }
+
+    /**
+     * Returns the counter of the balls left in the game, for levels that add balls.
+     *
+     * @return the counter of the remaining balls.
+     */
+    public Counter getBallsCounter() {
+        return this.ballsCounter;
+    }
+
+    /**
+     * Returns the random number generator of the game, seeded for headless games.
+     *
+     * @return the random number generator.
+     */
+    public Random getRandom() {
+        return this.random;
+    }
+
+    /**
+     * Returns the number of blocks left in the game.
+     *
+     * @return the number of remaining blocks.
+     */
+    public int getRemainingBlocks() {
+        return this.blocksCounter.getValue();
+    }
+
+    /**
+     * Returns the number of balls left in the game.
+     *
+     * @return the number of remaining balls.
+     */
+    public int getRemainingBalls() {
+        return this.ballsCounter.getValue();
+    }
+
+    /**
+     * Ends the game at the end of this tick, without the bonus for clearing the blocks, as a level does once
+     * the blocks left can no longer be reached (see Game.LevelStreamer).
+     */
+    public void end() {
+        over = true;
+    }
+
+    /**
+     * Checks whether the game is over, because all the blocks or all the balls are gone. The counters are
+     * read at one instant when they can be (see Observers.Counter#snapshot), even while listeners on other
+     * threads update them.
+     * Clearing all the blocks is worth 100 points.
+     *
+     * @return true if the game is over, false otherwise.
+     */
+    private boolean isOver() {
+        if (!over && blocksCounter.snapshot() == 0) {
+            score.increase(100);
+            over = true;
+        } else if (ballsCounter.snapshot() == 0) {
+            over = true;
+        }
+        return over;
     }
 
     /**
@@ -189,6 +757,27 @@ public class Game {
      * @param s the sprite to be removed.
      */
     public void removeSprite(Sprite s) {
-        sprites.removeSprite(s);
+        if (!staticLayer.removeSprite(s)) {
+            sprites.removeSprite(s);
+        }
+    }
+
+    /**
+     * Adds a sprite that does not move to the static layer, which is drawn below all the other sprites
+     * and only redrawn when a sprite is added to or removed from it.
+     *
+     * @param s the sprite to be added.
+     */
+    public void addStaticSprite(Sprite s) {
+        staticLayer.addSprite(s);
+    }
+
+    /**
+     * Redraws the static sprites, as one of them changed how it looks.
+     *
+     * @param part a sprite that draws over the part of the static sprites that changed.
+     */
+    public void redrawStatic(Sprite part) {
+        staticLayer.redraw(part);
     }
 }
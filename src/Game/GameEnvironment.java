@@ -1,92 +1,314 @@
 //209852706 Maya Diamant
 package Game;
 
+import java.util.Arrays;
 import java.util.List;
 
 import Collidable.Collidable;
 import Collidable.CollisionInfo;
 import Geometry.Line;
-import Geometry.Rectangle;
 import Geometry.Point;
+import Geometry.Rectangle;
 
 /**
  * The Game.GameEnvironment class represents the environment in which the game objects interact.
- * It manages a collection of collidable objects.
+ * It manages a collection of collidable objects, split in two sets. The static collidables (the blocks),
+ * which never move, are indexed in a Game.CollisionIndex (a uniform grid by default) so that collision
+ * queries only test the static collidables near the trajectory. The few dynamic collidables (the paddle),
+ * which move every frame, are kept in a plain list and tested by every query, so moving them never touches
+ * the index. A query merges the closest hits of both sets.
+ * Queries only read the environment, so several threads may query it at once, each with its own
+ * Game.CollisionQuery, as long as nothing is added, removed or moved meanwhile.
+ * The environment records the changes made since a mark (see markChanges): the collidables moved or removed,
+ * and the bounds of the ones added or moved. A query made at the mark can then be checked on its own: its
+ * result still holds unless the collidable it hit has changed, or a collidable was put across its path.
  *
  * @author Maya Diamant usamaya@gmail.com
  * @version 1
  * @since 2024-07-04
  */
 public class GameEnvironment {
-    private final List<Collidable> collidables;
+    // The most changes recorded since a mark; beyond it, no query made at the mark is trusted any more
+    private static final int MAX_CHANGES = 32;
+    // Slack added around the path of a query, so a collidable that touches it (within the game precision) counts
+    private static final double PATH_PADDING = 1;
+
+    private final SlotList<Collidable> collidables;
+    private CollisionIndex index;
+    private final SlotList<Collidable> dynamicCollidables;
+    private final SlotList<TileField> tileFields;
+    private final ThreadLocal<CollisionQuery> lineQueries;
+    private final Collidable[] changedCollidables;
+    private final double[] changedBounds;
+    private int changes;
 
     /**
-     * Constructs a Game.GameEnvironment with the specified list of collidable objects.
+     * Constructs a Game.GameEnvironment with the specified list of static collidable objects,
+     * indexed in a uniform grid.
      *
      * @param collidableList The list of collidable objects.
      */
     public GameEnvironment(List<Collidable> collidableList) {
-        this.collidables = collidableList;
+        this(collidableList, new UniformGrid());
     }
 
     /**
-     * Adds the given collidable to the environment.
+     * Constructs a Game.GameEnvironment with the specified list of static collidable objects,
+     * indexed in the given collision backend.
+     *
+     * @param collidableList The list of collidable objects.
+     * @param index          The (empty) spatial index used to answer collision queries.
+     */
+    public GameEnvironment(List<Collidable> collidableList, CollisionIndex index) {
+        this.collidables = new SlotList<>();
+        this.collidables.addAll(collidableList);
+        this.index = index;
+        this.dynamicCollidables = new SlotList<>();
+        this.tileFields = new SlotList<>();
+        this.lineQueries = ThreadLocal.withInitial(CollisionQuery::new);
+        this.changedCollidables = new Collidable[MAX_CHANGES];
+        this.changedBounds = new double[4 * MAX_CHANGES];
+        this.changes = 0;
+        for (Collidable c : collidableList) {
+            index.insert(c);
+        }
+    }
+
+    /**
+     * Replaces the collision backend of the environment. The static collidables already in the environment are
+     * indexed in the new backend, which must be empty; the queries made before the change are not trusted.
+     *
+     * @param newIndex The (empty) spatial index used to answer collision queries from now on.
+     */
+    public void setIndex(CollisionIndex newIndex) {
+        for (int i = 0; i < collidables.size(); i++) {
+            Collidable c = collidables.get(i);
+            if (!dynamicCollidables.contains(c)) {
+                newIndex.insert(c);
+            }
+        }
+        this.index = newIndex;
+        changes = MAX_CHANGES + 1;
+    }
+
+    /**
+     * Adds the given static collidable to the environment. A static collidable is indexed once,
+     * and should not move afterwards.
      *
      * @param c The collidable object to be added.
      */
     public void addCollidable(Collidable c) {
         collidables.add(c);
+        index.insert(c);
+        recordChange(null, c.getCollisionRectangle());
     }
 
     /**
-     * Removes a collidable object from the environment.
+     * Adds the given dynamic collidable to the environment. A dynamic collidable is not indexed but tested
+     * by every query, so it may move every frame at no cost.
+     *
+     * @param c The collidable object to be added.
+     */
+    public void addDynamicCollidable(Collidable c) {
+        collidables.add(c);
+        dynamicCollidables.add(c);
+        recordChange(null, c.getCollisionRectangle());
+    }
+
+    /**
+     * Adds the given tile field to the environment. A tile field answers the queries for its tiles itself,
+     * and is tested by every query after the index.
+     *
+     * @param field The tile field to be added.
+     */
+    public void addTileField(TileField field) {
+        tileFields.add(field);
+        field.setEnvironment(this);
+        changes = MAX_CHANGES + 1;
+    }
+
+    /**
+     * Removes the given tile field from the environment.
+     *
+     * @param field The tile field to be removed.
+     */
+    public void removeTileField(TileField field) {
+        if (tileFields.remove(field)) {
+            field.setEnvironment(null);
+        }
+        changes = MAX_CHANGES + 1;
+    }
+
+    /**
+     * Records that a tile field of the environment moved, with all its tiles: too many paths changed to record
+     * them one by one, so no query made before stays valid.
+     */
+    void recordFieldMoved() {
+        changes = MAX_CHANGES + 1;
+    }
+
+    /**
+     * Removes a collidable object (static or dynamic) from the environment, in constant time apart from
+     * updating the index. The removal is immediate, even in the middle of a tick, so no ball can hit the
+     * collidable again.
      *
      * @param c the collidable object to be removed.
      */
     public void removeCollidable(Collidable c) {
         collidables.remove(c);
+        if (!dynamicCollidables.remove(c)) {
+            index.remove(c);
+        }
+        // Only a query that hit the removed collidable can change: any other hit was closer
+        recordChange(c, null);
     }
 
     /**
-     * Returns the list of collidable objects in the environment.
+     * Notifies the environment that the collision rectangle of a collidable object has changed.
+     * A dynamic collidable costs nothing to move; a static one is re-indexed.
+     *
+     * @param c the collidable object that has moved.
+     */
+    public void updateCollidable(Collidable c) {
+        if (!dynamicCollidables.contains(c)) {
+            index.update(c);
+        }
+        recordChange(c, c.getCollisionRectangle());
+    }
+
+    /**
+     * Records a change made to the environment since the mark.
+     *
+     * @param c      the collidable that was moved or removed, or null if a collidable was added.
+     * @param bounds the bounds of the collidable after the change, or null if it was removed.
+     */
+    void recordChange(Collidable c, Rectangle bounds) {
+        if (bounds == null) {
+            recordChange(c, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+        } else {
+            recordChange(c, bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+        }
+    }
+
+    /**
+     * Records a change made to the environment since the mark, without allocating.
+     *
+     * @param c    the collidable that was moved or removed, or null if a collidable was added.
+     * @param minX the smallest x-coordinate of the collidable after the change, or NaN if it was removed.
+     * @param minY the smallest y-coordinate of the collidable after the change, or NaN if it was removed.
+     * @param maxX the largest x-coordinate of the collidable after the change, or NaN if it was removed.
+     * @param maxY the largest y-coordinate of the collidable after the change, or NaN if it was removed.
+     */
+    void recordChange(Collidable c, double minX, double minY, double maxX, double maxY) {
+        if (changes < MAX_CHANGES) {
+            changedCollidables[changes] = c;
+            changedBounds[4 * changes] = minX;
+            changedBounds[4 * changes + 1] = minY;
+            changedBounds[4 * changes + 2] = maxX;
+            changedBounds[4 * changes + 3] = maxY;
+        }
+        if (changes <= MAX_CHANGES) {
+            changes++;
+        }
+    }
+
+    /**
+     * Forgets the changes recorded so far, and starts recording from now: the queries made from now on can be
+     * checked with isStillValid until the next mark.
+     */
+    public void markChanges() {
+        Arrays.fill(changedCollidables, 0, Math.min(changes, MAX_CHANGES), null);
+        changes = 0;
+    }
+
+    /**
+     * Checks whether a collision query made at the last mark (see markChanges) would still have the same result
+     * now: the collidable it hit, if any, was neither moved nor removed since, and no collidable was added or
+     * moved across the path of the moving circle up to the hit. Removing a collidable that was not hit cannot
+     * change the result, as the hit was closer.
+     *
+     * @param hit    the collidable the query hit, or null if it hit nothing.
+     * @param x0     the x-coordinate of the start of the path.
+     * @param y0     the y-coordinate of the start of the path.
+     * @param x1     the x-coordinate of the end of the path (the center of the circle at the hit, if any).
+     * @param y1     the y-coordinate of the end of the path.
+     * @param radius the radius of the moving circle, or 0 for a point.
+     * @return true if the result of the query still holds, false otherwise.
+     */
+    public boolean isStillValid(Collidable hit, double x0, double y0, double x1, double y1, double radius) {
+        if (changes > MAX_CHANGES) {
+            return false;
+        }
+        double pad = radius + PATH_PADDING;
+        double minX = Math.min(x0, x1) - pad;
+        double minY = Math.min(y0, y1) - pad;
+        double maxX = Math.max(x0, x1) + pad;
+        double maxY = Math.max(y0, y1) + pad;
+        for (int i = 0; i < changes; i++) {
+            if (hit != null && changedCollidables[i] == hit) {
+                return false;
+            }
+            // A removal has NaN bounds, which overlap nothing
+            if (changedBounds[4 * i] <= maxX && changedBounds[4 * i + 2] >= minX
+                    && changedBounds[4 * i + 1] <= maxY && changedBounds[4 * i + 3] >= minY) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the list of collidable objects in the environment, as a read-only view that follows the
+     * changes of the environment (add and remove them through the environment).
      *
      * @return The list of collidable objects.
      */
     public List<Collidable> getCollidables() {
-        return this.collidables;
+        return this.collidables.asList();
     }
 
     /**
      * Determines the closest collision that is going to occur for an object moving
      * along the specified trajectory. If no collision is detected, returns null.
      * Otherwise, returns the information about the closest collision.
+     * The query itself is reused (one per thread), so only a collision allocates, for its result.
      *
      * @param trajectory The trajectory of the moving object.
      * @return The information about the closest collision, or null if no collision occurs.
      */
     public CollisionInfo getClosestCollision(Line trajectory) {
-        Point closestPoint = null;
-        Collidable closestCollidable = null;
-        double closestDistance = Double.POSITIVE_INFINITY;
-        // Iterate through all collidables to find the closest collision point
-        for (Collidable collidable : collidables) {
-            Rectangle rectangle = collidable.getCollisionRectangle();
-            Point collisionPoint = trajectory.closestIntersectionToStartOfLine(rectangle);
-            if (collisionPoint != null) {
-                double distance = collisionPoint.distance(trajectory.start());
-                // Update the closest collision if this one is closer
-                if (distance < closestDistance) {
-                    closestDistance = distance;
-                    closestPoint = collisionPoint;
-                    closestCollidable = collidable;
-                }
-            }
-        }
-        // If no collidable was found, return null
-        if (closestCollidable == null) {
+        CollisionQuery query = lineQueries.get();
+        if (!getClosestCollision(trajectory.getStartX(), trajectory.getStartY(),
+                trajectory.getEndX() - trajectory.getStartX(), trajectory.getEndY() - trajectory.getStartY(), 0,
+                query)) {
             return null;
         }
-        // Return the information about the closest collision
-        return new CollisionInfo(closestPoint, closestCollidable);
+        return new CollisionInfo(new Point(query.getX(), query.getY()), query.getCollidable());
+    }
+
+    /**
+     * Determines the closest collision that is going to occur for a circle of the given radius whose
+     * center moves along the trajectory (x0, y0) + t * (dx, dy), 0 <= t <= 1, without allocating.
+     * The result holds the time of impact t and the point of the collidable that the circle touches.
+     *
+     * @param x0     The x-coordinate of the start of the trajectory.
+     * @param y0     The y-coordinate of the start of the trajectory.
+     * @param dx     The change in x along the trajectory.
+     * @param dy     The change in y along the trajectory.
+     * @param radius The radius of the moving circle, or 0 for a point.
+     * @param query  The reusable holder that receives the closest collision.
+     * @return true if a collision occurs (and query was filled), false otherwise.
+     */
+    public boolean getClosestCollision(double x0, double y0, double dx, double dy, double radius,
+                                       CollisionQuery query) {
+        query.clear();
+        boolean found = index.closestCollision(x0, y0, dx, dy, radius, query);
+        for (int i = 0; i < dynamicCollidables.size(); i++) {
+            found |= query.test(dynamicCollidables.get(i), x0, y0, dx, dy, radius);
+        }
+        for (int i = 0; i < tileFields.size(); i++) {
+            found |= tileFields.get(i).closestCollision(x0, y0, dx, dy, radius, query);
+        }
+        return found;
     }
 }
@@ -0,0 +1,157 @@
+//209852706 Maya Diamant
+package Game;
+
+import Engine.EntityLevel;
+import Observers.HitEventBus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The Game.GameOptions class reads the options of the game from the command line, wherever they appear
+ * among the arguments, and applies them to every game the program plays, windowed or headless:
+ * - "--tree": the static collidables are kept in a Game.AabbTree rather than in a uniform grid;
+ * - "--render-thread": the frames of the window are drawn on a render thread (see Game.Game#setRenderThread);
+ * - "--dirty-rects": only the changed regions of the frames are redrawn (see Game.Game#setDirtyRectangles);
+ * - "--entities": the built-in board is built from entities and systems (see Engine.EntityLevel);
+ * - "--tiles": the bricks of the built-in board are tiles of one tile field (see Game.TileLevel);
+ * - "--hit-bus": the hits are published to a hit-event bus and handled at the end of the tick
+ * (see Game.Game#setHitEventBus); every game gets a bus of its own;
+ * - "--level <file>": the board is read from a level file in the binary level format (see Game.BinaryLevel),
+ * loaded once for all the games.
+ * The arguments that are not options (the mode and its values) are kept in order for the mode to read.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class GameOptions {
+    // The number of hits the slow consumers of a hit-event bus may fall behind by
+    private static final int HIT_BUS_CAPACITY = 1024;
+
+    private final List<String> arguments;
+    private boolean tree;
+    private boolean renderThread;
+    private boolean dirtyRectangles;
+    private boolean entities;
+    private boolean tiles;
+    private boolean hitBus;
+    private Path levelFile;
+    private BinaryLevel fileLevel;
+
+    /**
+     * Constructs a Game.GameOptions from the command line arguments.
+     *
+     * @param args the command line arguments.
+     * @throws UncheckedIOException if the level file of "--level" cannot be loaded.
+     */
+    public GameOptions(String[] args) {
+        this.arguments = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ("--level".equals(arg) && i + 1 < args.length) {
+                levelFile = Path.of(args[++i]);
+            } else if ("--tree".equals(arg)) {
+                tree = true;
+            } else if ("--render-thread".equals(arg)) {
+                renderThread = true;
+            } else if ("--dirty-rects".equals(arg)) {
+                dirtyRectangles = true;
+            } else if ("--entities".equals(arg)) {
+                entities = true;
+            } else if ("--tiles".equals(arg)) {
+                tiles = true;
+            } else if ("--hit-bus".equals(arg)) {
+                hitBus = true;
+            } else {
+                arguments.add(arg);
+            }
+        }
+        if (levelFile != null) {
+            try {
+                fileLevel = BinaryLevel.load(levelFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException("cannot load the level " + levelFile, e);
+            }
+        }
+    }
+
+    /**
+     * Returns the arguments that are not options, in order.
+     *
+     * @return the remaining arguments.
+     */
+    public String[] getArguments() {
+        return arguments.toArray(new String[0]);
+    }
+
+    /**
+     * Applies the options to the given game, before its level is built.
+     *
+     * @param game the game.
+     */
+    public void configure(Game game) {
+        if (tree) {
+            game.setCollisionIndex(new AabbTree());
+        }
+        game.setRenderThread(renderThread);
+        game.setDirtyRectangles(dirtyRectangles);
+        if (hitBus) {
+            game.setHitEventBus(new HitEventBus(HIT_BUS_CAPACITY));
+        }
+    }
+
+    /**
+     * Returns the level the games are played with: the level file, the entity or the tile version of the
+     * built-in level, or the built-in level itself (in this order of precedence), built into a game that the
+     * options were applied to.
+     *
+     * @return the level.
+     */
+    public Level getLevel() {
+        Level level;
+        if (fileLevel != null) {
+            level = fileLevel;
+        } else if (entities) {
+            level = new EntityLevel();
+        } else if (tiles) {
+            level = new TileLevel();
+        } else {
+            level = Game::initialize;
+        }
+        return game -> {
+            configure(game);
+            level.build(game);
+        };
+    }
+
+    /**
+     * Describes the options, for the reports of the modes.
+     *
+     * @return the description of the options.
+     */
+    @Override
+    public String toString() {
+        StringBuilder description = new StringBuilder("collision index: ").append(tree ? "AABB tree" : "uniform grid");
+        if (renderThread) {
+            description.append(", frames drawn on a render thread");
+        }
+        if (dirtyRectangles) {
+            description.append(", dirty rectangles");
+        }
+        if (fileLevel != null) {
+            description.append(", level: ").append(levelFile);
+        } else if (entities) {
+            description.append(", level: entities");
+        } else if (tiles) {
+            description.append(", level: tiles");
+        }
+        if (hitBus) {
+            description.append(", hit-event bus");
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,98 @@
+//209852706 Maya Diamant
+package Game;
+
+/**
+ * The Game.GameResult class holds the outcome of one headless game: its seed, score, the number of ticks
+ * it ran, whether all the blocks were cleared, and how many balls were lost.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class GameResult {
+    private final long seed;
+    private final int score;
+    private final long ticks;
+    private final boolean cleared;
+    private final int ballsLost;
+    private final int blocksLeft;
+
+    /**
+     * Constructs a Game.GameResult.
+     *
+     * @param seed       the seed of the game.
+     * @param score      the final score.
+     * @param ticks      the number of ticks simulated.
+     * @param cleared    whether all the blocks were cleared.
+     * @param ballsLost  the number of balls lost.
+     * @param blocksLeft the number of blocks left.
+     */
+    public GameResult(long seed, int score, long ticks, boolean cleared, int ballsLost, int blocksLeft) {
+        this.seed = seed;
+        this.score = score;
+        this.ticks = ticks;
+        this.cleared = cleared;
+        this.ballsLost = ballsLost;
+        this.blocksLeft = blocksLeft;
+    }
+
+    /**
+     * Returns the seed of the game.
+     *
+     * @return the seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the final score of the game.
+     *
+     * @return the score.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Returns the number of ticks the game ran (the ticks to clear the level, if it was cleared).
+     *
+     * @return the number of ticks.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Returns whether all the blocks were cleared.
+     *
+     * @return true if the level was cleared, false otherwise.
+     */
+    public boolean isCleared() {
+        return cleared;
+    }
+
+    /**
+     * Returns the number of balls lost during the game.
+     *
+     * @return the number of balls lost.
+     */
+    public int getBallsLost() {
+        return ballsLost;
+    }
+
+    /**
+     * Returns the number of blocks left at the end of the game.
+     *
+     * @return the number of blocks left.
+     */
+    public int getBlocksLeft() {
+        return blocksLeft;
+    }
+
+    @Override
+    public String toString() {
+        return "seed " + seed + ": score " + score + ", ticks " + ticks + (cleared ? ", cleared" : "")
+                + ", balls lost " + ballsLost + ", blocks left " + blocksLeft;
+    }
+}
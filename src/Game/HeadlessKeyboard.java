@@ -0,0 +1,61 @@
+//209852706 Maya Diamant
+package Game;
+
+import biuoop.KeyboardSensor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The Game.HeadlessKeyboard class is a keyboard sensor without a keyboard, for games that run without a window.
+ * Keys are pressed and released by code (for example, by a script that plays the paddle), and nothing is
+ * pressed otherwise.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class HeadlessKeyboard implements KeyboardSensor {
+    // A short list rather than a hash set: only a couple of keys are ever pressed, and pressing one again
+    // after a release does not allocate
+    private final List<String> pressed;
+
+    /**
+     * Constructs a Game.HeadlessKeyboard with no key pressed.
+     */
+    public HeadlessKeyboard() {
+        this.pressed = new ArrayList<>(2);
+    }
+
+    /**
+     * Presses the given key, until it is released.
+     *
+     * @param key the key, one of the KeyboardSensor key constants.
+     */
+    public void press(String key) {
+        if (!pressed.contains(key)) {
+            pressed.add(key);
+        }
+    }
+
+    /**
+     * Releases the given key.
+     *
+     * @param key the key, one of the KeyboardSensor key constants.
+     */
+    public void release(String key) {
+        pressed.remove(key);
+    }
+
+    /**
+     * Releases every key.
+     */
+    public void releaseAll() {
+        pressed.clear();
+    }
+
+    @Override
+    public boolean isPressed(String key) {
+        return pressed.contains(key);
+    }
+}
@@ -0,0 +1,68 @@
+//209852706 Maya Diamant
+package Game;
+
+import Collidable.Collidable;
+import Geometry.Rectangle;
+import Movement.BallSystem;
+import biuoop.KeyboardSensor;
+
+/**
+ * The Game.InputPolicy interface represents the player of a headless game: before every tick,
+ * it decides which keys are pressed on the keyboard of the game.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public interface InputPolicy {
+
+    /**
+     * Presses and releases keys before the given tick of the game.
+     *
+     * @param game     the game being played.
+     * @param keyboard the keyboard of the game.
+     * @param tick     the number of ticks simulated so far.
+     */
+    void beforeTick(Game game, HeadlessKeyboard keyboard, long tick);
+
+    /**
+     * Returns a policy that never presses a key.
+     *
+     * @return the idle policy.
+     */
+    static InputPolicy idle() {
+        return (game, keyboard, tick) -> {
+        };
+    }
+
+    /**
+     * Returns a policy that keeps the center of the paddle under the lowest ball.
+     *
+     * @return the ball following policy.
+     */
+    static InputPolicy followLowestBall() {
+        return (game, keyboard, tick) -> {
+            keyboard.releaseAll();
+            Collidable paddle = game.getPaddle();
+            BallSystem balls = game.getBallSystem();
+            if (paddle == null || balls.size() == 0) {
+                return;
+            }
+            double targetX = balls.getBall(0).getCenterX();
+            double lowestY = balls.getBall(0).getCenterY();
+            for (int i = 1; i < balls.size(); i++) {
+                if (balls.getBall(i).getCenterY() > lowestY) {
+                    lowestY = balls.getBall(i).getCenterY();
+                    targetX = balls.getBall(i).getCenterX();
+                }
+            }
+            Rectangle area = paddle.getCollisionRectangle();
+            double paddleX = (area.getMinX() + area.getMaxX()) / 2;
+            if (targetX < paddleX - area.getWidth() / 4) {
+                keyboard.press(KeyboardSensor.LEFT_KEY);
+            } else if (targetX > paddleX + area.getWidth() / 4) {
+                keyboard.press(KeyboardSensor.RIGHT_KEY);
+            }
+        };
+    }
+}
@@ -0,0 +1,20 @@
+//209852706 Maya Diamant
+package Game;
+
+/**
+ * The Game.Level interface represents a level: the blocks, paddle, balls and listeners that a game starts with.
+ * The built-in level is Game.Game#initialize.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public interface Level {
+
+    /**
+     * Adds the objects of the level to the given (empty) game.
+     *
+     * @param game the game to build the level in.
+     */
+    void build(Game game);
+}
@@ -0,0 +1,124 @@
+//209852706 Maya Diamant
+package Game;
+
+import Geometry.Point;
+import Geometry.Rectangle;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The Game.LevelBenchmark class writes a level file in the binary level format (see Game.BinaryLevel) and times
+ * loading it and building a game from it. The level is the built-in board, or, given a number of blocks, a grid
+ * of that many bricks of whole pixels, as square as they can be, above the paddle. Every round loads the file
+ * anew and builds a new headless game from it; the best round is reported.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class LevelBenchmark {
+    // The number of rounds that only warm the JVM up, before the measured rounds
+    private static final int WARMUP_ROUNDS = 3;
+    // The number of measured rounds; the best round is reported
+    private static final int ROUNDS = 5;
+    // The bottom of the area of the bricks of a grid, well above the balls and the paddle
+    private static final int GRID_BOTTOM = 400;
+
+    private final Path file;
+    private final int blocks;
+    private int written;
+    private long fileSize;
+    private double loadMillis;
+    private double buildMillis;
+
+    /**
+     * Constructs a Game.LevelBenchmark.
+     *
+     * @param file   the level file to write.
+     * @param blocks the number of bricks of the grid, or 0 for the built-in board.
+     */
+    public LevelBenchmark(Path file, int blocks) {
+        this.file = file;
+        this.blocks = blocks;
+    }
+
+    /**
+     * Writes the level file, then loads it and builds a game from it in every round, timing both.
+     *
+     * @throws IOException if the file cannot be written or read.
+     */
+    public void run() throws IOException {
+        BinaryLevelWriter writer = blocks > 0 ? writeGrid() : writeBoard();
+        writer.writeTo(file);
+        fileSize = Files.size(file);
+        loadMillis = Double.MAX_VALUE;
+        buildMillis = Double.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            long start = System.nanoTime();
+            BinaryLevel level = BinaryLevel.load(file);
+            long middle = System.nanoTime();
+            Game game = Game.createHeadless(new HeadlessKeyboard(), round);
+            level.build(game);
+            long end = System.nanoTime();
+            game.shutdown();
+            if (round >= WARMUP_ROUNDS) {
+                loadMillis = Math.min(loadMillis, (middle - start) / 1e6);
+                buildMillis = Math.min(buildMillis, (end - middle) / 1e6);
+            }
+        }
+    }
+
+    /**
+     * Collects the built-in board: the rows of bricks of Game.Game#initialize, on its background.
+     *
+     * @return the writer holding the board.
+     */
+    private BinaryLevelWriter writeBoard() {
+        BinaryLevelWriter writer = new BinaryLevelWriter(Board.WIDTH, Board.HEIGHT);
+        writer.setBackground(Board.BACKGROUND);
+        writer.setBalls(Board.BALLS);
+        for (int row = 0; row < Board.ROWS; row++) {
+            for (int j = Board.getBlocksInRow(row); j > 0; j--) {
+                writer.addBlock(Board.getBlockArea(row, j), Board.getRowColor(row), 1, BinaryLevel.PROFILE_BRICK);
+                written++;
+            }
+        }
+        return writer;
+    }
+
+    /**
+     * Collects a grid of the given number of bricks (at most one per pixel of its area), row by row between the
+     * side edges, with the colors of the rows of the built-in board.
+     *
+     * @return the writer holding the grid.
+     */
+    private BinaryLevelWriter writeGrid() {
+        BinaryLevelWriter writer = new BinaryLevelWriter(Board.WIDTH, Board.HEIGHT);
+        writer.setBackground(Board.BACKGROUND);
+        writer.setBalls(Board.BALLS);
+        int width = Board.WIDTH - 2 * Board.EDGE;
+        int height = GRID_BOTTOM - Board.EDGE;
+        int size = Math.max(1, (int) Math.sqrt((double) width * height / blocks));
+        while (size > 1 && (long) (width / size) * (height / size) < blocks) {
+            size--;
+        }
+        int columns = width / size;
+        int count = (int) Math.min(blocks, (long) columns * (height / size));
+        for (int i = 0; i < count; i++) {
+            int row = i / columns;
+            writer.addBlock(new Rectangle(new Point(Board.EDGE + (i % columns) * size, Board.EDGE + row * size),
+                    size, size), Board.getRowColor(row % Board.ROWS), 1, BinaryLevel.PROFILE_BRICK);
+        }
+        written = count;
+        return writer;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("level file: %s, blocks: %d, bytes: %d%n"
+                        + "load: %.3f ms, build: %.3f ms (best of %d rounds)",
+                file, written, fileSize, loadMillis, buildMillis, ROUNDS);
+    }
+}
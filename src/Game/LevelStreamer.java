@@ -0,0 +1,276 @@
+//209852706 Maya Diamant
+package Game;
+
+import Sprites.Sprite;
+import biuoop.DrawSurface;
+
+import java.util.AbstractMap;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.DoubleSupplier;
+
+/**
+ * The Game.LevelStreamer class plays a level much taller than the window by streaming it in chunks
+ * (see Game.ChunkSource), so only the chunks near the play area are in the game at any time.
+ * Every tick the streamer compares the chunks with the focus, the y-coordinate of the level shown at the top of
+ * the screen: the camera of the level. The chunks are built at their place in the level and are kept in the
+ * game moved up by the focus, so the part of the level at the focus is at the top of the screen, and the chunks
+ * in the game move down as the camera climbs, within reach of the balls. Chunks that come within the load
+ * distance of the focus are built
+ * on a loader thread; the built chunks are added to the game on the thread of the game, at the start of a tick,
+ * as the environment may only change between queries. Chunks that fall beyond the evict distance are removed
+ * from the game with their tiles, and are not loaded again: a chunk left behind is done.
+ * The number of chunks in the game is bounded by the evict distance, however long the level is; if the play
+ * area outruns the loader, the chunks it leaves behind before they are built are skipped rather than built,
+ * and the chunks it moves past within one tick are skipped without being requested.
+ * The bricks of the chunks in the game are counted as blocks of the game, and one more block stands for the
+ * chunks the camera has not passed yet, so the game is not cleared before every chunk is passed: added to
+ * the game, or skipped. The bricks left in an evicted chunk stay counted, as they were never broken; once every
+ * chunk has been passed and evicted with bricks left, the level can no longer be cleared, and the game ends
+ * without the bonus. The loader thread is stopped when the game shuts down.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class LevelStreamer implements Sprite {
+    private final Game game;
+    private final ChunkSource source;
+    private final DoubleSupplier focus;
+    private final double loadDistance;
+    private final double evictDistance;
+    private final Map<Integer, TileField> loaded;
+    private final BitSet reached;
+    private final BlockingQueue<Integer> requests;
+    private final Queue<Map.Entry<Integer, TileField>> built;
+    private final Thread loader;
+    private volatile double lastFocus;
+    private double previousFocus;
+    private double camera;
+    private int passed;
+    private int evicted;
+    private int strandedBricks;
+
+    /**
+     * Constructs a Game.LevelStreamer of the given level. The streamer starts streaming once added to the game.
+     *
+     * @param game          the game the level is played in.
+     * @param source        the chunks of the level.
+     * @param focus         the y-coordinate of the level at the top of the screen, read every tick.
+     * @param loadDistance  the distance from the focus within which chunks are loaded.
+     * @param evictDistance the distance from the focus beyond which chunks are evicted; larger than the load
+     *                      distance, so a chunk on the edge is not loaded and evicted over and over.
+     */
+    public LevelStreamer(Game game, ChunkSource source, DoubleSupplier focus, double loadDistance,
+                         double evictDistance) {
+        this.game = game;
+        this.source = source;
+        this.focus = focus;
+        this.loadDistance = loadDistance;
+        this.evictDistance = Math.max(loadDistance, evictDistance);
+        this.loaded = new HashMap<>();
+        this.reached = new BitSet(source.getChunkCount());
+        this.requests = new LinkedBlockingQueue<>();
+        this.built = new ConcurrentLinkedQueue<>();
+        this.loader = new Thread(this::load, "Arkanoid level loader");
+        this.loader.setDaemon(true);
+        this.previousFocus = Double.NaN;
+    }
+
+    /**
+     * Builds the requested chunks, one after the other, until the loader thread is interrupted.
+     * A chunk the camera has already left behind (when the game outruns the loader) is not built.
+     */
+    private void load() {
+        try {
+            while (true) {
+                int index = requests.take();
+                TileField field = distance(lastFocus, index) > evictDistance ? null : source.loadChunk(index);
+                built.add(new AbstractMap.SimpleImmutableEntry<>(index, field));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the distance between the given y-coordinate and a chunk.
+     *
+     * @param y     the y-coordinate.
+     * @param index the index of the chunk.
+     * @return the distance, or 0 if the y-coordinate is within the chunk.
+     */
+    private double distance(double y, int index) {
+        return distance(y, y, index);
+    }
+
+    /**
+     * Returns the distance between the given range of y-coordinates and a chunk.
+     *
+     * @param fromY the smallest y-coordinate of the range.
+     * @param toY   the largest y-coordinate of the range.
+     * @param index the index of the chunk.
+     * @return the distance, or 0 if the range and the chunk overlap.
+     */
+    private double distance(double fromY, double toY, int index) {
+        double chunkTop = source.getTop() + index * source.getChunkHeight();
+        return Math.max(0, Math.max(chunkTop - toY, fromY - (chunkTop + source.getChunkHeight())));
+    }
+
+    /**
+     * Moves the chunks in the game with the camera, adds the chunks built since the last tick, evicts the chunks
+     * beyond the evict distance, and requests the chunks within the load distance. The chunks that came within
+     * the load distance of the focus only on its way from where it was on the last tick, and are beyond it
+     * already, are skipped. The streamer should be added to the game before the balls, so the chunks move before
+     * the balls do.
+     */
+    @Override
+    public void timePassed() {
+        double y = focus.getAsDouble();
+        lastFocus = y;
+        if (y != camera) {
+            for (TileField field : loaded.values()) {
+                game.redrawStatic(field);
+                field.moveDown(camera - y);
+                game.redrawStatic(field);
+            }
+            camera = y;
+        }
+        for (Map.Entry<Integer, TileField> chunk = built.poll(); chunk != null; chunk = built.poll()) {
+            install(chunk.getKey(), chunk.getValue(), y);
+        }
+        Iterator<Map.Entry<Integer, TileField>> chunks = loaded.entrySet().iterator();
+        while (chunks.hasNext()) {
+            Map.Entry<Integer, TileField> chunk = chunks.next();
+            if (distance(y, chunk.getKey()) > evictDistance) {
+                evict(chunk.getValue());
+                chunks.remove();
+            }
+        }
+        double fromY = Double.isNaN(previousFocus) ? y : Math.min(previousFocus, y);
+        double toY = Double.isNaN(previousFocus) ? y : Math.max(previousFocus, y);
+        previousFocus = y;
+        double height = source.getChunkHeight();
+        int first = (int) Math.max(0, Math.floor((fromY - loadDistance - source.getTop()) / height));
+        int last = (int) Math.min(source.getChunkCount() - 1,
+                Math.floor((toY + loadDistance - source.getTop()) / height));
+        for (int index = reached.nextClearBit(first); index <= last; index = reached.nextClearBit(index + 1)) {
+            if (distance(y, index) <= loadDistance) {
+                reached.set(index);
+                requests.add(index);
+            } else if (distance(fromY, toY, index) <= loadDistance) {
+                // The focus went past the chunk within this tick
+                reached.set(index);
+                evicted++;
+                pass();
+            }
+        }
+        if (strandedBricks > 0 && passed == source.getChunkCount() && loaded.isEmpty()) {
+            game.end();
+        }
+    }
+
+    /**
+     * Counts a chunk as passed, and once every chunk is, releases the block standing for the chunks not
+     * passed yet.
+     */
+    private void pass() {
+        passed++;
+        if (passed == source.getChunkCount()) {
+            game.getBlocksCounter().decrease(1);
+        }
+    }
+
+    /**
+     * Adds a built chunk to the game, unless the camera has moved away from it meanwhile.
+     *
+     * @param index the index of the chunk.
+     * @param field the tile field of the chunk, or null if it was left behind before it was built.
+     * @param y     the y-coordinate of the camera.
+     */
+    private void install(int index, TileField field, double y) {
+        if (field == null || distance(y, index) > evictDistance) {
+            evicted++;
+            pass();
+            return;
+        }
+        field.moveDown(-camera);
+        field.setHitEventBus(game.getHitEventBus());
+        field.addToGame(game);
+        game.getBlocksCounter().increase(field.getTileCount());
+        loaded.put(index, field);
+        pass();
+    }
+
+    /**
+     * Removes a chunk from the game, with the bricks that are left in it, which stay counted as blocks.
+     *
+     * @param field the tile field of the chunk.
+     */
+    private void evict(TileField field) {
+        field.removeFromGame(game);
+        strandedBricks += field.getTileCount();
+        evicted++;
+    }
+
+    /**
+     * Stops the loader thread. The chunks in the game stay in it. Called by the game when it shuts down.
+     */
+    public void shutdown() {
+        loader.interrupt();
+    }
+
+    /**
+     * Returns the number of chunks in the game.
+     *
+     * @return the number of loaded chunks.
+     */
+    public int getLoadedChunks() {
+        return loaded.size();
+    }
+
+    /**
+     * Returns the number of chunks requested but not added to the game yet.
+     *
+     * @return the number of chunks on their way to the game.
+     */
+    public int getPendingChunks() {
+        return reached.cardinality() - passed;
+    }
+
+    /**
+     * Returns the number of chunks that have been evicted, were built too late to be added, or were skipped.
+     *
+     * @return the number of evicted chunks.
+     */
+    public int getEvictedChunks() {
+        return this.evicted;
+    }
+
+    /**
+     * Returns the number of bricks that were left in the chunks when they were evicted.
+     *
+     * @return the number of bricks left behind.
+     */
+    public int getStrandedBricks() {
+        return this.strandedBricks;
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+    }
+
+    @Override
+    public void addToGame(Game game) {
+        game.addSprite(this);
+        game.getBlocksCounter().increase(1);
+        game.addShutdownTask(this::shutdown);
+        loader.start();
+    }
+}
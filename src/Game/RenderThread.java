@@ -0,0 +1,149 @@
+//209852706 Maya Diamant
+package Game;
+
+import biuoop.DrawSurface;
+import biuoop.GUI;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The Game.RenderThread class draws the frames recorded by the simulation on a thread of its own,
+ * so that drawing and showing a frame overlap with the simulation of the next ticks.
+ * The simulation thread records every frame into its own Game.FrameSnapshot and publishes it; the render thread
+ * draws the latest published snapshot at a steady frame rate. There are three snapshots, one being recorded,
+ * one being drawn and the latest published one, so neither thread ever waits for the other: the only shared
+ * state is the exchange of the latest snapshot, under a lock held for a few instructions.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class RenderThread extends Thread {
+    private final GUI gui;
+    private final long nanosPerFrame;
+    private final Object exchangeLock;
+    private FrameSnapshot recording;
+    private FrameSnapshot latest;
+    private FrameSnapshot drawing;
+    private volatile boolean running;
+    private long framesDrawn;
+    private long repeatedFrames;
+
+    /**
+     * Constructs a Game.RenderThread that draws on the given GUI.
+     *
+     * @param gui             the GUI to draw on.
+     * @param framesPerSecond the number of frames drawn per second.
+     */
+    public RenderThread(GUI gui, int framesPerSecond) {
+        super("Arkanoid renderer");
+        this.gui = gui;
+        this.nanosPerFrame = 1_000_000_000L / framesPerSecond;
+        this.exchangeLock = new Object();
+        DrawSurface surface = gui.getDrawSurface();
+        this.recording = new FrameSnapshot(surface.getWidth(), surface.getHeight());
+        this.latest = new FrameSnapshot(surface.getWidth(), surface.getHeight());
+        this.drawing = new FrameSnapshot(surface.getWidth(), surface.getHeight());
+        this.running = true;
+        setDaemon(true);
+    }
+
+    /**
+     * Returns the snapshot the simulation thread records the next frame into.
+     * It belongs to the simulation thread until it is published.
+     *
+     * @return the snapshot to record into.
+     */
+    public FrameSnapshot getRecording() {
+        return this.recording;
+    }
+
+    /**
+     * Publishes the recorded snapshot as the latest frame, and hands the simulation thread another snapshot
+     * to record the next frame into (returned, and from now on returned by getRecording()).
+     *
+     * @return the snapshot to record the next frame into.
+     */
+    public FrameSnapshot publish() {
+        synchronized (exchangeLock) {
+            FrameSnapshot published = recording;
+            recording = latest;
+            latest = published;
+        }
+        return this.recording;
+    }
+
+    /**
+     * Takes the latest published snapshot for drawing, if it is newer than the one being drawn.
+     *
+     * @return the snapshot to draw.
+     */
+    private FrameSnapshot takeLatest() {
+        synchronized (exchangeLock) {
+            if (latest.getTick() > drawing.getTick()) {
+                FrameSnapshot taken = latest;
+                latest = drawing;
+                drawing = taken;
+            }
+            return drawing;
+        }
+    }
+
+    /**
+     * Returns the number of frames drawn so far. Read once the thread has finished.
+     *
+     * @return the number of frames drawn.
+     */
+    public long getFramesDrawn() {
+        return this.framesDrawn;
+    }
+
+    /**
+     * Returns the number of frames drawn again with the tick of the frame before, as the simulation had not
+     * published a newer one. Read once the thread has finished.
+     *
+     * @return the number of repeated frames.
+     */
+    public long getRepeatedFrames() {
+        return this.repeatedFrames;
+    }
+
+    /**
+     * Stops drawing frames, and waits for the frame being drawn to be shown.
+     */
+    public void finish() {
+        running = false;
+        try {
+            join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        long nextFrame = System.nanoTime();
+        long shownTick = -1;
+        while (running) {
+            FrameSnapshot frame = takeLatest();
+            if (frame.getTick() >= 0) {
+                DrawSurface d = gui.getDrawSurface();
+                frame.replay(d);
+                gui.show(d);
+                framesDrawn++;
+                if (frame.getTick() == shownTick) {
+                    repeatedFrames++;
+                }
+                shownTick = frame.getTick();
+            }
+            // Frames are paced against a fixed schedule, so a slow frame does not shift the following ones
+            nextFrame += nanosPerFrame;
+            long now = System.nanoTime();
+            if (nextFrame - now > 0) {
+                LockSupport.parkNanos(nextFrame - now);
+            } else if (now - nextFrame > nanosPerFrame * 2) {
+                nextFrame = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+//209852706 Maya Diamant
+package Game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Game.SlotList class is a set of objects, kept in slots, that adds, finds and removes an object in constant
+ * time. Every object occupies a slot of an array, and its slot is remembered by identity. Removing an object
+ * moves the last object into its slot (swap-remove), so removal does not keep the order of the remaining
+ * objects: only the objects before the removed one keep their place.
+ * As it does not keep the order, and holds an object once, it is not a java.util.List; asList gives a
+ * read-only view of the slots to code that reads a list.
+ *
+ * @param <T> the type of the objects.
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class SlotList<T> implements Iterable<T> {
+    private final List<T> items;
+    private final List<T> view;
+    private final Map<T, Integer> slots;
+
+    /**
+     * Constructs an empty Game.SlotList.
+     */
+    public SlotList() {
+        this.items = new ArrayList<>();
+        this.view = Collections.unmodifiableList(items);
+        this.slots = new IdentityHashMap<>();
+    }
+
+    /**
+     * Returns the object in the given slot.
+     *
+     * @param slot the slot, from 0 to size() - 1.
+     * @return the object in the slot.
+     */
+    public T get(int slot) {
+        return items.get(slot);
+    }
+
+    /**
+     * Returns the number of objects in the list.
+     *
+     * @return the number of objects.
+     */
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Adds an object to the last slot of the list, if it is not in the list already.
+     *
+     * @param t the object to add.
+     * @return true if the object was added, false if it was in the list already.
+     */
+    public boolean add(T t) {
+        if (slots.containsKey(t)) {
+            return false;
+        }
+        slots.put(t, items.size());
+        items.add(t);
+        return true;
+    }
+
+    /**
+     * Adds the given objects in order, each to the last slot, skipping those in the list already.
+     *
+     * @param objects the objects to add.
+     */
+    public void addAll(Iterable<? extends T> objects) {
+        for (T t : objects) {
+            add(t);
+        }
+    }
+
+    /**
+     * Removes an object from the list, moving the last object into its slot.
+     *
+     * @param o the object to remove.
+     * @return true if the object was in the list, false otherwise.
+     */
+    public boolean remove(Object o) {
+        Integer slot = slots.remove(o);
+        if (slot == null) {
+            return false;
+        }
+        T last = items.remove(items.size() - 1);
+        if (slot < items.size()) {
+            items.set(slot, last);
+            slots.put(last, slot);
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the given object is in the list.
+     *
+     * @param o the object.
+     * @return true if the object is in the list, false otherwise.
+     */
+    public boolean contains(Object o) {
+        return slots.containsKey(o);
+    }
+
+    /**
+     * Returns the slot of the given object.
+     *
+     * @param o the object.
+     * @return the slot of the object, or -1 if it is not in the list.
+     */
+    public int indexOf(Object o) {
+        Integer slot = slots.get(o);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Removes every object from the list.
+     */
+    public void clear() {
+        items.clear();
+        slots.clear();
+    }
+
+    /**
+     * Returns a read-only view of the slots, in slot order, which follows the changes of the list.
+     *
+     * @return the view of the list.
+     */
+    public List<T> asList() {
+        return this.view;
+    }
+
+    /**
+     * Returns an iterator over the objects in slot order, which cannot remove them.
+     *
+     * @return the iterator.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return view.iterator();
+    }
+}
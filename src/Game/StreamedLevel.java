@@ -0,0 +1,164 @@
+//209852706 Maya Diamant
+package Game;
+
+import Collidable.Block;
+import Collidable.CollisionLayers;
+import Movement.Paddle;
+import Movement.Velocity;
+import Observers.BallRemover;
+import Observers.BlockRemover;
+import Observers.ListenerSet;
+import Observers.ScoreTrackingListener;
+import Sprites.ScoreIndicator;
+
+/**
+ * The Game.StreamedLevel class is a marathon level: a tower of chunks of bricks far taller than the window,
+ * streamed by a Game.LevelStreamer, of which it is the source. The board (edges, paddle and balls) is the
+ * built-in one (see Game.Board); the tower stands on the first row of the board, and the camera climbs it at a
+ * fixed speed, from the bottom chunk up, so the tower scrolls down through the board: the chunks above come
+ * within the load distance and onto the screen, and the chunks below are evicted before they scroll down to the
+ * balls and the paddle. Every chunk
+ * is a tile field of rows of bricks, in a pattern that shifts from chunk to chunk, colored like the rows of the
+ * board. The level is cleared once the camera has passed the top chunk and every brick has been broken; if
+ * bricks were evicted unbroken, the game ends without the bonus once the last chunk is evicted.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class StreamedLevel implements Level, ChunkSource {
+    // The number of rows of bricks in a chunk
+    private static final int CHUNK_ROWS = 10;
+    // The number of columns of bricks, between the left and right edges
+    private static final int COLUMNS = (Board.WIDTH - 2 * Board.EDGE) / Board.BLOCK_WIDTH;
+    // The lowest the bricks scroll down to, well above the balls and the paddle
+    private static final double BRICKS_BOTTOM = 450;
+    // The distance from the camera within which chunks are loaded: a chunk is built while it is above the screen
+    private static final double LOAD_DISTANCE = CHUNK_ROWS * Board.BLOCK_HEIGHT;
+    // The distance below the camera beyond which chunks are evicted, before they scroll past the lowest bricks
+    private static final double EVICT_DISTANCE = BRICKS_BOTTOM - CHUNK_ROWS * Board.BLOCK_HEIGHT;
+
+    private final int chunks;
+    private final double climbSpeed;
+    private ListenerSet brickListeners;
+    private LevelStreamer streamer;
+    private double focus;
+
+    /**
+     * Constructs a Game.StreamedLevel.
+     *
+     * @param chunks     the number of chunks of the tower.
+     * @param climbSpeed the distance the camera climbs every tick.
+     */
+    public StreamedLevel(int chunks, double climbSpeed) {
+        this.chunks = chunks;
+        this.climbSpeed = climbSpeed;
+    }
+
+    @Override
+    public void build(Game game) {
+        game.addStaticSprite(new Block(Board.getScreen(), Board.BACKGROUND));
+        BlockRemover remove = new BlockRemover(game, game.getBlocksCounter());
+        BallRemover ballsRemove = new BallRemover(game.getBallsCounter(), game);
+        ScoreTrackingListener scores = new ScoreTrackingListener(game.getScoreCounter());
+        new ScoreIndicator(game.getScoreCounter()).addToGame(game);
+        // The listeners are made before the loader thread starts, which builds the chunks with them
+        brickListeners = ListenerSet.of(remove, scores);
+        // Pre-seeds the transition cache of the shared set (the set a brick moves to once its remover leaves)
+        // on this thread, before the loader thread starts sharing the set, so the first brick broken does not
+        // allocate it during the game
+        brickListeners.without(remove);
+
+        // Create and add the edges to the game
+        Block bottomEdge = new Block(Board.getBottomEdge(), Board.EDGE_COLOR);
+        bottomEdge.setCategory(CollisionLayers.EDGE);
+        bottomEdge.setHitListeners(ListenerSet.of(ballsRemove));
+        bottomEdge.setHitEventBus(game.getHitEventBus());
+        bottomEdge.addToGame(game);
+        for (Block edge : new Block[] {new Block(Board.getTopEdge(), Board.EDGE_COLOR),
+                new Block(Board.getLeftEdge(), Board.EDGE_COLOR), new Block(Board.getRightEdge(), Board.EDGE_COLOR)}) {
+            edge.setCategory(CollisionLayers.EDGE);
+            edge.addToGame(game);
+        }
+
+        // Create and add the streamer, which starts with the camera at the top of the board, showing the bottom
+        // chunk of the tower on the first row; it is added before the balls, so the chunks move before them
+        focus = 0;
+        streamer = new LevelStreamer(game, this, this::climb, LOAD_DISTANCE, EVICT_DISTANCE);
+        streamer.addToGame(game);
+
+        // Create and add the paddle to the game
+        Paddle paddle = new Paddle(game.getKeyboard(), Board.getPaddleArea(), Board.PADDLE_COLOR, Board.WIDTH,
+                Board.PADDLE_SPEED);
+        paddle.addToGame(game);
+        game.setPaddle(paddle);
+
+        // Create and add the balls to the game
+        game.getBallSystem().addToGame(game);
+        for (int i = 0; i < Board.BALLS; i++) {
+            Velocity v = Velocity.fromAngleAndSpeed(game.getRandom().nextInt(360), Board.BALL_SPEED);
+            if (game.spawnBall(Board.BALL_X, Board.BALL_Y, Board.BALL_RADIUS, Board.BACKGROUND, v.getDx(), v.getDy())
+                    != null) {
+                game.getBallsCounter().increase(1);
+            }
+        }
+    }
+
+    /**
+     * Returns the y-coordinate of the level at the top of the screen, and moves the camera up by the climb speed
+     * for the next tick. The streamer reads the focus once every tick, so the camera climbs once every tick.
+     *
+     * @return the y-coordinate of the camera.
+     */
+    private double climb() {
+        double y = focus;
+        focus -= climbSpeed;
+        return y;
+    }
+
+    /**
+     * Returns the streamer of the level, once the level is built.
+     *
+     * @return the streamer of the level.
+     */
+    public LevelStreamer getStreamer() {
+        return this.streamer;
+    }
+
+    @Override
+    public int getChunkCount() {
+        return this.chunks;
+    }
+
+    @Override
+    public double getChunkHeight() {
+        return CHUNK_ROWS * Board.BLOCK_HEIGHT;
+    }
+
+    @Override
+    public double getTop() {
+        // The bottom chunk of the tower starts at the first row of the board
+        return Board.FIRST_ROW_TOP - (chunks - 1) * getChunkHeight();
+    }
+
+    @Override
+    public TileField loadChunk(int index) {
+        TileField field = new TileField(Board.EDGE, getTop() + index * getChunkHeight(), Board.BLOCK_WIDTH,
+                Board.BLOCK_HEIGHT, COLUMNS, CHUNK_ROWS);
+        for (int row = 0; row < Board.ROWS; row++) {
+            field.defineTile(row + 1, Board.getRowColor(row), brickListeners);
+        }
+        for (int row = 0; row < CHUNK_ROWS; row++) {
+            // Every fourth row is left empty, and every third brick of a row, shifted from row to row
+            if (row % 4 == 3) {
+                continue;
+            }
+            for (int column = 0; column < COLUMNS; column++) {
+                if ((row + column + index) % 3 != 0) {
+                    field.setTile(column, row, 1 + (row + index) % Board.ROWS);
+                }
+            }
+        }
+        return field;
+    }
+}
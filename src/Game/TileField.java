@@ -0,0 +1,467 @@
+//209852706 Maya Diamant
+package Game;
+
+import Collidable.Block;
+import Collidable.CollisionLayers;
+import Geometry.Rectangle;
+import Geometry.SegmentHit;
+import Observers.HitEventBus;
+import Observers.ListenerSet;
+import Sprites.Sprite;
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * The Game.TileField class is a field of bricks on a regular grid, stored as one byte per tile: the ID of the
+ * tile, or 0 for an empty tile. Every ID is defined once, with the color and the listeners of its tiles, so a
+ * brick costs one byte rather than a Collidable.Block object with its own rectangle.
+ * The field answers the collision queries of the Game.GameEnvironment itself: it walks the cells the trajectory
+ * passes through, in order (the grid traversal of Amanatides and Woo), testing the tiles within the radius of
+ * the moving circle around each cell, and stops as soon as the closest hit lies before the next cell. A query
+ * costs the cells crossed, whatever the number of tiles.
+ * The hits are still reported per tile, through a Collidable.Block that stands for the tile: it has the area,
+ * the color and the listeners of the tile, and removing it from the game empties the tile. The block of a tile
+ * is made the first time a query reports the tile, and kept until the tile changes, in an array with a slot per
+ * tile. Queries may run on several threads at once, so a block is put in its slot by a compare-and-set: the
+ * threads agree on the block of a tile without taking a lock.
+ * The field is drawn in the static layer, which redraws the tiles that are emptied. A field may be moved up or
+ * down as a whole (for example, by a scrolling level), between the ticks.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class TileField implements Sprite {
+    // The number of tile IDs, as a tile is stored in one byte
+    private static final int TILE_IDS = 256;
+    // Reads and compare-and-sets the slots of the array of blocks
+    private static final VarHandle BLOCK_SLOTS = MethodHandles.arrayElementVarHandle(Block[].class);
+
+    private final double left;
+    private double top;
+    private final double tileWidth;
+    private final double tileHeight;
+    private final int columns;
+    private final int rows;
+    private final byte[] tiles;
+    private final Color[] colors;
+    private final ListenerSet[] listeners;
+    private final Block[] blocks;
+    private HitEventBus hitEvents;
+    private GameEnvironment environment;
+    private int tileCount;
+
+    /**
+     * Constructs an empty Game.TileField.
+     *
+     * @param left       the x-coordinate of the left side of the field.
+     * @param top        the y-coordinate of the top side of the field.
+     * @param tileWidth  the width of a tile.
+     * @param tileHeight the height of a tile.
+     * @param columns    the number of columns of tiles.
+     * @param rows       the number of rows of tiles.
+     */
+    public TileField(double left, double top, double tileWidth, double tileHeight, int columns, int rows) {
+        this.left = left;
+        this.top = top;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.columns = columns;
+        this.rows = rows;
+        this.tiles = new byte[columns * rows];
+        this.colors = new Color[TILE_IDS];
+        this.listeners = new ListenerSet[TILE_IDS];
+        this.blocks = new Block[columns * rows];
+        this.tileCount = 0;
+    }
+
+    /**
+     * Defines a tile ID: the color and the listeners of the tiles with that ID.
+     *
+     * @param id        the tile ID, between 1 and 255.
+     * @param color     the color of the tiles.
+     * @param listeners the listeners notified when a tile is hit (for example, a remover and a score tracker).
+     */
+    public void defineTile(int id, Color color, ListenerSet listeners) {
+        colors[id] = color;
+        this.listeners[id] = listeners;
+    }
+
+    /**
+     * Sets the tile in the given column and row.
+     *
+     * @param column the column of the tile.
+     * @param row    the row of the tile.
+     * @param id     the ID of the tile, which must be defined, or 0 to empty the tile.
+     */
+    public void setTile(int column, int row, int id) {
+        int index = row * columns + column;
+        int old = tiles[index] & 0xFF;
+        if (old == id) {
+            return;
+        }
+        tileCount += (id != 0 ? 1 : 0) - (old != 0 ? 1 : 0);
+        tiles[index] = (byte) id;
+        forget(index);
+    }
+
+    /**
+     * Returns the ID of the tile in the given column and row.
+     *
+     * @param column the column of the tile.
+     * @param row    the row of the tile.
+     * @return the ID of the tile, or 0 if it is empty.
+     */
+    public int getTile(int column, int row) {
+        return tiles[row * columns + column] & 0xFF;
+    }
+
+    /**
+     * Returns the number of tiles that are not empty.
+     *
+     * @return the number of tiles.
+     */
+    public int getTileCount() {
+        return this.tileCount;
+    }
+
+    /**
+     * Publishes the hits of the tiles to the given bus (see Collidable.Block#setHitEventBus).
+     *
+     * @param bus the hit-event bus, or null to notify the listeners at once.
+     */
+    public void setHitEventBus(HitEventBus bus) {
+        this.hitEvents = bus;
+        for (Block block : blocks) {
+            if (block != null) {
+                block.setHitEventBus(bus);
+            }
+        }
+    }
+
+    /**
+     * Moves the field down by the given distance (up, if it is negative), with all its tiles. The blocks of the
+     * tiles are dropped, to be made anew at the new place when the tiles are next reported, so hits published
+     * before the move are no longer delivered; the field should be moved between the ticks, or before the balls
+     * move in a tick. The static layer is not told: the caller redraws where the field was and where it is.
+     *
+     * @param distance the distance to move the field down by.
+     */
+    public void moveDown(double distance) {
+        top += distance;
+        // No query runs while the field moves, and the queries of the next tick start after it
+        Arrays.fill(blocks, null);
+        if (environment != null) {
+            environment.recordFieldMoved();
+        }
+    }
+
+    /**
+     * Returns the y-coordinate of the top side of the field.
+     *
+     * @return the top of the field.
+     */
+    public double getTop() {
+        return this.top;
+    }
+
+    /**
+     * Sets the environment the field is in, which records the changes of the tiles.
+     *
+     * @param gameEnvironment the environment, or null if the field left it.
+     */
+    void setEnvironment(GameEnvironment gameEnvironment) {
+        this.environment = gameEnvironment;
+    }
+
+    /**
+     * Drops the block that stands for the tile of the given index, as the tile changed, and tells the environment:
+     * the block is gone, and a tile that is not empty now stands across the paths through it.
+     *
+     * @param index the index of the tile.
+     */
+    private void forget(int index) {
+        Block old = (Block) BLOCK_SLOTS.getAndSet(blocks, index, (Block) null);
+        if (environment == null) {
+            return;
+        }
+        if (old != null) {
+            environment.recordChange(old, null);
+        }
+        if (tiles[index] != 0) {
+            double minX = left + (index % columns) * tileWidth;
+            double minY = top + (index / columns) * tileHeight;
+            environment.recordChange(null, minX, minY, minX + tileWidth, minY + tileHeight);
+        }
+    }
+
+    /**
+     * Returns the block that stands for the tile of the given index, making it if the tile has none yet.
+     * Queries may run on several threads at once: two of them may make a block for the same tile, and the one
+     * that loses the compare-and-set takes the block of the other, so the tile has a single block.
+     *
+     * @param index the index of the (non-empty) tile.
+     * @return the block of the tile.
+     */
+    private Block blockOf(int index) {
+        Block block = (Block) BLOCK_SLOTS.getAcquire(blocks, index);
+        if (block != null) {
+            return block;
+        }
+        int id = tiles[index] & 0xFF;
+        Rectangle area = new Rectangle(left + (index % columns) * tileWidth,
+                top + (index / columns) * tileHeight, tileWidth, tileHeight);
+        block = new TileBlock(area, colors[id], index);
+        block.setHitListeners(listeners[id]);
+        block.setHitEventBus(hitEvents);
+        Block made = (Block) BLOCK_SLOTS.compareAndExchange(blocks, index, (Block) null, block);
+        return made != null ? made : block;
+    }
+
+    /**
+     * Finds the closest collision of a circle of the given radius whose center moves along the trajectory
+     * (x0, y0) + t * (dx, dy), 0 <= t <= 1, with the tiles of the field, as a Game.CollisionIndex does.
+     * Nothing is allocated, apart from the block of a tile that is reported for the first time.
+     *
+     * @param x0     the x-coordinate of the start of the trajectory.
+     * @param y0     the y-coordinate of the start of the trajectory.
+     * @param dx     the change in x along the trajectory.
+     * @param dy     the change in y along the trajectory.
+     * @param radius the radius of the moving circle, or 0 for a segment.
+     * @param query  the holder that receives the closest collision.
+     * @return true if a closer collision was recorded in the query, false otherwise.
+     */
+    boolean closestCollision(double x0, double y0, double dx, double dy, double radius, CollisionQuery query) {
+        if (tileCount == 0 || !query.accepts(CollisionLayers.BLOCK, CollisionLayers.ALL)) {
+            return false;
+        }
+        // The cells around the cell of the center that the circle may reach
+        int reachX = (int) Math.ceil(radius / tileWidth);
+        int reachY = (int) Math.ceil(radius / tileHeight);
+        // Clip the trajectory to the field, grown by the reach, where the center can be while touching a tile
+        double minX = left - reachX * tileWidth;
+        double minY = top - reachY * tileHeight;
+        double maxX = left + (columns + reachX) * tileWidth;
+        double maxY = top + (rows + reachY) * tileHeight;
+        double tStart = 0;
+        double tEnd = 1;
+        if (dx != 0) {
+            double t1 = (minX - x0) / dx;
+            double t2 = (maxX - x0) / dx;
+            tStart = Math.max(tStart, Math.min(t1, t2));
+            tEnd = Math.min(tEnd, Math.max(t1, t2));
+        } else if (x0 < minX || x0 > maxX) {
+            return false;
+        }
+        if (dy != 0) {
+            double t1 = (minY - y0) / dy;
+            double t2 = (maxY - y0) / dy;
+            tStart = Math.max(tStart, Math.min(t1, t2));
+            tEnd = Math.min(tEnd, Math.max(t1, t2));
+        } else if (y0 < minY || y0 > maxY) {
+            return false;
+        }
+        if (tStart > tEnd) {
+            return false;
+        }
+        int column = cellOf(x0 + tStart * dx - left, tileWidth, -reachX, columns + reachX - 1);
+        int row = cellOf(y0 + tStart * dy - top, tileHeight, -reachY, rows + reachY - 1);
+        int stepX = dx > 0 ? 1 : (dx < 0 ? -1 : 0);
+        int stepY = dy > 0 ? 1 : (dy < 0 ? -1 : 0);
+        // The trajectory parameter at which the center crosses into the next column (row), and per column (row)
+        double tNextX = stepX == 0 ? Double.POSITIVE_INFINITY
+                : (left + (column + (stepX > 0 ? 1 : 0)) * tileWidth - x0) / dx;
+        double tNextY = stepY == 0 ? Double.POSITIVE_INFINITY
+                : (top + (row + (stepY > 0 ? 1 : 0)) * tileHeight - y0) / dy;
+        double tDeltaX = stepX == 0 ? Double.POSITIVE_INFINITY : tileWidth / Math.abs(dx);
+        double tDeltaY = stepY == 0 ? Double.POSITIVE_INFINITY : tileHeight / Math.abs(dy);
+        boolean found = false;
+        while (true) {
+            found |= testAround(column, row, reachX, reachY, x0, y0, dx, dy, radius, query);
+            double tNext = Math.min(tNextX, tNextY);
+            // A tile hit later than the next cell is entered would be found around a later cell
+            if (tNext > tEnd || query.getT() <= tNext) {
+                return found;
+            }
+            if (tNextX < tNextY) {
+                column += stepX;
+                tNextX += tDeltaX;
+            } else {
+                row += stepY;
+                tNextY += tDeltaY;
+            }
+            if (column < -reachX || column >= columns + reachX || row < -reachY || row >= rows + reachY) {
+                return found;
+            }
+        }
+    }
+
+    /**
+     * Returns the cell of the given offset from the side of the field, clamped to the given range.
+     *
+     * @param offset the offset from the left (top) side of the field.
+     * @param size   the width (height) of a tile.
+     * @param min    the smallest cell.
+     * @param max    the largest cell.
+     * @return the cell of the offset.
+     */
+    private static int cellOf(double offset, double size, int min, int max) {
+        return (int) Math.max(min, Math.min(max, Math.floor(offset / size)));
+    }
+
+    /**
+     * Tests the tiles within the given reach of a cell, and records the closest hit in the query.
+     *
+     * @param column the column of the cell.
+     * @param row    the row of the cell.
+     * @param reachX the number of columns around the cell to test.
+     * @param reachY the number of rows around the cell to test.
+     * @param x0     the x-coordinate of the start of the trajectory.
+     * @param y0     the y-coordinate of the start of the trajectory.
+     * @param dx     the change in x along the trajectory.
+     * @param dy     the change in y along the trajectory.
+     * @param radius the radius of the moving circle, or 0 for a segment.
+     * @param query  the holder that receives the closest collision.
+     * @return true if a closer collision was recorded in the query, false otherwise.
+     */
+    private boolean testAround(int column, int row, int reachX, int reachY, double x0, double y0, double dx,
+                               double dy, double radius, CollisionQuery query) {
+        SegmentHit hit = query.getSegmentHit();
+        boolean found = false;
+        int toRow = Math.min(rows - 1, row + reachY);
+        int toColumn = Math.min(columns - 1, column + reachX);
+        for (int r = Math.max(0, row - reachY); r <= toRow; r++) {
+            for (int c = Math.max(0, column - reachX); c <= toColumn; c++) {
+                int index = r * columns + c;
+                if (tiles[index] == 0) {
+                    continue;
+                }
+                double minX = left + c * tileWidth;
+                double minY = top + r * tileHeight;
+                boolean hits = radius == 0
+                        ? Rectangle.intersectSegment(minX, minY, minX + tileWidth, minY + tileHeight,
+                        x0, y0, dx, dy, hit)
+                        : Rectangle.intersectSweptCircle(minX, minY, minX + tileWidth, minY + tileHeight,
+                        x0, y0, dx, dy, radius, hit);
+                if (hits && hit.getT() < query.getT()) {
+                    found |= query.offer(blockOf(index), hit);
+                }
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+        drawTiles(d, 0, 0, columns - 1, rows - 1);
+    }
+
+    /**
+     * Draws only the tiles that overlap the given region, so drawing a damaged part of the static layer again
+     * does not walk every tile of the field.
+     *
+     * @param d      the drawing surface, clipped to the region.
+     * @param region the region of the surface to draw in.
+     */
+    @Override
+    public void drawOn(DrawSurface d, java.awt.Rectangle region) {
+        // The outline of a tile reaches one pixel past its size, so the region is widened by a pixel
+        int fromColumn = Math.max(0, (int) Math.floor((region.x - 1 - left) / tileWidth));
+        int toColumn = Math.min(columns - 1, (int) Math.floor((region.x + region.width - left) / tileWidth));
+        int fromRow = Math.max(0, (int) Math.floor((region.y - 1 - top) / tileHeight));
+        int toRow = Math.min(rows - 1, (int) Math.floor((region.y + region.height - top) / tileHeight));
+        drawTiles(d, fromColumn, fromRow, toColumn, toRow);
+    }
+
+    /**
+     * Draws the non-empty tiles of the given range of columns and rows.
+     *
+     * @param d          the drawing surface.
+     * @param fromColumn the first column (inclusive).
+     * @param fromRow    the first row (inclusive).
+     * @param toColumn   the last column (inclusive).
+     * @param toRow      the last row (inclusive).
+     */
+    private void drawTiles(DrawSurface d, int fromColumn, int fromRow, int toColumn, int toRow) {
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int column = fromColumn; column <= toColumn; column++) {
+                int id = tiles[row * columns + column] & 0xFF;
+                if (id == 0) {
+                    continue;
+                }
+                int x = (int) (left + column * tileWidth);
+                int y = (int) (top + row * tileHeight);
+                d.setColor(colors[id]);
+                d.fillRectangle(x, y, (int) tileWidth, (int) tileHeight);
+                d.setColor(Color.black);
+                d.drawRectangle(x, y, (int) tileWidth, (int) tileHeight);
+            }
+        }
+    }
+
+    @Override
+    public void timePassed() {
+    }
+
+    @Override
+    public void addToGame(Game game) {
+        game.addStaticSprite(this);
+        game.addTileField(this);
+    }
+
+    /**
+     * Removes this field, with all its tiles, from the given game.
+     *
+     * @param game the game from which the field is to be removed.
+     */
+    public void removeFromGame(Game game) {
+        game.removeSprite(this);
+        game.removeTileField(this);
+    }
+
+    /**
+     * The TileField.TileBlock class is the block that stands for a tile in the hits of the tile.
+     * Removing it from the game empties the tile.
+     */
+    private final class TileBlock extends Block {
+        private final int index;
+
+        /**
+         * Constructs the block of the tile of the given index.
+         *
+         * @param area  the area of the tile.
+         * @param color the color of the tile.
+         * @param index the index of the tile.
+         */
+        TileBlock(Rectangle area, Color color, int index) {
+            super(area, color);
+            this.index = index;
+        }
+
+        @Override
+        public void addToGame(Game game) {
+        }
+
+        @Override
+        public void removeFromGame(Game game) {
+            // The tile may have changed since this block was made for it
+            if (isRemoved()) {
+                return;
+            }
+            tiles[index] = 0;
+            tileCount--;
+            forget(index);
+            game.redrawStatic(this);
+        }
+
+        @Override
+        public boolean isRemoved() {
+            // A tile emptied (or refilled) since this block was made for it no longer has this block
+            return BLOCK_SLOTS.getAcquire(blocks, index) != this;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+//209852706 Maya Diamant
+package Game;
+
+import Collidable.Block;
+import Collidable.CollisionLayers;
+import Geometry.Rectangle;
+import Movement.Paddle;
+import Movement.Velocity;
+import Observers.BallRemover;
+import Observers.BlockRemover;
+import Observers.ListenerSet;
+import Observers.ScoreTrackingListener;
+import Sprites.ScoreIndicator;
+
+/**
+ * The Game.TileLevel class is the built-in board (see Game.Board) with its bricks in one Game.TileField rather
+ * than in a Collidable.Block each. The field spans the first row, aligned to the right edge, and row r of the
+ * field holds the bricks of row r of the board: the columns from r to the last, with the color of the row.
+ * All the tiles share the listeners of the bricks of Game.Game#initialize, and everything else (the background,
+ * the paddle, the edges and the balls) is made and added in the same order, so a game of this level plays as a
+ * game of the built-in one.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class TileLevel implements Level {
+
+    @Override
+    public void build(Game game) {
+        // Create and add the screen background block
+        game.addStaticSprite(new Block(Board.getScreen(), Board.BACKGROUND));
+        BlockRemover remove = new BlockRemover(game, game.getBlocksCounter());
+        BallRemover ballsRemove = new BallRemover(game.getBallsCounter(), game);
+        ScoreTrackingListener scores = new ScoreTrackingListener(game.getScoreCounter());
+        new ScoreIndicator(game.getScoreCounter()).addToGame(game);
+
+        // Create the tile field of the bricks; every row is a tile ID of its own, and all share one set of listeners
+        ListenerSet brickListeners = ListenerSet.of(remove, scores);
+        // The set a tile moves to once its remover leaves is made now, as in Game.Game#initialize
+        brickListeners.without(remove);
+        int columns = Board.FIRST_ROW_BLOCKS;
+        TileField field = new TileField(Board.WIDTH - Board.EDGE - Board.BLOCK_WIDTH * columns, Board.FIRST_ROW_TOP,
+                Board.BLOCK_WIDTH, Board.BLOCK_HEIGHT, columns, Board.ROWS);
+        for (int row = 0; row < Board.ROWS; row++) {
+            field.defineTile(row + 1, Board.getRowColor(row), brickListeners);
+            for (int column = columns - Board.getBlocksInRow(row); column < columns; column++) {
+                field.setTile(column, row, row + 1);
+                game.getBlocksCounter().increase(1);
+            }
+        }
+        field.setHitEventBus(game.getHitEventBus());
+        field.addToGame(game);
+
+        // Create and add the paddle to the game
+        Paddle paddle = new Paddle(game.getKeyboard(), Board.getPaddleArea(), Board.PADDLE_COLOR, Board.WIDTH,
+                Board.PADDLE_SPEED);
+        paddle.addToGame(game);
+        game.setPaddle(paddle);
+
+        // Create and add the edges to the game
+        Block bottom = edge(Board.getBottomEdge());
+        bottom.addToGame(game);
+        bottom.addHitListener(ballsRemove);
+        bottom.setHitEventBus(game.getHitEventBus());
+        edge(Board.getTopEdge()).addToGame(game);
+        edge(Board.getLeftEdge()).addToGame(game);
+        edge(Board.getRightEdge()).addToGame(game);
+
+        // Create and add balls to the game
+        game.getBallSystem().addToGame(game);
+        for (int i = 0; i < Board.BALLS; i++) {
+            Velocity v = Velocity.fromAngleAndSpeed(game.getRandom().nextInt(360), Board.BALL_SPEED);
+            if (game.spawnBall(Board.BALL_X, Board.BALL_Y, Board.BALL_RADIUS, Board.BACKGROUND, v.getDx(), v.getDy())
+                    != null) {
+                game.getBallsCounter().increase(1);
+            }
+        }
+    }
+
+    /**
+     * Makes an edge of the board, as a block of the edge category.
+     *
+     * @param area the area of the edge.
+     * @return the edge.
+     */
+    private static Block edge(Rectangle area) {
+        Block edge = new Block(area, Board.EDGE_COLOR);
+        edge.setCategory(CollisionLayers.EDGE);
+        return edge;
+    }
+}
@@ -0,0 +1,264 @@
+//209852706 Maya Diamant
+package Game;
+
+import Collidable.Collidable;
+import Geometry.Rectangle;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Game.UniformGrid class is a spatial index that buckets collidables into square cells.
+ * A trajectory query walks only the cells the trajectory passes through (in order from its start),
+ * together with the cells within the radius of the moving circle, and stops as soon as the closest collision
+ * found so far lies before the next unvisited cell.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class UniformGrid implements CollisionIndex {
+    // The default side length of a cell, matching the width of a standard brick
+    public static final double DEFAULT_CELL_SIZE = 40;
+    // Slack added around every rectangle, so touching points (within the game precision) are never missed
+    private static final double PADDING = 1e-5;
+
+    private final double cellSize;
+    private final Map<Collidable, int[]> cellRanges;
+    private List<Collidable>[] cells;
+    private int originX;
+    private int originY;
+    private int columns;
+    private int rows;
+
+    /**
+     * Constructs an empty Game.UniformGrid with the given cell size.
+     *
+     * @param cellSize the side length of every cell.
+     */
+    public UniformGrid(double cellSize) {
+        this.cellSize = cellSize;
+        this.cellRanges = new IdentityHashMap<>();
+        this.cells = newCells(0);
+        this.originX = 0;
+        this.originY = 0;
+        this.columns = 0;
+        this.rows = 0;
+    }
+
+    /**
+     * Constructs an empty Game.UniformGrid with the default cell size.
+     */
+    public UniformGrid() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Adds the given collidable to every cell its collision rectangle overlaps.
+     *
+     * @param c the collidable to index.
+     */
+    @Override
+    public void insert(Collidable c) {
+        if (cellRanges.containsKey(c)) {
+            return;
+        }
+        int[] range = rangeOf(c.getCollisionRectangle());
+        ensureCovers(range);
+        for (int cy = range[1]; cy <= range[3]; cy++) {
+            for (int cx = range[0]; cx <= range[2]; cx++) {
+                int index = indexOf(cx, cy);
+                if (cells[index] == null) {
+                    cells[index] = new ArrayList<>();
+                }
+                cells[index].add(c);
+            }
+        }
+        cellRanges.put(c, range);
+    }
+
+    /**
+     * Removes the given collidable from every cell it was indexed in.
+     *
+     * @param c the collidable to remove.
+     */
+    @Override
+    public void remove(Collidable c) {
+        int[] range = cellRanges.remove(c);
+        if (range == null) {
+            return;
+        }
+        for (int cy = range[1]; cy <= range[3]; cy++) {
+            for (int cx = range[0]; cx <= range[2]; cx++) {
+                List<Collidable> cell = cells[indexOf(cx, cy)];
+                if (cell != null) {
+                    cell.remove(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Re-indexes the given collidable after its collision rectangle has changed.
+     *
+     * @param c the collidable whose rectangle has changed.
+     */
+    @Override
+    public void update(Collidable c) {
+        int[] range = cellRanges.get(c);
+        if (range != null && isRangeOf(range, c.getCollisionRectangle())) {
+            return;
+        }
+        remove(c);
+        insert(c);
+    }
+
+    @Override
+    public boolean closestCollision(double x0, double y0, double dx, double dy, double radius,
+                                    CollisionQuery query) {
+        // A circle centered in a cell can touch rectangles up to this many cells away
+        int reach = (int) Math.ceil(radius / cellSize);
+        int cx = cellOf(x0);
+        int cy = cellOf(y0);
+        int endCx = cellOf(x0 + dx);
+        int endCy = cellOf(y0 + dy);
+        int stepX = dx > 0 ? 1 : (dx < 0 ? -1 : 0);
+        int stepY = dy > 0 ? 1 : (dy < 0 ? -1 : 0);
+        // The trajectory parameter (0 at the start, 1 at the end) at which the next cell border is crossed
+        double tMaxX = stepX == 0 ? Double.POSITIVE_INFINITY
+                : ((stepX > 0 ? cx + 1 : cx) * cellSize - x0) / dx;
+        double tMaxY = stepY == 0 ? Double.POSITIVE_INFINITY
+                : ((stepY > 0 ? cy + 1 : cy) * cellSize - y0) / dy;
+        double tDeltaX = stepX == 0 ? Double.POSITIVE_INFINITY : cellSize / Math.abs(dx);
+        double tDeltaY = stepY == 0 ? Double.POSITIVE_INFINITY : cellSize / Math.abs(dy);
+
+        boolean found = false;
+        while (true) {
+            for (int ny = cy - reach; ny <= cy + reach; ny++) {
+                for (int nx = cx - reach; nx <= cx + reach; nx++) {
+                    List<Collidable> cell = cellAt(nx, ny);
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < cell.size(); i++) {
+                        if (query.test(cell.get(i), x0, y0, dx, dy, radius)) {
+                            found = true;
+                        }
+                    }
+                }
+            }
+            double tExit = Math.min(tMaxX, tMaxY);
+            // Every unvisited cell lies beyond tExit, so a closer hit cannot be found there
+            if (query.getT() <= tExit || tExit > 1 || (cx == endCx && cy == endCy)) {
+                break;
+            }
+            if (tMaxX < tMaxY) {
+                cx += stepX;
+                tMaxX += tDeltaX;
+            } else {
+                cy += stepY;
+                tMaxY += tDeltaY;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the cell coordinate that contains the given world coordinate.
+     *
+     * @param coordinate the world coordinate.
+     * @return the index of the cell along the same axis.
+     */
+    private int cellOf(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    /**
+     * Returns the inclusive cell range {minX, minY, maxX, maxY} overlapped by the given rectangle.
+     *
+     * @param rect the rectangle.
+     * @return the cell range of the rectangle.
+     */
+    private int[] rangeOf(Rectangle rect) {
+        return new int[]{cellOf(rect.getMinX() - PADDING), cellOf(rect.getMinY() - PADDING),
+                cellOf(rect.getMaxX() + PADDING), cellOf(rect.getMaxY() + PADDING)};
+    }
+
+    /**
+     * Checks whether the given range of cells is still the range the given rectangle overlaps, without
+     * allocating, so a collidable that moves within its cells is not re-indexed.
+     *
+     * @param range the range of cells, as returned by rangeOf.
+     * @param rect  the rectangle.
+     * @return true if the rectangle overlaps exactly the cells of the range, false otherwise.
+     */
+    private boolean isRangeOf(int[] range, Rectangle rect) {
+        return range[0] == cellOf(rect.getMinX() - PADDING) && range[1] == cellOf(rect.getMinY() - PADDING)
+                && range[2] == cellOf(rect.getMaxX() + PADDING) && range[3] == cellOf(rect.getMaxY() + PADDING);
+    }
+
+    /**
+     * Returns the bucket of the given cell, or null if the cell is outside the grid or empty.
+     *
+     * @param cx the column of the cell.
+     * @param cy the row of the cell.
+     * @return the collidables in the cell, or null.
+     */
+    private List<Collidable> cellAt(int cx, int cy) {
+        if (cx < originX || cy < originY || cx >= originX + columns || cy >= originY + rows) {
+            return null;
+        }
+        return cells[indexOf(cx, cy)];
+    }
+
+    /**
+     * Returns the position of the given cell in the cell array.
+     *
+     * @param cx the column of the cell.
+     * @param cy the row of the cell.
+     * @return the index of the cell.
+     */
+    private int indexOf(int cx, int cy) {
+        return (cy - originY) * columns + (cx - originX);
+    }
+
+    /**
+     * Grows the grid so it covers the given cell range, moving the existing buckets over.
+     *
+     * @param range the cell range {minX, minY, maxX, maxY} that must be covered.
+     */
+    private void ensureCovers(int[] range) {
+        if (columns > 0 && range[0] >= originX && range[1] >= originY
+                && range[2] < originX + columns && range[3] < originY + rows) {
+            return;
+        }
+        int newOriginX = columns == 0 ? range[0] : Math.min(originX, range[0]);
+        int newOriginY = rows == 0 ? range[1] : Math.min(originY, range[1]);
+        int newColumns = (columns == 0 ? range[2] : Math.max(originX + columns - 1, range[2])) - newOriginX + 1;
+        int newRows = (rows == 0 ? range[3] : Math.max(originY + rows - 1, range[3])) - newOriginY + 1;
+        List<Collidable>[] newCells = newCells(newColumns * newRows);
+        for (int cy = originY; cy < originY + rows; cy++) {
+            for (int cx = originX; cx < originX + columns; cx++) {
+                newCells[(cy - newOriginY) * newColumns + (cx - newOriginX)] = cells[indexOf(cx, cy)];
+            }
+        }
+        this.cells = newCells;
+        this.originX = newOriginX;
+        this.originY = newOriginY;
+        this.columns = newColumns;
+        this.rows = newRows;
+    }
+
+    /**
+     * Creates an empty array of cell buckets.
+     *
+     * @param size the number of cells.
+     * @return the new array.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<Collidable>[] newCells(int size) {
+        return (List<Collidable>[]) new List[size];
+    }
+}
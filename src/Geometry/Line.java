@@ -3,8 +3,6 @@ package Geometry;
 
 import Game.Methods;
 
-import java.util.List;
-
 /**
  * The gui.Sprite.Geometry.Line class represents a line segment defined by two points.
  * It provides methods to calculate properties such as length, middle point,
@@ -15,6 +13,8 @@ import java.util.List;
  * @since 2024-07-04
  */
 public class Line {
+    // The hit of closestIntersectionToStartOfLine, reused by every call of a thread
+    private static final ThreadLocal<SegmentHit> HITS = ThreadLocal.withInitial(SegmentHit::new);
     private final Point start;
     private final Point end;
 
@@ -83,6 +83,42 @@ public class Line {
         return new Point(this.end.getX(), this.end.getY());
     }
 
+    /**
+     * Returns the x-coordinate of the start point, without allocating.
+     *
+     * @return the x-coordinate of the start point
+     */
+    public double getStartX() {
+        return this.start.getX();
+    }
+
+    /**
+     * Returns the y-coordinate of the start point, without allocating.
+     *
+     * @return the y-coordinate of the start point
+     */
+    public double getStartY() {
+        return this.start.getY();
+    }
+
+    /**
+     * Returns the x-coordinate of the end point, without allocating.
+     *
+     * @return the x-coordinate of the end point
+     */
+    public double getEndX() {
+        return this.end.getX();
+    }
+
+    /**
+     * Returns the y-coordinate of the end point, without allocating.
+     *
+     * @return the y-coordinate of the end point
+     */
+    public double getEndY() {
+        return this.end.getY();
+    }
+
     /**
      * Returns the slope of the line segment.
      *
@@ -110,8 +146,8 @@ public class Line {
         }
         double maxX1 = Math.max(this.start.getX(), this.end.getX());
         double minX1 = Math.min(this.end.getX(), this.start.getX());
-        double maxX2 = Math.max(other.start().getX(), other.end().getX());
-        double minX2 = Math.min(other.start().getX(), other.end().getX());
+        double maxX2 = Math.max(other.start.getX(), other.end.getX());
+        double minX2 = Math.min(other.start.getX(), other.end.getX());
         double xPoint = p.getX();
         return Methods.areDoublesBigEqual(xPoint, minX1) && Methods.areDoublesSmallEqual(xPoint, maxX1)
                 && Methods.areDoublesBigEqual(xPoint, minX2) && Methods.areDoublesSmallEqual(xPoint, maxX2);
@@ -207,21 +243,35 @@ public class Line {
      * @return true if the point is on the line, false otherwise
      */
     public boolean pointOnLine(Point p) {
-        double maxX1 = Math.max(this.start.getX(), this.end.getX());
-        double minX1 = Math.min(this.end.getX(), this.start.getX());
-        double maxY1 = Math.max(this.end.getY(), this.start.getY());
-        double minY1 = Math.min(this.end.getY(), this.start.getY());
-        double xPoint = p.getX();
-        double yPoint = p.getY();
-        double slope = this.getSlope();
-        if (slope == Double.POSITIVE_INFINITY) {
-            if (Methods.areDoublesEqual(xPoint, this.end().getX())) {
+        return pointOnSegment(start.getX(), start.getY(), end.getX(), end.getY(), p.getX(), p.getY());
+    }
+
+    /**
+     * Checks if a point is on the line segment with the given ends, as pointOnLine does, without allocating.
+     *
+     * @param startX the x-coordinate of the start of the segment.
+     * @param startY the y-coordinate of the start of the segment.
+     * @param endX   the x-coordinate of the end of the segment.
+     * @param endY   the y-coordinate of the end of the segment.
+     * @param xPoint the x-coordinate of the point.
+     * @param yPoint the y-coordinate of the point.
+     * @return true if the point is on the segment, false otherwise.
+     */
+    public static boolean pointOnSegment(double startX, double startY, double endX, double endY,
+                                         double xPoint, double yPoint) {
+        double maxX1 = Math.max(startX, endX);
+        double minX1 = Math.min(endX, startX);
+        double maxY1 = Math.max(endY, startY);
+        double minY1 = Math.min(endY, startY);
+        if (Methods.areDoublesEqual(endX, startX)) {
+            if (Methods.areDoublesEqual(xPoint, endX)) {
                 return Methods.areDoublesSmallEqual(yPoint, maxY1)
                         && Methods.areDoublesBigEqual(yPoint, minY1);
             }
             return false;
         }
-        double b1 = this.start.getY() - slope * this.start.getX();
+        double slope = (endY - startY) / (endX - startX);
+        double b1 = startY - slope * startX;
         double checkY = slope * xPoint + b1;
         if (Methods.areDoublesBigEqual(xPoint, minX1) && Methods.areDoublesSmallEqual(xPoint, maxX1)
                 && Methods.areDoublesSmallEqual(yPoint, maxY1) && Methods.areDoublesBigEqual(yPoint, minY1)) {
@@ -435,32 +485,19 @@ public class Line {
     /**
      * Finds the closest intersection point between the start of this line and a given rectangle.
      * If no intersection is found, returns null.
+     * The intersection is computed by the slab method of Geometry.Rectangle#intersectSegment, into a hit that
+     * is reused (one per thread), so only an intersection that is found allocates, for its point.
      *
      * @param rect The rectangle to check for intersections with this line.
      * @return The closest intersection point to the start of the line, or null if no intersection is found.
      */
     public Point closestIntersectionToStartOfLine(Rectangle rect) {
-        // If this line does not intersect with the rectangle, return null.
-        // Otherwise, return the closest intersection point to the
-        // start of the line.
-        // Get the list of intersection points between this line and the rectangle
-        List<Point> intersectionPoints = rect.intersectionPoints(this);
-        double distance = Double.POSITIVE_INFINITY;
-        Point closestPoint = null;
-        // Iterate through the intersection points to find the closest one to the start of the line
-        for (Point point : intersectionPoints) {
-            if (point != null) {
-                // If the current intersection point is closer than the previously found,
-                // closest point, update the closest point
-                if (point.distance(this.start) < distance) {
-                    distance = point.distance(this.start);
-                    closestPoint = point;
-                }
-            }
+        SegmentHit hit = HITS.get();
+        if (!rect.intersectSegment(this.start.getX(), this.start.getY(), this.end.getX() - this.start.getX(),
+                this.end.getY() - this.start.getY(), hit)) {
+            return null;
         }
-
-        // Return the closest intersection point, or null if no intersections were found
-        return closestPoint;
+        return new Point(hit.getX(), hit.getY());
     }
 
 }
@@ -30,7 +30,9 @@ public class Point {
      * @return the distance between this point and the other point.
      */
     public double distance(Point other) {
-        return Math.sqrt(Math.pow(this.x - other.x, 2) + Math.pow(this.y - other.y, 2));
+        double dx = this.x - other.x;
+        double dy = this.y - other.y;
+        return Math.sqrt(dx * dx + dy * dy);
     }
 
     /**
@@ -86,9 +88,6 @@ public class Point {
      * @return true if this point is inside the rectangle, false otherwise.
      */
     public boolean pointInRectangle(Rectangle rec) {
-        return Methods.areDoublesBigEqual(this.x, rec.getLeftDown().getX())
-                && Methods.areDoublesSmallEqual(this.x, rec.getRightUp().getX())
-                && Methods.areDoublesBigEqual(this.y, rec.getUpperLeft().getX())
-                && Methods.areDoublesSmallEqual(this.y, rec.getLeftDown().getY());
+        return rec.contains(this.x, this.y);
     }
 }
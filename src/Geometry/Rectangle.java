@@ -1,5 +1,8 @@
 //209852706 Maya Diamant
 package Geometry;
+
+import Game.Methods;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -12,9 +15,18 @@ import java.util.List;
  * @since 2024-07-04
  */
 public class Rectangle {
-    private final Point upperLeft;
+    // Slack added around the rectangle, so touching segments (within the game precision) count as hits
+    private static final double EPSILON = 1e-5;
     private final double width;
     private final double height;
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private Line top;
+    private Line down;
+    private Line left;
+    private Line right;
 
     /**
      * Constructs a Geometry.Rectangle with the specified lower-left corner, width, height, and color.
@@ -24,9 +36,76 @@ public class Rectangle {
      * @param height    the height of the rectangle.
      */
     public Rectangle(Point upperLeft, double width, double height) {
-        this.upperLeft = new Point(upperLeft.getX(), upperLeft.getY());
+        this(upperLeft.getX(), upperLeft.getY(), width, height);
+    }
+
+    /**
+     * Constructs a Geometry.Rectangle with the specified upper-left corner coordinates, width and height,
+     * without allocating a corner point first.
+     *
+     * @param x      the x-coordinate of the upper-left corner.
+     * @param y      the y-coordinate of the upper-left corner.
+     * @param width  the width of the rectangle.
+     * @param height the height of the rectangle.
+     */
+    public Rectangle(double x, double y, double width, double height) {
         this.width = width;
         this.height = height;
+        this.minX = x;
+        this.minY = y;
+        this.maxX = minX + width;
+        this.maxY = minY + height;
+        // The (immutable) edges are built when first asked for: most rectangles (the bricks of a large level)
+        // are never hit, and never need them
+    }
+
+    /**
+     * Returns the smallest x-coordinate of the rectangle (its left side), without allocating.
+     *
+     * @return the smallest x-coordinate of the rectangle.
+     */
+    public double getMinX() {
+        return this.minX;
+    }
+
+    /**
+     * Returns the smallest y-coordinate of the rectangle (its top side), without allocating.
+     *
+     * @return the smallest y-coordinate of the rectangle.
+     */
+    public double getMinY() {
+        return this.minY;
+    }
+
+    /**
+     * Returns the largest x-coordinate of the rectangle (its right side), without allocating.
+     *
+     * @return the largest x-coordinate of the rectangle.
+     */
+    public double getMaxX() {
+        return this.maxX;
+    }
+
+    /**
+     * Returns the largest y-coordinate of the rectangle (its bottom side), without allocating.
+     *
+     * @return the largest y-coordinate of the rectangle.
+     */
+    public double getMaxY() {
+        return this.maxY;
+    }
+
+    /**
+     * Checks whether the given point lies inside the rectangle or on its boundary, up to a small threshold,
+     * without allocating a Point.
+     *
+     * @param x the x-coordinate of the point.
+     * @param y the y-coordinate of the point.
+     * @return true if the point is inside the rectangle, false otherwise.
+     */
+    public boolean contains(double x, double y) {
+        return Methods.areDoublesBigEqual(x, minX) && Methods.areDoublesSmallEqual(x, maxX)
+                && Methods.areDoublesBigEqual(y, minY) && Methods.areDoublesSmallEqual(y, maxY);
     }
 
     /**
@@ -53,7 +132,7 @@ public class Rectangle {
      * @return the lower-left corner of the rectangle.
      */
     public Point getUpperLeft() {
-        return new Point(this.upperLeft.getX(), this.upperLeft.getY());
+        return new Point(this.minX, this.minY);
     }
 
     /**
@@ -62,7 +141,7 @@ public class Rectangle {
      * @return the upper-left corner of the rectangle.
      */
     public Point getLeftDown() {
-        return new Point(this.upperLeft.getX(), this.upperLeft.getY() + height);
+        return new Point(minX, maxY);
     }
 
     /**
@@ -71,7 +150,7 @@ public class Rectangle {
      * @return the lower-right corner of the rectangle.
      */
     public Point getRightDown() {
-        return new Point(this.upperLeft.getX() + width, this.upperLeft.getY() + height);
+        return new Point(maxX, maxY);
     }
 
     /**
@@ -80,7 +159,7 @@ public class Rectangle {
      * @return the upper-right corner of the rectangle.
      */
     public Point getRightUp() {
-        return new Point(this.upperLeft.getX() + width, this.upperLeft.getY());
+        return new Point(maxX, minY);
     }
 
     /**
@@ -89,7 +168,10 @@ public class Rectangle {
      * @return the top side of the rectangle.
      */
     public Line getTop() {
-        return new Line(getUpperLeft(), getRightUp());
+        if (this.top == null) {
+            this.top = new Line(minX, minY, maxX, minY);
+        }
+        return this.top;
     }
 
     /**
@@ -98,7 +180,10 @@ public class Rectangle {
      * @return the bottom side of the rectangle.
      */
     public Line getDown() {
-        return new Line(getLeftDown(), getRightDown());
+        if (this.down == null) {
+            this.down = new Line(minX, maxY, maxX, maxY);
+        }
+        return this.down;
     }
 
     /**
@@ -107,7 +192,10 @@ public class Rectangle {
      * @return the left side of the rectangle.
      */
     public Line getLeft() {
-        return new Line(getLeftDown(), getUpperLeft());
+        if (this.left == null) {
+            this.left = new Line(minX, maxY, minX, minY);
+        }
+        return this.left;
     }
 
     /**
@@ -116,7 +204,34 @@ public class Rectangle {
      * @return the right side of the rectangle.
      */
     public Line getRight() {
-        return new Line(getRightUp(), getRightDown());
+        if (this.right == null) {
+            this.right = new Line(maxX, minY, maxX, maxY);
+        }
+        return this.right;
+    }
+
+    /**
+     * Checks whether the given point lies on the left or the right side of the rectangle, as pointOnLine of
+     * those sides does, without building the sides.
+     *
+     * @param p the point.
+     * @return true if the point is on the left or the right side, false otherwise.
+     */
+    public boolean onLeftOrRight(Point p) {
+        return Line.pointOnSegment(minX, maxY, minX, minY, p.getX(), p.getY())
+                || Line.pointOnSegment(maxX, minY, maxX, maxY, p.getX(), p.getY());
+    }
+
+    /**
+     * Checks whether the given point lies on the top or the bottom side of the rectangle, as pointOnLine of
+     * those sides does, without building the sides.
+     *
+     * @param p the point.
+     * @return true if the point is on the top or the bottom side, false otherwise.
+     */
+    public boolean onTopOrDown(Point p) {
+        return Line.pointOnSegment(minX, minY, maxX, minY, p.getX(), p.getY())
+                || Line.pointOnSegment(minX, maxY, maxX, maxY, p.getX(), p.getY());
     }
 
     /**
@@ -136,4 +251,284 @@ public class Rectangle {
         intersectionPoints.add(3, line.intersectionWith(getDown()));
         return intersectionPoints;
     }
+
+    /**
+     * Intersects the segment (x0, y0) + t * (dx, dy), 0 <= t <= 1, with this rectangle using the slab method.
+     * If the segment starts outside the rectangle, the hit is the point where it enters the rectangle;
+     * if it starts inside, the hit is the point where it leaves it.
+     * The hit point is placed exactly on the face that was hit. Nothing is allocated.
+     *
+     * @param x0  the x-coordinate of the start of the segment.
+     * @param y0  the y-coordinate of the start of the segment.
+     * @param dx  the change in x along the segment.
+     * @param dy  the change in y along the segment.
+     * @param hit the holder that receives the segment parameter, face and point of the hit.
+     * @return true if the segment hits the rectangle (and hit was filled), false otherwise.
+     */
+    public boolean intersectSegment(double x0, double y0, double dx, double dy, SegmentHit hit) {
+        return intersectSegment(minX, minY, maxX, maxY, x0, y0, dx, dy, hit);
+    }
+
+    /**
+     * Intersects the segment (x0, y0) + t * (dx, dy), 0 <= t <= 1, with the rectangle of the given bounds,
+     * as intersectSegment does for a rectangle object (see there). Nothing is allocated, so a collidable made
+     * of many rectangles (a tile field) need not keep a rectangle object per part.
+     *
+     * @param minX the smallest x-coordinate of the rectangle.
+     * @param minY the smallest y-coordinate of the rectangle.
+     * @param maxX the largest x-coordinate of the rectangle.
+     * @param maxY the largest y-coordinate of the rectangle.
+     * @param x0   the x-coordinate of the start of the segment.
+     * @param y0   the y-coordinate of the start of the segment.
+     * @param dx   the change in x along the segment.
+     * @param dy   the change in y along the segment.
+     * @param hit  the holder that receives the segment parameter, face and point of the hit.
+     * @return true if the segment hits the rectangle (and hit was filled), false otherwise.
+     */
+    public static boolean intersectSegment(double minX, double minY, double maxX, double maxY,
+                                           double x0, double y0, double dx, double dy, SegmentHit hit) {
+        double tEnter = Double.NEGATIVE_INFINITY;
+        double tExit = Double.POSITIVE_INFINITY;
+        int enterFace = SegmentHit.NONE;
+        int exitFace = SegmentHit.NONE;
+        if (dx != 0) {
+            double inverse = 1.0 / dx;
+            double tLeft = (minX - EPSILON - x0) * inverse;
+            double tRight = (maxX + EPSILON - x0) * inverse;
+            // Moving right, the segment enters through the left face and leaves through the right face
+            boolean rightwards = dx > 0;
+            tEnter = rightwards ? tLeft : tRight;
+            tExit = rightwards ? tRight : tLeft;
+            enterFace = rightwards ? SegmentHit.LEFT : SegmentHit.RIGHT;
+            exitFace = rightwards ? SegmentHit.RIGHT : SegmentHit.LEFT;
+        } else if (x0 < minX - EPSILON || x0 > maxX + EPSILON) {
+            return false;
+        }
+        if (dy != 0) {
+            double inverse = 1.0 / dy;
+            double tTop = (minY - EPSILON - y0) * inverse;
+            double tBottom = (maxY + EPSILON - y0) * inverse;
+            boolean downwards = dy > 0;
+            double tNear = downwards ? tTop : tBottom;
+            double tFar = downwards ? tBottom : tTop;
+            if (tNear > tEnter) {
+                tEnter = tNear;
+                enterFace = downwards ? SegmentHit.TOP : SegmentHit.BOTTOM;
+            }
+            if (tFar < tExit) {
+                tExit = tFar;
+                exitFace = downwards ? SegmentHit.BOTTOM : SegmentHit.TOP;
+            }
+        } else if (y0 < minY - EPSILON || y0 > maxY + EPSILON) {
+            return false;
+        }
+        if (tEnter > tExit) {
+            return false;
+        }
+        boolean startsOutside = tEnter >= 0;
+        double t = startsOutside ? tEnter : tExit;
+        if (t < 0 || t > 1) {
+            return false;
+        }
+        int face = startsOutside ? enterFace : exitFace;
+        // Move the hit from the padded face onto the real face, removing the slack from t and the hit point
+        if (face == SegmentHit.LEFT || face == SegmentHit.RIGHT) {
+            double faceX = face == SegmentHit.LEFT ? minX : maxX;
+            t = Math.min(1, Math.max(0, (faceX - x0) / dx));
+        } else {
+            double faceY = face == SegmentHit.TOP ? minY : maxY;
+            t = Math.min(1, Math.max(0, (faceY - y0) / dy));
+        }
+        double x = x0 + t * dx;
+        double y = y0 + t * dy;
+        if (face == SegmentHit.LEFT) {
+            x = minX;
+        } else if (face == SegmentHit.RIGHT) {
+            x = maxX;
+        } else if (face == SegmentHit.TOP) {
+            y = minY;
+        } else {
+            y = maxY;
+        }
+        hit.set(t, face, x, y);
+        return true;
+    }
+
+    /**
+     * Intersects a circle of the given radius, whose center moves along the segment (x0, y0) + t * (dx, dy),
+     * 0 <= t <= 1, with this rectangle, and finds the time of impact: the smallest t at which the circle
+     * touches the rectangle. The hit point is the point of the rectangle that the circle touches,
+     * which lies on the face that was hit, or is the corner that was hit.
+     * A circle that already overlaps the rectangle hits it at t = 0 on the face it is closest to,
+     * unless it is moving away from that face. Nothing is allocated.
+     *
+     * @param x0     the x-coordinate of the center at the start of the segment.
+     * @param y0     the y-coordinate of the center at the start of the segment.
+     * @param dx     the change in x along the segment.
+     * @param dy     the change in y along the segment.
+     * @param radius the radius of the circle.
+     * @param hit    the holder that receives the time of impact, face and point of the hit.
+     * @return true if the circle hits the rectangle (and hit was filled), false otherwise.
+     */
+    public boolean intersectSweptCircle(double x0, double y0, double dx, double dy, double radius,
+                                        SegmentHit hit) {
+        return intersectSweptCircle(minX, minY, maxX, maxY, x0, y0, dx, dy, radius, hit);
+    }
+
+    /**
+     * Intersects a circle of the given radius, whose center moves along the segment (x0, y0) + t * (dx, dy),
+     * 0 <= t <= 1, with the rectangle of the given bounds, as intersectSweptCircle does for a rectangle object
+     * (see there). Nothing is allocated.
+     *
+     * @param minX   the smallest x-coordinate of the rectangle.
+     * @param minY   the smallest y-coordinate of the rectangle.
+     * @param maxX   the largest x-coordinate of the rectangle.
+     * @param maxY   the largest y-coordinate of the rectangle.
+     * @param x0     the x-coordinate of the center at the start of the segment.
+     * @param y0     the y-coordinate of the center at the start of the segment.
+     * @param dx     the change in x along the segment.
+     * @param dy     the change in y along the segment.
+     * @param radius the radius of the circle.
+     * @param hit    the holder that receives the time of impact, face and point of the hit.
+     * @return true if the circle hits the rectangle (and hit was filled), false otherwise.
+     */
+    public static boolean intersectSweptCircle(double minX, double minY, double maxX, double maxY,
+                                               double x0, double y0, double dx, double dy, double radius,
+                                               SegmentHit hit) {
+        double nearestX = Math.max(minX, Math.min(x0, maxX));
+        double nearestY = Math.max(minY, Math.min(y0, maxY));
+        double offsetX = x0 - nearestX;
+        double offsetY = y0 - nearestY;
+        if (offsetX * offsetX + offsetY * offsetY < radius * radius - EPSILON) {
+            return overlapHit(minX, minY, maxX, maxY, x0, y0, dx, dy, nearestX, nearestY, hit);
+        }
+        double bestT = Double.POSITIVE_INFINITY;
+        int bestFace = SegmentHit.NONE;
+        double bestX = 0;
+        double bestY = 0;
+        // The flat faces, pushed out by the radius; only the face the circle moves towards can be hit
+        if (dx != 0) {
+            boolean rightwards = dx > 0;
+            double faceX = rightwards ? minX : maxX;
+            double t = (faceX + (rightwards ? -radius : radius) - x0) / dx;
+            double y = y0 + t * dy;
+            if (t >= -EPSILON && t <= 1 && y >= minY && y <= maxY) {
+                bestT = Math.max(0, t);
+                bestFace = rightwards ? SegmentHit.LEFT : SegmentHit.RIGHT;
+                bestX = faceX;
+                bestY = y;
+            }
+        }
+        if (dy != 0) {
+            boolean downwards = dy > 0;
+            double faceY = downwards ? minY : maxY;
+            double t = (faceY + (downwards ? -radius : radius) - y0) / dy;
+            double x = x0 + t * dx;
+            if (t >= -EPSILON && t <= 1 && x >= minX && x <= maxX && Math.max(0, t) < bestT) {
+                bestT = Math.max(0, t);
+                bestFace = downwards ? SegmentHit.TOP : SegmentHit.BOTTOM;
+                bestX = x;
+                bestY = faceY;
+            }
+        }
+        // The rounded corners: solve |start + t * d - corner| = radius for the smallest t
+        double a = dx * dx + dy * dy;
+        if (a > 0) {
+            for (int corner = 0; corner < 4; corner++) {
+                double cornerX = (corner & 1) == 0 ? minX : maxX;
+                double cornerY = (corner & 2) == 0 ? minY : maxY;
+                double fromX = x0 - cornerX;
+                double fromY = y0 - cornerY;
+                double b = fromX * dx + fromY * dy;
+                // Moving away from (or tangent to) the corner
+                if (b >= 0) {
+                    continue;
+                }
+                double c = fromX * fromX + fromY * fromY - radius * radius;
+                double discriminant = b * b - a * c;
+                if (discriminant < 0) {
+                    continue;
+                }
+                double t = Math.max(0, (-b - Math.sqrt(discriminant)) / a);
+                if (t <= 1 && t < bestT) {
+                    bestT = t;
+                    bestFace = SegmentHit.CORNER;
+                    bestX = cornerX;
+                    bestY = cornerY;
+                }
+            }
+        }
+        if (bestFace == SegmentHit.NONE) {
+            return false;
+        }
+        hit.set(bestT, bestFace, bestX, bestY);
+        return true;
+    }
+
+    /**
+     * Reports the hit of a circle that already overlaps the rectangle of the given bounds at the start of its
+     * movement: the circle is pushed out through the face (or corner) it is closest to, at t = 0,
+     * unless it is already moving away from it.
+     *
+     * @param minX     the smallest x-coordinate of the rectangle.
+     * @param minY     the smallest y-coordinate of the rectangle.
+     * @param maxX     the largest x-coordinate of the rectangle.
+     * @param maxY     the largest y-coordinate of the rectangle.
+     * @param x0       the x-coordinate of the center of the circle.
+     * @param y0       the y-coordinate of the center of the circle.
+     * @param dx       the change in x along the movement.
+     * @param dy       the change in y along the movement.
+     * @param nearestX the x-coordinate of the point of the rectangle closest to the center.
+     * @param nearestY the y-coordinate of the point of the rectangle closest to the center.
+     * @param hit      the holder that receives the hit.
+     * @return true if the circle moves deeper into the rectangle (and hit was filled), false otherwise.
+     */
+    private static boolean overlapHit(double minX, double minY, double maxX, double maxY, double x0, double y0,
+                                      double dx, double dy, double nearestX, double nearestY, SegmentHit hit) {
+        boolean insideX = nearestX == x0;
+        boolean insideY = nearestY == y0;
+        double contactX = nearestX;
+        double contactY = nearestY;
+        int face;
+        double normalX;
+        double normalY;
+        if (insideX && insideY) {
+            // The center itself is inside: leave through the closest face
+            double toLeft = x0 - minX;
+            double toRight = maxX - x0;
+            double toTop = y0 - minY;
+            double toBottom = maxY - y0;
+            double closest = Math.min(Math.min(toLeft, toRight), Math.min(toTop, toBottom));
+            if (closest == toTop) {
+                face = SegmentHit.TOP;
+                contactY = minY;
+            } else if (closest == toBottom) {
+                face = SegmentHit.BOTTOM;
+                contactY = maxY;
+            } else if (closest == toLeft) {
+                face = SegmentHit.LEFT;
+                contactX = minX;
+            } else {
+                face = SegmentHit.RIGHT;
+                contactX = maxX;
+            }
+            normalX = face == SegmentHit.LEFT ? -1 : (face == SegmentHit.RIGHT ? 1 : 0);
+            normalY = face == SegmentHit.TOP ? -1 : (face == SegmentHit.BOTTOM ? 1 : 0);
+        } else {
+            normalX = x0 - nearestX;
+            normalY = y0 - nearestY;
+            if (insideX) {
+                face = normalY < 0 ? SegmentHit.TOP : SegmentHit.BOTTOM;
+            } else if (insideY) {
+                face = normalX < 0 ? SegmentHit.LEFT : SegmentHit.RIGHT;
+            } else {
+                face = SegmentHit.CORNER;
+            }
+        }
+        if (dx * normalX + dy * normalY >= 0) {
+            return false;
+        }
+        hit.set(0, face, contactX, contactY);
+        return true;
+    }
 }
@@ -0,0 +1,91 @@
+//209852706 Maya Diamant
+package Geometry;
+
+/**
+ * The Geometry.SegmentHit class holds the result of intersecting a segment (or a circle swept along a segment)
+ * with a rectangle: the segment parameter t at which the rectangle is hit (0 at the start of the segment,
+ * 1 at its end), the face of the rectangle that was hit, and the hit point on the rectangle.
+ * It is mutable, so that a single instance can be reused by every query of a hot loop.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class SegmentHit {
+    // No face was hit
+    public static final int NONE = 0;
+    // The left face (x = minimum x) of the rectangle
+    public static final int LEFT = 1;
+    // The right face (x = maximum x) of the rectangle
+    public static final int RIGHT = 2;
+    // The top face (y = minimum y) of the rectangle
+    public static final int TOP = 3;
+    // The bottom face (y = maximum y) of the rectangle
+    public static final int BOTTOM = 4;
+    // A corner of the rectangle (only reported by swept-circle queries)
+    public static final int CORNER = 5;
+
+    private double t;
+    private int face;
+    private double x;
+    private double y;
+
+    /**
+     * Constructs an empty Geometry.SegmentHit.
+     */
+    public SegmentHit() {
+        this.t = Double.POSITIVE_INFINITY;
+        this.face = NONE;
+    }
+
+    /**
+     * Sets all the fields of this hit.
+     *
+     * @param newT    the segment parameter of the hit.
+     * @param newFace the face that was hit.
+     * @param newX    the x-coordinate of the hit point.
+     * @param newY    the y-coordinate of the hit point.
+     */
+    void set(double newT, int newFace, double newX, double newY) {
+        this.t = newT;
+        this.face = newFace;
+        this.x = newX;
+        this.y = newY;
+    }
+
+    /**
+     * Returns the segment parameter of the hit (0 at the start of the segment, 1 at its end).
+     *
+     * @return the segment parameter of the hit.
+     */
+    public double getT() {
+        return t;
+    }
+
+    /**
+     * Returns the face of the rectangle that was hit.
+     *
+     * @return one of LEFT, RIGHT, TOP, BOTTOM, CORNER.
+     */
+    public int getFace() {
+        return face;
+    }
+
+    /**
+     * Returns the x-coordinate of the hit point.
+     *
+     * @return the x-coordinate of the hit point.
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Returns the y-coordinate of the hit point.
+     *
+     * @return the y-coordinate of the hit point.
+     */
+    public double getY() {
+        return y;
+    }
+}
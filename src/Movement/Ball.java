@@ -1,39 +1,32 @@
 //209852706 Maya Diamant
 package Movement;
 
-import Collidable.Collidable;
-import Geometry.Line;
 import Geometry.Point;
-import Geometry.Rectangle;
 import biuoop.DrawSurface;
 import Game.GameEnvironment;
 import Sprites.Sprite;
 import Game.Game;
-import Collidable.CollisionInfo;
 
 import java.awt.Color;
 
-import Game.Methods;
-
-import java.util.Objects;
-
 /**
  * The gui.Sprite.Movement.Ball class represents a ball with a center point, radius, velocity, color, and bounding area.
  * It provides methods to draw the ball, move it, and handle collisions with a rectangular area.
+ * The state of the ball is stored in one slot of a Movement.BallSystem; a ball is a thin handle onto that slot.
  *
  * @author Maya Diamant usamaya@gmail.com
  * @version 1
  * @since 2024-07-04
  */
 public class Ball implements Sprite {
-    private final int radius;
-    private Velocity velocity;
-    private Point center;
-    private Color color;
-    private final GameEnvironment environment;
+    private final BallSystem system;
+    private int slot;
+    private int life;
+    private boolean pooled;
 
     /**
      * Constructs a ball with the specified center point, radius, color, and bounding area.
+     * The ball gets a ball system of its own.
      *
      * @param center the center point of the ball.
      * @param r      the radius of the ball.
@@ -42,15 +35,12 @@ public class Ball implements Sprite {
      * @param env    the game environment
      */
     public Ball(Point center, int r, java.awt.Color color, GameEnvironment env) {
-        this.center = new Point(center.getX(), center.getY());
-        this.radius = r;
-        this.color = color;
-        this.velocity = new Velocity(0, 0);
-        this.environment = env;
+        this(new BallSystem(env, 1), center, r, color);
     }
 
     /**
      * Constructs a ball with the specified coordinates for the center point, radius, color, and bounding area.
+     * The ball gets a ball system of its own.
      *
      * @param x     the x-coordinate of the center point.
      * @param y     the y-coordinate of the center point.
@@ -60,13 +50,87 @@ public class Ball implements Sprite {
      * @param env   the game environment
      */
     public Ball(double x, double y, int r, java.awt.Color color, GameEnvironment env) {
-        int x1 = (int) x;
-        int y1 = (int) y;
-        this.center = new Point(x1, y1);
-        this.radius = r;
-        this.color = color;
-        this.velocity = new Velocity(0, 0);
-        this.environment = env;
+        this(new BallSystem(env, 1), new Point((int) x, (int) y), r, color);
+    }
+
+    /**
+     * Constructs a ball in a slot of the given ball system. The system simulates the ball from now on,
+     * whenever the system itself is stepped.
+     *
+     * @param system the ball system that stores and simulates the ball.
+     * @param center the center point of the ball.
+     * @param r      the radius of the ball.
+     * @param color  the color of the ball.
+     */
+    public Ball(BallSystem system, Point center, int r, java.awt.Color color) {
+        this(system, center.getX(), center.getY(), r, color);
+    }
+
+    /**
+     * Constructs a ball in a slot of the given ball system, without allocating a center point.
+     *
+     * @param system the ball system that stores and simulates the ball.
+     * @param cx     the x-coordinate of the center.
+     * @param cy     the y-coordinate of the center.
+     * @param r      the radius of the ball.
+     * @param color  the color of the ball.
+     */
+    Ball(BallSystem system, double cx, double cy, int r, Color color) {
+        this.system = system;
+        this.slot = system.add(this, cx, cy, r, color);
+        this.life = 0;
+        this.pooled = false;
+    }
+
+    /**
+     * Puts this handle, which was removed from its system, back into the system as a new ball standing still.
+     * The handle starts a new life, so the system can tell the new ball from the removed one.
+     *
+     * @param cx    the x-coordinate of the center.
+     * @param cy    the y-coordinate of the center.
+     * @param r     the radius of the ball.
+     * @param color the color of the ball.
+     */
+    void respawn(double cx, double cy, int r, Color color) {
+        this.slot = system.add(this, cx, cy, r, color);
+        this.life++;
+        this.pooled = false;
+    }
+
+    /**
+     * Returns the number of times this handle was respawned.
+     *
+     * @return the life of the handle.
+     */
+    int getLife() {
+        return this.life;
+    }
+
+    /**
+     * Checks whether this handle is waiting in a Movement.BallPool to be reused.
+     *
+     * @return true if the handle is in a pool, false otherwise.
+     */
+    boolean isPooled() {
+        return this.pooled;
+    }
+
+    /**
+     * Sets whether this handle is waiting in a Movement.BallPool to be reused.
+     *
+     * @param isPooled true if the handle is in a pool, false otherwise.
+     */
+    void setPooled(boolean isPooled) {
+        this.pooled = isPooled;
+    }
+
+    /**
+     * Points this handle at a new slot, after the system has moved the ball.
+     *
+     * @param newSlot the new slot of the ball.
+     */
+    void setSlot(int newSlot) {
+        this.slot = newSlot;
     }
 
     // Accessors
@@ -77,7 +141,7 @@ public class Ball implements Sprite {
      * @return the x-coordinate of the center point.
      */
     public int getX() {
-        return (int) center.getX();
+        return (int) system.getX(slot);
     }
 
     /**
@@ -86,7 +150,7 @@ public class Ball implements Sprite {
      * @return the y-coordinate of the center point.
      */
     public int getY() {
-        return (int) center.getY();
+        return (int) system.getY(slot);
     }
 
     /**
@@ -95,7 +159,7 @@ public class Ball implements Sprite {
      * @return the radius of the ball.
      */
     public int getSize() {
-        return radius;
+        return system.getRadius(slot);
     }
 
     /**
@@ -104,7 +168,7 @@ public class Ball implements Sprite {
      * @return the color of the ball.
      */
     public java.awt.Color getColor() {
-        return color;
+        return system.getColor(slot);
     }
 
     /**
@@ -114,15 +178,54 @@ public class Ball implements Sprite {
      * @return A new gui.Sprite.Geometry.Point object representing the center of this object.
      */
     public Point getCenter() {
-        return new Point(this.center.getX(), this.center.getY());
+        return new Point(system.getX(slot), system.getY(slot));
+    }
+
+    /**
+     * Returns the exact x-coordinate of the center of the ball, without allocating.
+     *
+     * @return the x-coordinate of the center.
+     */
+    public double getCenterX() {
+        return system.getX(slot);
+    }
+
+    /**
+     * Returns the exact y-coordinate of the center of the ball, without allocating.
+     *
+     * @return the y-coordinate of the center.
+     */
+    public double getCenterY() {
+        return system.getY(slot);
+    }
+
+    /**
+     * Returns the ball system that stores this ball.
+     *
+     * @return the ball system of this ball.
+     */
+    public BallSystem getSystem() {
+        return this.system;
+    }
+
+    /**
+     * Returns whether this ball was removed from its ball system (for example, by a listener notified
+     * earlier in the same tick).
+     *
+     * @return true if the ball was removed, false otherwise.
+     */
+    public boolean isRemoved() {
+        return slot < 0;
     }
 
     @Override
     public void drawOn(DrawSurface d) {
-        d.setColor(color);
-        d.fillCircle(getX(), getY(), radius);
-        d.setColor(Color.black);
-        d.drawCircle(getX(), getY(), radius);
+        system.drawBall(d, slot);
+    }
+
+    @Override
+    public void drawOn(DrawSurface d, double alpha) {
+        system.drawBall(d, slot, alpha);
     }
 
     /**
@@ -131,7 +234,7 @@ public class Ball implements Sprite {
      * @param v the Movement.Velocity object representing the new velocity of the ball.
      */
     public void setVelocity(Velocity v) {
-        this.velocity = new Velocity(v);
+        system.setVelocity(slot, v.getDx(), v.getDy());
     }
 
     /**
@@ -141,7 +244,7 @@ public class Ball implements Sprite {
      * @param dy the change in the y-direction per movement step.
      */
     public void setVelocity(double dx, double dy) {
-        this.velocity = new Velocity(dx, dy);
+        system.setVelocity(slot, dx, dy);
     }
 
     /**
@@ -150,7 +253,7 @@ public class Ball implements Sprite {
      * @return the current velocity of the ball.
      */
     public Velocity getVelocity() {
-        return this.velocity;
+        return new Velocity(system.getDx(slot), system.getDy(slot));
     }
 
     /**
@@ -160,143 +263,65 @@ public class Ball implements Sprite {
      * @param point The new center point of the object.
      */
     public void setCenter(Point point) {
-        this.center.setX(point.getX());
-        this.center.setY(point.getY());
+        system.setCenter(slot, point.getX(), point.getY());
     }
 
     /**
-     * Moves the ball one step, checking for collisions with the bounding area.
+     * Moves the ball one step, sweeping its whole circle (not only its center) along its velocity.
+     * The ball stops at the exact time of impact of every collision, takes the velocity returned by
+     * the collidable, and spends the rest of the step moving with the new velocity, so it can bounce
+     * several times within one step and never tunnels through a collidable, whatever its speed.
      */
     public void moveOneStep() {
-        Point nextCenter = this.getVelocity().applyToPoint(this.center);
-        Line trajectory = new Line(this.center, nextCenter);
-        CollisionInfo collisionInfo = this.environment.getClosestCollision(trajectory);
-        if (collisionInfo == null) {
-            this.center = nextCenter;
-        } else {
-            Point collisionPoint = collisionInfo.collisionPoint();
-            Collidable hitObject = collisionInfo.collisionObject();
-            setCenter(new Line(this.center, collisionPoint).middle());
-            this.velocity = hitObject.hit(this, collisionPoint, this.velocity);
-            if (Objects.equals(collisionInfo.collisionObject().myName(), "Movement.Paddle")
-                    && center.pointInRectangle(collisionInfo.collisionObject().getCollisionRectangle())) {
-                setCenter(new Point(getCenter().getX(), getCenter().getY() - 10));
-            }
-        }
+        system.step(slot);
     }
 
+    @Override
+    public void timePassed() {
+        moveOneStep();
+    }
 
     /**
-     * Checks if the ball collides with any of the corners of the given rectangle.
-     * If a collision is detected, the velocity of the ball is reversed.
+     * Adds this ball to the game. A ball that lives in the ball system of the game is already
+     * simulated and drawn by that system, so it is only added as a sprite of its own otherwise.
      *
-     * @param rec the rectangle to check for collisions with.
-     * @return true if a collision is detected, false otherwise.
+     * @param game the game to which this ball will be added.
      */
-    public boolean ballAndPoint(Rectangle rec) {
-        Point[] corners = {rec.getUpperLeft(), rec.getRightUp(), rec.getLeftDown(), rec.getRightDown()};
-        for (Point corner : corners) {
-            if (Methods.areDoublesSmallEqual(this.center.distance(corner), radius)) {
-                this.velocity = new Velocity(-this.velocity.getDx(), -this.velocity.getDy());
-                return true;
-            }
+    @Override
+    public void addToGame(Game game) {
+        if (game.getBallSystem() != system) {
+            game.addSprite(this);
         }
-        return false;
     }
 
     /**
-     * Checks if the ball collides with any of the edges of the given rectangle.
-     * If a collision is detected, the velocity of the ball is adjusted accordingly.
+     * Returns the collision category of this ball, one of the Collidable.CollisionLayers bits.
      *
-     * @param rectangle the rectangle to check for collisions with.
-     * @return true if a collision is detected, false otherwise.
+     * @return the collision category of the ball.
      */
-    public boolean findLine(Rectangle rectangle) {
-        if (!ballAndPoint(rectangle)) {
-            boolean flag = false;
-            Point leftBall = new Point(this.center.getX() - radius, this.center.getY());
-            Line left = new Line(this.center, leftBall);
-            Point rightBall = new Point(this.center.getX() + radius, this.center.getY());
-            Line right = new Line(this.center, rightBall);
-            Point topBall = new Point(this.center.getX(), this.center.getY() + radius);
-            Line up = new Line(this.center, topBall);
-            Point bottomBall = new Point(this.center.getX(), this.center.getY() - radius);
-            Line down = new Line(this.center, bottomBall);
-
-            // Check for collisions with the left edge
-            if (right.isIntersecting(rectangle.getLeft())) {
-                this.velocity = new Velocity(-this.velocity.getDx(), this.velocity.getDy());
-                flag = true;
-            }
-
-            // Check for collisions with the right edge
-            if (left.isIntersecting(rectangle.getRight())) {
-                this.velocity = new Velocity(-this.velocity.getDx(), this.velocity.getDy());
-                flag = true;
-            }
-
-            // Check for collisions with the bottom edge
-            if (up.isIntersecting(rectangle.getDown())) {
-                this.velocity = new Velocity(this.velocity.getDx(), -this.velocity.getDy());
-                flag = true;
-            }
-
-            // Check for collisions with the top edge
-            if (down.isIntersecting(rectangle.getTop())) {
-                this.velocity = new Velocity(this.velocity.getDx(), -this.velocity.getDy());
-                flag = true;
-            }
-
-            return flag;
-        }
-        return false;
+    public int getCategory() {
+        return system.getCategory(slot);
     }
 
     /**
-     * Adjusts the velocity of the ball based on its position relative to the given rectangle.
-     * If the ball is found to be colliding with the rectangle, its velocity is adjusted accordingly.
+     * Returns the mask of the collidable categories this ball collides with.
      *
-     * @param rectangle the rectangle to check for collisions with.
+     * @return the collision mask of the ball.
      */
-    public void centerPoint(Rectangle rectangle) {
-        if (!findLine(rectangle)) {
-            Point newDX = new Point(this.center.getX() + this.velocity.getDx(), this.center.getY());
-            Point newDY = new Point(this.center.getX(), this.center.getY() + this.velocity.getDy());
-            if (newDX.pointInRectangle(rectangle)) {
-                this.velocity = new Velocity(-this.velocity.getDx(), this.velocity.getDy());
-            }
-            if (newDY.pointInRectangle(rectangle)) {
-                this.velocity = new Velocity(this.velocity.getDx(), -this.velocity.getDy());
-            }
-        }
+    public int getCollisionMask() {
+        return system.getCollisionMask(slot);
     }
 
     /**
-     * Ensures the ball's center point stays inside the given rectangle.
-     * If the ball's center point is found to be outside the rectangle, its velocity is adjusted accordingly.
+     * Sets the collision category of this ball, and the mask of the collidable categories it collides with.
+     * For example, a ghost ball that passes through blocks but bounces on the paddle and the edges
+     * has a mask without Collidable.CollisionLayers.BLOCK.
      *
-     * @param rectangle the rectangle to check for boundary violations.
+     * @param category the collision category of the ball.
+     * @param mask     the mask of the collidable categories the ball collides with.
      */
-
-    public void centralPointInside(Rectangle rectangle) {
-        Point newDX = new Point(this.center.getX() + this.velocity.getDx(), this.center.getY());
-        Point newDY = new Point(this.center.getX(), this.center.getY() + this.velocity.getDy());
-        if (!newDX.pointInRectangle(rectangle)) {
-            this.velocity = new Velocity(-this.velocity.getDx(), this.velocity.getDy());
-        }
-        if (!newDY.pointInRectangle(rectangle)) {
-            this.velocity = new Velocity(this.velocity.getDx(), -this.velocity.getDy());
-        }
-    }
-
-    @Override
-    public void timePassed() {
-        moveOneStep();
-    }
-
-    @Override
-    public void addToGame(Game game) {
-        game.addSprite(this);
+    public void setCollisionFilter(int category, int mask) {
+        system.setCollisionFilter(slot, category, mask);
     }
 
     /**
@@ -305,15 +330,25 @@ public class Ball implements Sprite {
      * @param color the new color to be set.
      */
     public void setColor(Color color) {
-        this.color = color;
+        system.setColor(slot, color);
     }
 
     /**
-     * Removes this ball from the specified game.
+     * Removes this ball from the specified game, and from its ball system.
      *
      * @param game the game from which this object is to be removed.
      */
     public void removeFromGame(Game game) {
         game.removeSprite(this);
+        removeFromSystem();
+    }
+
+    /**
+     * Removes this ball from its ball system, if it is still in it.
+     */
+    void removeFromSystem() {
+        if (slot >= 0) {
+            system.remove(slot);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,156 @@
+//209852706 Maya Diamant
+package Movement;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+/**
+ * The Movement.BallPool class hands out the balls of a Movement.BallSystem and takes them back, so that
+ * spawning and removing balls (for example, by multi-ball power-ups) reuses the same Movement.Ball handles
+ * instead of allocating new ones and leaving the old ones to the garbage collector.
+ * A ball is acquired with its whole state given as numbers, so spawning allocates no Geometry.Point or
+ * Movement.Velocity either. The pool is bounded: when the system already holds the maximum number of balls,
+ * a spawn is refused (acquire returns null) rather than growing without limit. The pool counts the spawns
+ * served from it (hits), those that needed a new handle (misses) and those it refused.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class BallPool {
+    private final BallSystem system;
+    private final int maxBalls;
+    private Ball[] free;
+    private int freeCount;
+    private long hits;
+    private long misses;
+    private long refused;
+    private long released;
+
+    /**
+     * Constructs an empty Movement.BallPool of the balls of the given system.
+     *
+     * @param system   the ball system the balls live in.
+     * @param maxBalls the most balls the system may hold at once; spawns beyond it are refused.
+     */
+    public BallPool(BallSystem system, int maxBalls) {
+        this.system = system;
+        this.maxBalls = maxBalls;
+        this.free = new Ball[Math.min(maxBalls, 16)];
+        this.freeCount = 0;
+    }
+
+    /**
+     * Spawns a ball in the system, reusing a released handle if there is one.
+     *
+     * @param cx    the x-coordinate of the center of the ball.
+     * @param cy    the y-coordinate of the center of the ball.
+     * @param r     the radius of the ball.
+     * @param color the color of the ball.
+     * @param dx    the change in the x-direction per movement step.
+     * @param dy    the change in the y-direction per movement step.
+     * @return the ball, or null if the system already holds the maximum number of balls.
+     */
+    public Ball acquire(double cx, double cy, int r, Color color, double dx, double dy) {
+        if (system.size() >= maxBalls) {
+            refused++;
+            return null;
+        }
+        Ball ball;
+        if (freeCount > 0) {
+            ball = free[--freeCount];
+            free[freeCount] = null;
+            ball.respawn(cx, cy, r, color);
+            hits++;
+        } else {
+            ball = new Ball(system, cx, cy, r, color);
+            misses++;
+        }
+        ball.setVelocity(dx, dy);
+        return ball;
+    }
+
+    /**
+     * Removes a ball from the system, and keeps its handle for a later spawn. The handle must not be used
+     * once it is released.
+     *
+     * @param ball the ball to release.
+     * @return true if the ball was released, false if it does not belong to the system of this pool
+     *         (it should then be removed from the game the usual way).
+     */
+    public boolean release(Ball ball) {
+        if (ball.getSystem() != system) {
+            return false;
+        }
+        ball.removeFromSystem();
+        // A handle released twice is kept once; handles beyond the maximum are left to the garbage collector
+        if (!ball.isPooled() && freeCount < maxBalls) {
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, Math.min(maxBalls, free.length * 2));
+            }
+            ball.setPooled(true);
+            free[freeCount++] = ball;
+            released++;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of spawns served by a released handle.
+     *
+     * @return the number of pool hits.
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns the number of spawns that needed a new handle.
+     *
+     * @return the number of pool misses.
+     */
+    public long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Returns the number of spawns refused because the system held the maximum number of balls.
+     *
+     * @return the number of refused spawns.
+     */
+    public long getRefused() {
+        return this.refused;
+    }
+
+    /**
+     * Returns the number of balls released to the pool.
+     *
+     * @return the number of released balls.
+     */
+    public long getReleased() {
+        return this.released;
+    }
+
+    /**
+     * Returns the number of released handles waiting to be reused.
+     *
+     * @return the number of free handles.
+     */
+    public int getFree() {
+        return this.freeCount;
+    }
+
+    /**
+     * Returns the most balls the system may hold at once.
+     *
+     * @return the maximum number of balls.
+     */
+    public int getMaxBalls() {
+        return this.maxBalls;
+    }
+
+    @Override
+    public String toString() {
+        return "hits: " + hits + ", misses: " + misses + ", refused: " + refused + ", free: " + freeCount;
+    }
+}
@@ -0,0 +1,646 @@
+//209852706 Maya Diamant
+package Movement;
+
+import Collidable.Collidable;
+import Collidable.CollisionLayers;
+import Game.CollisionQuery;
+import Game.Game;
+import Game.GameEnvironment;
+import Geometry.Point;
+import Geometry.SegmentHit;
+import Sprites.Sprite;
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The Movement.BallSystem class simulates many balls at once. The state of every ball (center, velocity,
+ * radius and color) is kept in parallel primitive arrays, one slot per ball, and all the balls are stepped
+ * in one tight loop instead of through a virtual timePassed() call per ball.
+ * Every ball also has a collision category and mask (see Collidable.CollisionLayers), which filter the
+ * collidables it can hit. Every Movement.Ball is a thin handle onto one slot of a system. Removing a ball
+ * moves the last ball into its slot, so the arrays stay dense.
+ * With enough balls a step runs in two phases. First the collision query of every ball is run in parallel
+ * on a fork-join pool, against the environment as it is at the start of the step. Then the balls are moved
+ * one by one in slot order, and the hits are applied (and the hit listeners notified) in that order.
+ * A ball uses its precomputed query only if the ball has not changed since it was made, and the changes made to
+ * the environment meanwhile (by the hits of the balls before it) cannot change its result (see
+ * Game.GameEnvironment#isStillValid); it queries again otherwise, so the result is exactly the result of the
+ * single-threaded step. A block removed by one ball thus only costs a new query to the balls that would hit it.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class BallSystem implements Sprite {
+    // The most collisions resolved within a single step; the rest of the step is dropped beyond it
+    private static final int MAX_BOUNCES_PER_STEP = 4;
+    // Below this number of balls the queries are not run in parallel, as forking would cost more than it saves
+    private static final int PARALLEL_THRESHOLD = 256;
+    // The number of query chunks per thread of the pool, so that uneven chunks balance out
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final GameEnvironment environment;
+    private final CollisionQuery query;
+    private final Point hitPoint;
+    private final double[] hitVelocity;
+    private double[] x;
+    private double[] y;
+    private double[] previousX;
+    private double[] previousY;
+    private double[] dx;
+    private double[] dy;
+    private int[] radius;
+    private int[] colorIndex;
+    private int[] category;
+    private int[] mask;
+    private Ball[] handles;
+    private Color[] palette;
+    private int paletteSize;
+    private int count;
+    private ForkJoinPool pool;
+    private QueryChunk[] chunks;
+    private Collidable[] pendingCollidable;
+    private double[] pendingT;
+    private int[] pendingFace;
+    private double[] pendingX;
+    private double[] pendingY;
+    private boolean[] pendingValid;
+
+    /**
+     * Constructs an empty Movement.BallSystem with room for the given number of balls (it grows as needed).
+     *
+     * @param env      the game environment the balls collide with.
+     * @param capacity the initial number of ball slots.
+     */
+    public BallSystem(GameEnvironment env, int capacity) {
+        int size = Math.max(1, capacity);
+        this.environment = env;
+        this.query = new CollisionQuery();
+        this.hitPoint = new Point(0, 0);
+        this.hitVelocity = new double[2];
+        this.x = new double[size];
+        this.y = new double[size];
+        this.previousX = new double[size];
+        this.previousY = new double[size];
+        this.dx = new double[size];
+        this.dy = new double[size];
+        this.radius = new int[size];
+        this.colorIndex = new int[size];
+        this.category = new int[size];
+        this.mask = new int[size];
+        this.handles = new Ball[size];
+        this.palette = new Color[8];
+        this.paletteSize = 0;
+        this.count = 0;
+        this.pendingCollidable = new Collidable[size];
+        this.pendingT = new double[size];
+        this.pendingFace = new int[size];
+        this.pendingX = new double[size];
+        this.pendingY = new double[size];
+        this.pendingValid = new boolean[size];
+        setPool(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs an empty Movement.BallSystem.
+     *
+     * @param env the game environment the balls collide with.
+     */
+    public BallSystem(GameEnvironment env) {
+        this(env, 16);
+    }
+
+    /**
+     * Returns the number of balls in the system.
+     *
+     * @return the number of balls.
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * Returns the ball in the given slot.
+     *
+     * @param slot the slot, between 0 and size() - 1.
+     * @return the handle of the ball in the slot.
+     */
+    public Ball getBall(int slot) {
+        return this.handles[slot];
+    }
+
+    /**
+     * Sets the fork-join pool on which the collision queries of the balls are run in parallel.
+     *
+     * @param forkJoinPool the pool, or null to step the balls on the calling thread only.
+     */
+    public void setPool(ForkJoinPool forkJoinPool) {
+        this.pool = forkJoinPool;
+        if (forkJoinPool == null) {
+            this.chunks = null;
+            return;
+        }
+        this.chunks = new QueryChunk[forkJoinPool.getParallelism() * CHUNKS_PER_THREAD];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new QueryChunk();
+        }
+    }
+
+    /**
+     * Returns the game environment the balls collide with.
+     *
+     * @return the game environment.
+     */
+    public GameEnvironment getEnvironment() {
+        return this.environment;
+    }
+
+    /**
+     * Adds a ball to the system, standing still.
+     *
+     * @param handle the handle of the new ball.
+     * @param cx     the x-coordinate of the center.
+     * @param cy     the y-coordinate of the center.
+     * @param r      the radius.
+     * @param color  the color.
+     * @return the slot of the new ball.
+     */
+    int add(Ball handle, double cx, double cy, int r, Color color) {
+        if (count == handles.length) {
+            grow(count * 2);
+        }
+        int slot = count++;
+        x[slot] = cx;
+        y[slot] = cy;
+        previousX[slot] = cx;
+        previousY[slot] = cy;
+        dx[slot] = 0;
+        dy[slot] = 0;
+        radius[slot] = r;
+        colorIndex[slot] = paletteIndexOf(color);
+        category[slot] = CollisionLayers.BALL;
+        mask[slot] = CollisionLayers.ALL & ~CollisionLayers.BACKGROUND;
+        handles[slot] = handle;
+        pendingValid[slot] = false;
+        return slot;
+    }
+
+    /**
+     * Removes the ball in the given slot, moving the last ball into the slot.
+     *
+     * @param slot the slot of the ball to remove.
+     */
+    void remove(int slot) {
+        handles[slot].setSlot(-1);
+        int last = --count;
+        pendingValid[slot] = false;
+        pendingValid[last] = false;
+        if (slot != last) {
+            x[slot] = x[last];
+            y[slot] = y[last];
+            previousX[slot] = previousX[last];
+            previousY[slot] = previousY[last];
+            dx[slot] = dx[last];
+            dy[slot] = dy[last];
+            radius[slot] = radius[last];
+            colorIndex[slot] = colorIndex[last];
+            category[slot] = category[last];
+            mask[slot] = mask[last];
+            handles[slot] = handles[last];
+            handles[slot].setSlot(slot);
+        }
+        handles[last] = null;
+        pendingCollidable[last] = null;
+    }
+
+    /**
+     * Returns the x-coordinate of the center of the ball in the given slot.
+     *
+     * @param slot the slot of the ball.
+     * @return the x-coordinate of the center.
+     */
+    double getX(int slot) {
+        return x[slot];
+    }
+
+    /**
+     * Returns the y-coordinate of the center of the ball in the given slot.
+     *
+     * @param slot the slot of the ball.
+     * @return the y-coordinate of the center.
+     */
+    double getY(int slot) {
+        return y[slot];
+    }
+
+    /**
+     * Moves the center of the ball in the given slot. The ball is drawn there at once, not interpolated.
+     *
+     * @param slot the slot of the ball.
+     * @param cx   the new x-coordinate of the center.
+     * @param cy   the new y-coordinate of the center.
+     */
+    void setCenter(int slot, double cx, double cy) {
+        pendingValid[slot] = false;
+        x[slot] = cx;
+        y[slot] = cy;
+        previousX[slot] = cx;
+        previousY[slot] = cy;
+    }
+
+    /**
+     * Returns the change in x per step of the ball in the given slot.
+     *
+     * @param slot the slot of the ball.
+     * @return the change in x per step.
+     */
+    double getDx(int slot) {
+        return dx[slot];
+    }
+
+    /**
+     * Returns the change in y per step of the ball in the given slot.
+     *
+     * @param slot the slot of the ball.
+     * @return the change in y per step.
+     */
+    double getDy(int slot) {
+        return dy[slot];
+    }
+
+    /**
+     * Sets the velocity of the ball in the given slot.
+     *
+     * @param slot the slot of the ball.
+     * @param vx   the change in x per step.
+     * @param vy   the change in y per step.
+     */
+    void setVelocity(int slot, double vx, double vy) {
+        pendingValid[slot] = false;
+        dx[slot] = vx;
+        dy[slot] = vy;
+    }
+
+    /**
+     * Returns the radius of the ball in the given slot.
+     *
+     * @param slot the slot of the ball.
+     * @return the radius.
+     */
+    int getRadius(int slot) {
+        return radius[slot];
+    }
+
+    /**
+     * Returns the color of the ball in the given slot.
+     *
+     * @param slot the slot of the ball.
+     * @return the color.
+     */
+    Color getColor(int slot) {
+        return palette[colorIndex[slot]];
+    }
+
+    /**
+     * Sets the color of the ball in the given slot.
+     *
+     * @param slot  the slot of the ball.
+     * @param color the new color.
+     */
+    void setColor(int slot, Color color) {
+        colorIndex[slot] = paletteIndexOf(color);
+    }
+
+    /**
+     * Returns the collision category of the ball in the given slot.
+     *
+     * @param slot the slot of the ball.
+     * @return the collision category.
+     */
+    int getCategory(int slot) {
+        return category[slot];
+    }
+
+    /**
+     * Returns the mask of the collidable categories the ball in the given slot collides with.
+     *
+     * @param slot the slot of the ball.
+     * @return the collision mask.
+     */
+    int getCollisionMask(int slot) {
+        return mask[slot];
+    }
+
+    /**
+     * Sets the collision category and mask of the ball in the given slot.
+     *
+     * @param slot        the slot of the ball.
+     * @param newCategory the collision category.
+     * @param newMask     the mask of the collidable categories the ball collides with.
+     */
+    void setCollisionFilter(int slot, int newCategory, int newMask) {
+        pendingValid[slot] = false;
+        category[slot] = newCategory;
+        mask[slot] = newMask;
+    }
+
+    /**
+     * Steps every ball in the system, in slot order. With enough balls, their first collision queries
+     * are run in parallel beforehand.
+     */
+    @Override
+    public void timePassed() {
+        if (pool != null && count >= PARALLEL_THRESHOLD) {
+            queryAhead();
+        }
+        int slot = 0;
+        while (slot < count) {
+            Ball handle = handles[slot];
+            int life = handle.getLife();
+            step(slot);
+            // A ball removed during its own step was replaced by the last ball, which has not moved yet
+            // (a pooled handle may even have been respawned into the same slot, as a new life of the handle)
+            if (slot < count && handles[slot] == handle && handle.getLife() == life) {
+                slot++;
+            }
+        }
+    }
+
+    /**
+     * Moves the ball in the given slot one step, sweeping its whole circle along its velocity.
+     * The ball stops at the exact time of impact of every collision, takes the velocity returned by
+     * the collidable, and spends the rest of the step moving with the new velocity, so it can bounce
+     * several times within one step and never tunnels through a collidable, whatever its speed.
+     *
+     * @param slot the slot of the ball.
+     */
+    void step(int slot) {
+        Ball handle = handles[slot];
+        int life = handle.getLife();
+        previousX[slot] = x[slot];
+        previousY[slot] = y[slot];
+        double remaining = 1;
+        for (int bounce = 0; bounce < MAX_BOUNCES_PER_STEP && remaining > 0; bounce++) {
+            double x0 = x[slot];
+            double y0 = y[slot];
+            double moveX = dx[slot] * remaining;
+            double moveY = dy[slot] * remaining;
+            Collidable hitObject;
+            double t;
+            int face;
+            query.setFilter(category[slot], mask[slot]);
+            // The hit point is reused across steps, so a collision does not allocate a new Point
+            if (bounce == 0 && takePending(slot)) {
+                hitObject = pendingCollidable[slot];
+                t = pendingT[slot];
+                face = pendingFace[slot];
+                hitPoint.setX(pendingX[slot]);
+                hitPoint.setY(pendingY[slot]);
+            } else if (environment.getClosestCollision(x0, y0, moveX, moveY, radius[slot], query)) {
+                hitObject = query.getCollidable();
+                t = query.getT();
+                face = query.getFace();
+                hitPoint.setX(query.getX());
+                hitPoint.setY(query.getY());
+            } else {
+                hitObject = null;
+                t = 1;
+                face = SegmentHit.NONE;
+            }
+            if (hitObject == null) {
+                x[slot] = x0 + moveX;
+                y[slot] = y0 + moveY;
+                return;
+            }
+            x[slot] = x0 + t * moveX;
+            y[slot] = y0 + t * moveY;
+            // The velocity is a scratch array too, which the collidable bounces in place (see Collidable#bounce)
+            hitVelocity[0] = dx[slot];
+            hitVelocity[1] = dy[slot];
+            hitObject.bounce(handle, hitPoint, hitVelocity);
+            // The listeners of the collidable may have removed the ball, handing its slot to another ball
+            if (slot >= count || handles[slot] != handle || handle.getLife() != life) {
+                return;
+            }
+            separate(slot, hitVelocity[0], hitVelocity[1], face);
+            if ((hitObject.getCategory() & CollisionLayers.PADDLE) != 0
+                    && hitObject.getCollisionRectangle().contains(x[slot], y[slot])) {
+                y[slot] -= 10;
+            }
+            remaining *= 1 - t;
+        }
+    }
+
+    /**
+     * Runs the first collision query of every ball in parallel, on the chunks of the pool,
+     * and keeps the results for the following step.
+     */
+    private void queryAhead() {
+        environment.markChanges();
+        int n = chunks.length;
+        for (int i = 0; i < n; i++) {
+            chunks[i].reinitialize();
+            chunks[i].from = (int) ((long) count * i / n);
+            chunks[i].to = (int) ((long) count * (i + 1) / n);
+            pool.execute(chunks[i]);
+        }
+        for (QueryChunk chunk : chunks) {
+            chunk.join();
+        }
+    }
+
+    /**
+     * Runs the collision query of the ball in the given slot for a whole step, and keeps the result.
+     * This only reads the environment and writes the pending result of the slot, so it is safe to call
+     * for different slots at once, each with its own query.
+     *
+     * @param slot        the slot of the ball.
+     * @param threadQuery the collision query used by the calling thread.
+     */
+    private void queryAhead(int slot, CollisionQuery threadQuery) {
+        threadQuery.setFilter(category[slot], mask[slot]);
+        if (environment.getClosestCollision(x[slot], y[slot], dx[slot], dy[slot], radius[slot], threadQuery)) {
+            pendingCollidable[slot] = threadQuery.getCollidable();
+            pendingT[slot] = threadQuery.getT();
+            pendingFace[slot] = threadQuery.getFace();
+            pendingX[slot] = threadQuery.getX();
+            pendingY[slot] = threadQuery.getY();
+        } else {
+            pendingCollidable[slot] = null;
+        }
+        pendingValid[slot] = true;
+    }
+
+    /**
+     * Consumes the pending collision query of the ball in the given slot, and tells whether it can be used:
+     * it can if the ball has not changed since it was made, and the environment has not changed along its path.
+     *
+     * @param slot the slot of the ball.
+     * @return true if the pending result is still the result of the query, false otherwise.
+     */
+    private boolean takePending(int slot) {
+        if (!pendingValid[slot]) {
+            return false;
+        }
+        pendingValid[slot] = false;
+        // The ball moves up to its hit, if any, or along its whole velocity
+        double t = pendingCollidable[slot] != null ? pendingT[slot] : 1;
+        return environment.isStillValid(pendingCollidable[slot], x[slot], y[slot],
+                x[slot] + t * dx[slot], y[slot] + t * dy[slot], radius[slot]);
+    }
+
+    /**
+     * Sets the velocity of the ball in the given slot to the velocity given by a collidable, making sure
+     * it moves the ball away from the face it has hit: otherwise it is reflected off the face
+     * (or, for a corner, off the line from the corner to the center).
+     * This keeps the ball from being hit again by the same face at the same instant.
+     *
+     * @param slot the slot of the ball.
+     * @param vx   the change in x of the velocity given by the collidable.
+     * @param vy   the change in y of the velocity given by the collidable.
+     * @param face the face of the collidable that was hit, one of the Geometry.SegmentHit constants.
+     */
+    private void separate(int slot, double vx, double vy, int face) {
+        double normalX;
+        double normalY;
+        if (face == SegmentHit.CORNER) {
+            normalX = (x[slot] - hitPoint.getX()) / radius[slot];
+            normalY = (y[slot] - hitPoint.getY()) / radius[slot];
+        } else {
+            normalX = face == SegmentHit.LEFT ? -1 : (face == SegmentHit.RIGHT ? 1 : 0);
+            normalY = face == SegmentHit.TOP ? -1 : (face == SegmentHit.BOTTOM ? 1 : 0);
+        }
+        double along = vx * normalX + vy * normalY;
+        if (along >= 0) {
+            dx[slot] = vx;
+            dy[slot] = vy;
+        } else {
+            dx[slot] = vx - 2 * along * normalX;
+            dy[slot] = vy - 2 * along * normalY;
+        }
+    }
+
+    /**
+     * Draws every ball in the system.
+     *
+     * @param d the drawing surface.
+     */
+    @Override
+    public void drawOn(DrawSurface d) {
+        for (int slot = 0; slot < count; slot++) {
+            drawBall(d, slot);
+        }
+    }
+
+    /**
+     * Draws every ball in the system, between its position at the previous step and its current position.
+     *
+     * @param d     the drawing surface.
+     * @param alpha how far the frame is from the previous step to the current one, between 0 and 1.
+     */
+    @Override
+    public void drawOn(DrawSurface d, double alpha) {
+        for (int slot = 0; slot < count; slot++) {
+            drawBall(d, slot, alpha);
+        }
+    }
+
+    /**
+     * Draws the ball in the given slot.
+     *
+     * @param d    the drawing surface.
+     * @param slot the slot of the ball.
+     */
+    void drawBall(DrawSurface d, int slot) {
+        drawBall(d, slot, 1);
+    }
+
+    /**
+     * Draws the ball in the given slot, between its position at the previous step and its current position.
+     *
+     * @param d     the drawing surface.
+     * @param slot  the slot of the ball.
+     * @param alpha how far the frame is from the previous step to the current one, between 0 and 1.
+     */
+    void drawBall(DrawSurface d, int slot, double alpha) {
+        int cx = (int) (previousX[slot] + (x[slot] - previousX[slot]) * alpha);
+        int cy = (int) (previousY[slot] + (y[slot] - previousY[slot]) * alpha);
+        d.setColor(palette[colorIndex[slot]]);
+        d.fillCircle(cx, cy, radius[slot]);
+        d.setColor(Color.black);
+        d.drawCircle(cx, cy, radius[slot]);
+    }
+
+    @Override
+    public void addToGame(Game game) {
+        game.addSprite(this);
+    }
+
+    /**
+     * Returns the index of the given color in the palette, adding it if needed.
+     * Colors are compared by identity, like Collidable.Block#ballColorMatch does.
+     *
+     * @param color the color.
+     * @return the palette index of the color.
+     */
+    private int paletteIndexOf(Color color) {
+        for (int i = 0; i < paletteSize; i++) {
+            if (palette[i] == color) {
+                return i;
+            }
+        }
+        if (paletteSize == palette.length) {
+            palette = Arrays.copyOf(palette, paletteSize * 2);
+        }
+        palette[paletteSize] = color;
+        return paletteSize++;
+    }
+
+    /**
+     * Grows the slot arrays to the given capacity.
+     *
+     * @param capacity the new number of slots.
+     */
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        dx = Arrays.copyOf(dx, capacity);
+        dy = Arrays.copyOf(dy, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        colorIndex = Arrays.copyOf(colorIndex, capacity);
+        category = Arrays.copyOf(category, capacity);
+        mask = Arrays.copyOf(mask, capacity);
+        handles = Arrays.copyOf(handles, capacity);
+        pendingCollidable = Arrays.copyOf(pendingCollidable, capacity);
+        pendingT = Arrays.copyOf(pendingT, capacity);
+        pendingFace = Arrays.copyOf(pendingFace, capacity);
+        pendingX = Arrays.copyOf(pendingX, capacity);
+        pendingY = Arrays.copyOf(pendingY, capacity);
+        pendingValid = Arrays.copyOf(pendingValid, capacity);
+    }
+
+    /**
+     * The BallSystem.QueryChunk class is a fork-join task that runs the collision queries
+     * of a range of slots, with a collision query of its own. It is reinitialized and reused every step.
+     */
+    private final class QueryChunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient CollisionQuery chunkQuery = new CollisionQuery();
+        private int from;
+        private int to;
+
+        @Override
+        protected void compute() {
+            for (int slot = from; slot < to; slot++) {
+                queryAhead(slot, chunkQuery);
+            }
+        }
+    }
+}
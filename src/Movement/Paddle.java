@@ -9,24 +9,39 @@ import biuoop.DrawSurface;
 import Game.Game;
 
 import java.awt.Color;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
 
 import biuoop.GUI;
 import Collidable.Collidable;
+import Collidable.CollisionLayers;
 
 /**
  * The Movement.Paddle class represents the paddle in the game.
  * It is a sprite that can move left and right and can be collided with.
+ * The paddle moves between a few positions only, by steps of its speed and by wrapping around the screen, so
+ * the (immutable) rectangles of these positions are made once, with the paddle, and a move replaces the
+ * rectangle of the paddle by the one already made for its new position.
  *
  * @author Maya Diamant usamaya@gmail.com
  * @version 1
  * @since 2024-07-04
  */
 public class Paddle implements Sprite, Collidable {
+    // The most positions whose rectangles are made in advance
+    private static final int MAX_STOPS = 4096;
     private final biuoop.KeyboardSensor keyboard;
     private Rectangle paddleRectangle;
     private final Color color;
     private final double screenWidth;
     private final double paddleSpeed;
+    private Game game;
+    private double previousX;
+    private double[] stops;
+    private Rectangle[] stopRectangles;
 
     /**
      * Constructs a Movement.Paddle object.
@@ -38,41 +53,121 @@ public class Paddle implements Sprite, Collidable {
      * @param paddleSpeed     The speed at which the paddle moves.
      */
     public Paddle(GUI gui, Rectangle paddleRectangle, Color color, double screenWidth, double paddleSpeed) {
-        this.keyboard = gui.getKeyboardSensor();
+        this(gui.getKeyboardSensor(), paddleRectangle, color, screenWidth, paddleSpeed);
+    }
+
+    /**
+     * Constructs a Movement.Paddle object that is moved by the given keyboard sensor
+     * (which need not be the keyboard of a window, see Game.HeadlessKeyboard).
+     *
+     * @param keyboard        The keyboard sensor that moves the paddle.
+     * @param paddleRectangle The rectangle representing the paddle's shape and position.
+     * @param color           The color of the paddle.
+     * @param screenWidth     The width of the screen to determine boundaries.
+     * @param paddleSpeed     The speed at which the paddle moves.
+     */
+    public Paddle(KeyboardSensor keyboard, Rectangle paddleRectangle, Color color, double screenWidth,
+                  double paddleSpeed) {
+        this.keyboard = keyboard;
         this.paddleRectangle = paddleRectangle;
         this.color = color;
         this.screenWidth = screenWidth;
         this.paddleSpeed = paddleSpeed;
+        this.previousX = paddleRectangle.getMinX();
+        makeStops();
     }
 
     /**
-     * Moves the paddle left by the paddleSpeed amount.
-     * If the new position is outside the screen, it wraps around to the right side.
+     * Makes the rectangles of the positions the paddle can reach from where it starts, by moving exactly as
+     * moveLeft and moveRight do, so the positions they compute are found among them. A paddle whose speed
+     * does not divide its way evenly may have too many positions; the rest get their rectangles when reached.
      */
-    public void moveLeft() {
-        double newX = this.getCollisionRectangle().getUpperLeft().getX() - this.paddleSpeed;
+    private void makeStops() {
+        Set<Double> reached = new HashSet<>();
+        Deque<Double> toVisit = new ArrayDeque<>();
+        toVisit.add(paddleRectangle.getMinX());
+        while (!toVisit.isEmpty() && reached.size() < MAX_STOPS) {
+            double x = toVisit.poll();
+            if (reached.add(x)) {
+                toVisit.add(leftOf(x));
+                toVisit.add(rightOf(x));
+            }
+        }
+        stops = new double[reached.size()];
+        int i = 0;
+        for (double x : reached) {
+            stops[i++] = x;
+        }
+        Arrays.sort(stops);
+        stopRectangles = new Rectangle[stops.length];
+        for (i = 0; i < stops.length; i++) {
+            stopRectangles[i] = stops[i] == paddleRectangle.getMinX() ? paddleRectangle
+                    : new Rectangle(stops[i], paddleRectangle.getMinY(), paddleRectangle.getWidth(),
+                    paddleRectangle.getHeight());
+        }
+    }
+
+    /**
+     * Returns the x-coordinate the paddle moves to from the given one when it moves left.
+     *
+     * @param x the x-coordinate of the left side of the paddle.
+     * @return the x-coordinate after the move.
+     */
+    private double leftOf(double x) {
+        double newX = x - this.paddleSpeed;
         if (newX < 0) {
             newX = screenWidth - paddleRectangle.getWidth();
         }
-        paddleRectangle = new Rectangle(new Point(newX, paddleRectangle.getUpperLeft().getY()),
-                paddleRectangle.getWidth(), paddleRectangle.getHeight());
+        return newX;
     }
 
     /**
-     * Moves the paddle right by the paddleSpeed amount.
-     * If the new position is outside the screen, it wraps around to the left side.
+     * Returns the x-coordinate the paddle moves to from the given one when it moves right.
+     *
+     * @param x the x-coordinate of the left side of the paddle.
+     * @return the x-coordinate after the move.
      */
-    public void moveRight() {
-        double newX = paddleRectangle.getUpperLeft().getX() + paddleSpeed;
+    private double rightOf(double x) {
+        double newX = x + paddleSpeed;
         if (newX > screenWidth - paddleRectangle.getWidth()) {
             newX = 0;
         }
-        paddleRectangle = new Rectangle(new Point(newX, paddleRectangle.getUpperLeft().getY()),
+        return newX;
+    }
+
+    /**
+     * Moves the paddle so its left side is at the given x-coordinate.
+     *
+     * @param newX the new x-coordinate of the left side of the paddle.
+     */
+    private void moveTo(double newX) {
+        int i = Arrays.binarySearch(stops, newX);
+        paddleRectangle = i >= 0 ? stopRectangles[i] : new Rectangle(newX, paddleRectangle.getMinY(),
                 paddleRectangle.getWidth(), paddleRectangle.getHeight());
+        if (game != null) {
+            game.updateCollidable(this);
+        }
+    }
+
+    /**
+     * Moves the paddle left by the paddleSpeed amount.
+     * If the new position is outside the screen, it wraps around to the right side.
+     */
+    public void moveLeft() {
+        moveTo(leftOf(paddleRectangle.getMinX()));
+    }
+
+    /**
+     * Moves the paddle right by the paddleSpeed amount.
+     * If the new position is outside the screen, it wraps around to the left side.
+     */
+    public void moveRight() {
+        moveTo(rightOf(paddleRectangle.getMinX()));
     }
 
     @Override
     public void timePassed() {
+        previousX = paddleRectangle.getMinX();
         if (keyboard.isPressed(KeyboardSensor.LEFT_KEY)) {
             moveLeft();
         }
@@ -83,11 +178,31 @@ public class Paddle implements Sprite, Collidable {
 
     @Override
     public void drawOn(DrawSurface d) {
+        drawAt(d, paddleRectangle.getMinX());
+    }
+
+    @Override
+    public void drawOn(DrawSurface d, double alpha) {
+        double x = paddleRectangle.getMinX();
+        // A paddle that wrapped around the screen is drawn where it is, not slid across the screen
+        if (Math.abs(x - previousX) <= paddleSpeed) {
+            x = previousX + (x - previousX) * alpha;
+        }
+        drawAt(d, x);
+    }
+
+    /**
+     * Draws the paddle with its left side at the given x-coordinate.
+     *
+     * @param d the drawing surface.
+     * @param x the x-coordinate of the left side of the paddle.
+     */
+    private void drawAt(DrawSurface d, double x) {
         d.setColor(this.color);
-        d.fillRectangle((int) paddleRectangle.getUpperLeft().getX(), (int) paddleRectangle.getUpperLeft().getY(),
+        d.fillRectangle((int) x, (int) paddleRectangle.getMinY(),
                 (int) paddleRectangle.getWidth(), (int) paddleRectangle.getHeight());
         d.setColor(Color.black);
-        d.drawRectangle((int) paddleRectangle.getUpperLeft().getX(), (int) paddleRectangle.getUpperLeft().getY(),
+        d.drawRectangle((int) x, (int) paddleRectangle.getMinY(),
                 (int) paddleRectangle.getWidth(), (int) paddleRectangle.getHeight());
     }
 
@@ -98,29 +213,61 @@ public class Paddle implements Sprite, Collidable {
 
     @Override
     public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity) {
-        double regionWidth = paddleRectangle.getWidth() / 5;
-        double hitX = collisionPoint.getX() - paddleRectangle.getUpperLeft().getX();
+        double[] velocity = {currentVelocity.getDx(), currentVelocity.getDy()};
+        bounce(hitter, collisionPoint, velocity);
+        return new Velocity(velocity[0], velocity[1]);
+    }
+
+    @Override
+    public void bounce(Ball hitter, Point collisionPoint, double[] velocity) {
+        reflect(paddleRectangle, collisionPoint, velocity);
+    }
+
+    /**
+     * Gives a ball the velocity it leaves a paddle of the given area with. The paddle is split into five
+     * regions: a ball that hits the middle one is reflected, and one that hits another region leaves at the
+     * angle of the region, farther to the side the farther the region is from the middle, at the same speed.
+     *
+     * @param area           the area of the paddle.
+     * @param collisionPoint the point at which the ball hit the paddle.
+     * @param velocity       the velocity of the ball before the hit ({dx, dy}), replaced by the velocity after it.
+     */
+    public static void reflect(Rectangle area, Point collisionPoint, double[] velocity) {
+        double regionWidth = area.getWidth() / 5;
+        double hitX = collisionPoint.getX() - area.getMinX();
+        double speed = Math.sqrt(velocity[0] * velocity[0] + velocity[1] * velocity[1]);
+        double angle;
         if (hitX < regionWidth) {
-            return Velocity.fromAngleAndSpeed(210, currentVelocity.getSpeed());
+            angle = 210;
         } else if (hitX < 2 * regionWidth) {
-            return Velocity.fromAngleAndSpeed(240, currentVelocity.getSpeed());
+            angle = 240;
         } else if (hitX < 3 * regionWidth) {
-            return new Velocity(currentVelocity.getDx(), -currentVelocity.getDy());
+            velocity[1] = -velocity[1];
+            return;
         } else if (hitX < 4 * regionWidth) {
-            return Velocity.fromAngleAndSpeed(300, currentVelocity.getSpeed());
+            angle = 300;
         } else {
-            return Velocity.fromAngleAndSpeed(330, currentVelocity.getSpeed());
+            angle = 330;
         }
+        // As Movement.Velocity#fromAngleAndSpeed, without making the velocity
+        velocity[0] = Math.cos(Math.toRadians(angle)) * speed;
+        velocity[1] = Math.sin(Math.toRadians(angle)) * speed;
     }
 
     @Override
     public void addToGame(Game g) {
         g.addSprite(this);
-        g.addCollidable(this);
+        g.addDynamicCollidable(this);
+        this.game = g;
     }
 
     @Override
     public String myName() {
         return "Movement.Paddle";
     }
+
+    @Override
+    public int getCategory() {
+        return CollisionLayers.PADDLE;
+    }
 }
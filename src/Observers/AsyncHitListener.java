@@ -0,0 +1,22 @@
+//209852706 Maya Diamant
+package Observers;
+
+/**
+ * AsyncHitListener is an interface for slow consumers of hit events (analytics, achievements, audio cues),
+ * which an Observers.HitEventBus notifies on a worker thread of its own, after the tick of the hit.
+ * The event is given as plain values, as the block and the ball may have changed or gone by then.
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public interface AsyncHitListener {
+    /**
+     * This method is called on the worker thread of the bus for every hit, in the order of the hits.
+     *
+     * @param tick       the tick of the hit, counted by the bus from 0.
+     * @param x          the x-coordinate of the center of the ball when it hit the block.
+     * @param y          the y-coordinate of the center of the ball when it hit the block.
+     * @param blockColor the color of the block that was hit, as an RGB value.
+     */
+    void hitEvent(long tick, double x, double y, int blockColor);
+}
@@ -5,7 +5,8 @@ import Collidable.Block;
 import Game.Game;
 import Movement.Ball;
 /**
- * BallRemover is a HitListener that removes balls from the game when they are hit.
+ * BallRemover is a HitListener that removes balls from the game when they are hit,
+ * releasing them to the ball pool of the game.
  * It also keeps track of the remaining number of balls in the game.
  * @author Maya Diamant usamaya@gmail.com
  * @version 1
@@ -28,7 +29,11 @@ public class BallRemover implements HitListener {
 
     @Override
     public void hitEvent(Block beingHit, Ball hitter) {
-        hitter.removeFromGame(game);
+        // A ball whose hits are delivered at the end of the tick may have been removed already
+        if (hitter.isRemoved()) {
+            return;
+        }
+        game.releaseBall(hitter);
         remainingBalls.decrease(1);
     }
 }
@@ -34,6 +34,8 @@ public class BlockRemover implements HitListener {
         beingHit.removeFromGame(game);
         remainingBlocks.decrease(1);
         beingHit.removeHitListener(this);
-        hitter.setColor(beingHit.getColor());
+        if (!hitter.isRemoved()) {
+            hitter.setColor(beingHit.getColor());
+        }
     }
 }
@@ -0,0 +1,130 @@
+//209852706 Maya Diamant
+package Observers;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConcurrentCounter is a Counter that may be increased and decreased from several threads at once (for example,
+ * by listeners running on the worker thread of an Observers.HitEventBus).
+ * The first thread that updates the counter (for the counters of a game, the thread of the game) owns it: its
+ * updates go to a plain int, as in a Counter, so a game that updates its counters on its own thread pays no more
+ * than with plain counters, whichever thread made them. The updates of the other threads are spread over
+ * striped cells (a java.util.concurrent.atomic.LongAdder), so threads that update the count together do not
+ * contend on one variable; every such update is also counted as started before it and as finished after it.
+ * getValue sums the parts without waiting, so a value read during updates of other threads is only close to the
+ * count. snapshot never waits either: it reads the cells again, a bounded number of times, until no update of
+ * another thread started or finished while it read them, and then it is the count at one instant. If the other
+ * threads keep updating the count all that time, it gives up and returns getValue, so it is exact only once
+ * they are quiet; the game reads it at the end of the tick, on the owner thread.
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class ConcurrentCounter extends Counter {
+    // The number of times snapshot reads the cells before it settles for getValue
+    private static final int OPTIMISTIC_READS = 4;
+    // The handle that reads and writes the part of the owner thread, which other threads read too
+    private static final VarHandle OWNED;
+    // The handle that claims the counter for the first thread that updates it
+    private static final VarHandle OWNER;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            OWNED = lookup.findVarHandle(ConcurrentCounter.class, "owned", int.class);
+            OWNER = lookup.findVarHandle(ConcurrentCounter.class, "owner", Thread.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final LongAdder cells;
+    private final LongAdder started;
+    private final LongAdder finished;
+    private Thread owner;
+    private int owned;
+
+    /**
+     * Constructs a ConcurrentCounter with the specified initial value, owned by no thread until it is updated.
+     *
+     * @param value the initial value of the counter.
+     */
+    public ConcurrentCounter(int value) {
+        super(0);
+        this.cells = new LongAdder();
+        this.started = new LongAdder();
+        this.finished = new LongAdder();
+        this.owned = value;
+    }
+
+    /**
+     * Adds the given number to the count: to the plain part on the owner thread, and to the cells on any other.
+     * The first thread to update the counter claims it.
+     *
+     * @param number the number to add.
+     */
+    private void add(int number) {
+        Thread current = Thread.currentThread();
+        Thread claimed = (Thread) OWNER.getAcquire(this);
+        if (claimed == null) {
+            // Only one thread wins; the others see the winner
+            Thread witness = (Thread) OWNER.compareAndExchange(this, null, current);
+            claimed = witness == null ? current : witness;
+        }
+        if (claimed == current) {
+            // Opaque access costs what a plain one does, but other threads are sure to see the update
+            OWNED.setOpaque(this, (int) OWNED.getOpaque(this) + number);
+            return;
+        }
+        started.increment();
+        cells.add(number);
+        finished.increment();
+    }
+    @Override
+    public void increase(int number) {
+        add(number);
+    }
+
+    @Override
+    public void decrease(int number) {
+        add(-number);
+    }
+
+    @Override
+    public int getValue() {
+        return (int) OWNED.getOpaque(this) + (int) cells.sum();
+    }
+
+    /**
+     * Returns the count at one instant if it can: the sum of the cells is read again, at most a few times, until
+     * no update of another thread started or finished while they were read. If every read was disturbed, the
+     * count is read as getValue reads it, which is exact once the other threads stop updating it.
+     *
+     * @return the count.
+     */
+    @Override
+    public int snapshot() {
+        for (int tries = 0; tries < OPTIMISTIC_READS; tries++) {
+            long sum = readCells();
+            if (sum != Long.MIN_VALUE) {
+                return (int) OWNED.getOpaque(this) + (int) sum;
+            }
+            Thread.onSpinWait();
+        }
+        return getValue();
+    }
+
+    /**
+     * Reads the sum of the cells, if no update of another thread started or finished while it was read.
+     *
+     * @return the sum of the cells, or Long.MIN_VALUE if it changed while it was read.
+     */
+    private long readCells() {
+        long finishedBefore = finished.sum();
+        long sum = cells.sum();
+        // An update that started after finishedBefore was read would make started larger than it
+        return started.sum() == finishedBefore ? sum : Long.MIN_VALUE;
+    }
+}
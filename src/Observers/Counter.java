@@ -46,4 +46,15 @@ public class Counter {
     public int getValue() {
         return this.value;
     }
+
+    /**
+     * Returns the count at one instant, if it can be read so while other threads update it
+     * (see Observers.ConcurrentCounter).
+     * The count of a plain counter, which one thread updates, is always exact.
+     *
+     * @return the current count.
+     */
+    public int snapshot() {
+        return this.value;
+    }
 }
@@ -0,0 +1,242 @@
+//209852706 Maya Diamant
+package Observers;
+
+import Collidable.Block;
+import Movement.Ball;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HitEventBus takes the hit events out of the collision step. A block attached to the bus (see
+ * Collidable.Block#setHitEventBus) does not notify its listeners when it is hit, but appends the hit to the bus;
+ * the game drains the bus at the end of the tick, and only then are the listeners of every block notified,
+ * in the order of the hits. Listeners that need effects within the tick (such as Observers.BlockRemover)
+ * therefore run once the balls have moved, without stretching the physics step. The hits of a block that an
+ * earlier hit of the tick removed from the game are not delivered, as the block would not have been there to be
+ * hit had its listeners been notified at once.
+ * The hits of the tick are kept in preallocated arrays of blocks and balls rather than in the ring buffer: a hit
+ * may never be dropped for the block listeners, so these arrays double (and stay doubled) in the rare tick with
+ * more hits than any before it, while the steady state allocates nothing.
+ * Slow consumers (Observers.AsyncHitListener) are notified on a worker thread of the bus instead. Every hit is
+ * also written, as plain values, to a preallocated ring buffer that the worker reads after every tick. If the
+ * worker falls so far behind that the ring is full, the hit is dropped for the slow consumers (never for the
+ * block listeners), and counted: the bus reports how many hits were published, consumed and dropped, and the
+ * most hits that ever waited for the worker at once.
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class HitEventBus {
+    // How long the worker sleeps when it finds no hits, in case a wake-up was missed
+    private static final long IDLE_NANOS = 1_000_000L;
+
+    private Block[] blocks;
+    private Ball[] balls;
+    private int pending;
+    private long tick;
+    private final int capacity;
+    private final long[] ticks;
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] colors;
+    private long head;
+    private volatile long published;
+    private volatile long consumed;
+    private long dropped;
+    private long highWater;
+    private AsyncHitListener[] asyncListeners;
+    private Thread worker;
+    private volatile boolean running;
+
+    /**
+     * Constructs a HitEventBus whose ring buffer holds the given number of hits.
+     *
+     * @param capacity the number of hits the slow consumers may fall behind by; rounded up to a power of two.
+     */
+    public HitEventBus(int capacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.blocks = new Block[64];
+        this.balls = new Ball[64];
+        this.ticks = new long[this.capacity];
+        this.xs = new double[this.capacity];
+        this.ys = new double[this.capacity];
+        this.colors = new int[this.capacity];
+        this.asyncListeners = new AsyncHitListener[0];
+    }
+
+    /**
+     * Appends a hit to the bus. Called by a block, from the collision step.
+     *
+     * @param block  the block that was hit.
+     * @param hitter the ball that hit it.
+     */
+    public void publish(Block block, Ball hitter) {
+        if (pending == blocks.length) {
+            blocks = Arrays.copyOf(blocks, pending * 2);
+            balls = Arrays.copyOf(balls, pending * 2);
+        }
+        blocks[pending] = block;
+        balls[pending] = hitter;
+        pending++;
+        if (asyncListeners.length == 0) {
+            return;
+        }
+        long waiting = head - consumed;
+        if (waiting >= capacity) {
+            dropped++;
+            return;
+        }
+        int slot = (int) (head & (capacity - 1));
+        ticks[slot] = tick;
+        xs[slot] = hitter.getCenterX();
+        ys[slot] = hitter.getCenterY();
+        colors[slot] = block.getColor().getRGB();
+        head++;
+        highWater = Math.max(highWater, waiting + 1);
+    }
+
+    /**
+     * Ends the tick: notifies the listeners of every block hit during the tick, in the order of the hits,
+     * and hands the hits to the worker of the slow consumers.
+     */
+    public void drain() {
+        // The listeners may hit more blocks (for example, by moving a ball), which are drained in turn
+        for (int i = 0; i < pending; i++) {
+            Block block = blocks[i];
+            Ball hitter = balls[i];
+            if (block.isRemoved()) {
+                continue;
+            }
+            ListenerSet listeners = block.getHitListeners();
+            for (int k = 0; k < listeners.size(); k++) {
+                listeners.get(k).hitEvent(block, hitter);
+            }
+        }
+        Arrays.fill(blocks, 0, pending, null);
+        Arrays.fill(balls, 0, pending, null);
+        pending = 0;
+        tick++;
+        if (published != head) {
+            published = head;
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /**
+     * Adds a slow consumer, notified on the worker thread; the worker is started by the first one.
+     * Consumers should be added before the game runs.
+     *
+     * @param listener the consumer to add.
+     */
+    public synchronized void addAsyncListener(AsyncHitListener listener) {
+        asyncListeners = Arrays.copyOf(asyncListeners, asyncListeners.length + 1);
+        asyncListeners[asyncListeners.length - 1] = listener;
+        if (worker == null) {
+            running = true;
+            worker = new Thread(this::work, "Arkanoid hit events");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * Notifies the slow consumers of the published hits, until the bus is shut down.
+     */
+    private void work() {
+        while (running) {
+            long end = published;
+            long next = consumed;
+            if (next == end) {
+                LockSupport.parkNanos(this, IDLE_NANOS);
+                continue;
+            }
+            AsyncHitListener[] listeners = asyncListeners;
+            for (; next < end; next++) {
+                int slot = (int) (next & (capacity - 1));
+                for (AsyncHitListener listener : listeners) {
+                    listener.hitEvent(ticks[slot], xs[slot], ys[slot], colors[slot]);
+                }
+                // The slot may be written again only once it has been read
+                consumed = next + 1;
+            }
+        }
+    }
+
+    /**
+     * Stops the worker, once it has notified the slow consumers of every published hit.
+     */
+    public void shutdown() {
+        Thread thread;
+        synchronized (this) {
+            thread = worker;
+        }
+        if (thread == null) {
+            return;
+        }
+        while (consumed != published && thread.isAlive()) {
+            LockSupport.parkNanos(IDLE_NANOS);
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the number of hits published to the slow consumers.
+     *
+     * @return the number of published hits.
+     */
+    public long getPublished() {
+        return this.published;
+    }
+
+    /**
+     * Returns the number of hits the slow consumers were notified of.
+     *
+     * @return the number of consumed hits.
+     */
+    public long getConsumed() {
+        return this.consumed;
+    }
+
+    /**
+     * Returns the number of hits dropped for the slow consumers because the ring buffer was full.
+     *
+     * @return the number of dropped hits.
+     */
+    public long getDropped() {
+        return this.dropped;
+    }
+
+    /**
+     * Returns the most hits that ever waited for the slow consumers at once.
+     *
+     * @return the high-water mark of the ring buffer.
+     */
+    public long getHighWater() {
+        return this.highWater;
+    }
+
+    /**
+     * Returns the number of hits the slow consumers are currently behind by.
+     *
+     * @return the number of published hits not consumed yet.
+     */
+    public long getLag() {
+        return published - consumed;
+    }
+
+    /**
+     * Returns the number of hits the ring buffer holds.
+     *
+     * @return the capacity of the ring buffer.
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+}
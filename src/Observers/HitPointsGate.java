@@ -0,0 +1,51 @@
+//209852706 Maya Diamant
+package Observers;
+
+import Collidable.Block;
+import Movement.Ball;
+
+/**
+ * HitPointsGate is a HitListener that lets a block take several hits: it counts the hits down, and passes
+ * only the last one on to the listeners behind it (for example, a BlockRemover and a ScoreTrackingListener).
+ * The hits after the last one are dropped.
+ * Every block with hit points needs a gate of its own, while the listeners behind the gates may be shared.
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class HitPointsGate implements HitListener {
+    private final ListenerSet listeners;
+    private int hitPoints;
+
+    /**
+     * Constructs a HitPointsGate of a block that takes the given number of hits.
+     *
+     * @param hitPoints the number of hits the block takes; the last of them is passed on.
+     * @param listeners the listeners to notify of the last hit.
+     */
+    public HitPointsGate(int hitPoints, ListenerSet listeners) {
+        this.hitPoints = hitPoints;
+        this.listeners = listeners;
+    }
+
+    @Override
+    public void hitEvent(Block beingHit, Ball hitter) {
+        // Exactly the last hit is passed on: a block hit again before it left the game (by a second ball in the
+        // same tick, with the hits delivered later by a Observers.HitEventBus) must not be removed twice
+        if (--hitPoints != 0) {
+            return;
+        }
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).hitEvent(beingHit, hitter);
+        }
+    }
+
+    /**
+     * Returns the number of hits the block takes before the listeners are notified.
+     *
+     * @return the hit points left, zero or below once the last hit was passed on.
+     */
+    public int getHitPoints() {
+        return this.hitPoints;
+    }
+}
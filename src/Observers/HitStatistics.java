@@ -0,0 +1,52 @@
+//209852706 Maya Diamant
+package Observers;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * HitStatistics is a slow consumer of hit events (see Observers.AsyncHitListener): it counts the hits of every
+ * block color, as an analytics consumer would, on the worker thread of the bus. Its counts should be read once
+ * the bus was shut down, as the worker is then done with them.
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class HitStatistics implements AsyncHitListener {
+    private final Map<Integer, Integer> hitsByColor;
+    private long hits;
+    private long lastTick;
+
+    /**
+     * Constructs a HitStatistics with no hits counted.
+     */
+    public HitStatistics() {
+        this.hitsByColor = new TreeMap<>();
+    }
+
+    @Override
+    public void hitEvent(long tick, double x, double y, int blockColor) {
+        hits++;
+        lastTick = tick;
+        hitsByColor.merge(blockColor & 0xFFFFFF, 1, Integer::sum);
+    }
+
+    /**
+     * Returns the number of hits counted.
+     *
+     * @return the number of hits.
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder description = new StringBuilder("hits counted on the worker: ").append(hits)
+                .append(" (last at tick ").append(lastTick).append("), by block color:");
+        for (Map.Entry<Integer, Integer> entry : hitsByColor.entrySet()) {
+            description.append(String.format(" %06x %d", entry.getKey(), entry.getValue()));
+        }
+        return description.toString();
+    }
+}
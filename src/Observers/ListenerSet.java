@@ -0,0 +1,160 @@
+//209852706 Maya Diamant
+package Observers;
+
+import java.util.Arrays;
+
+/**
+ * ListenerSet is an immutable, ordered set of hit listeners.
+ * Adding or removing a listener returns another set and leaves this one as it is (copy-on-write), so a hit
+ * is dispatched by walking the array of the set with no copy, even if the listeners add or remove listeners
+ * meanwhile. Being immutable, one set can be shared by any number of blocks: the blocks of a level that all
+ * have the same listeners point at a single instance.
+ * A set remembers the last set it returned for an added and for a removed listener, so blocks that start
+ * from the same shared set and change it the same way (for example, a Observers.BlockRemover removing
+ * itself) keep sharing. The empty set is shared by every game and remembers nothing, so it never keeps
+ * the listeners of a finished game alive.
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public final class ListenerSet {
+    // The set with no listener
+    public static final ListenerSet EMPTY = new ListenerSet(new HitListener[0]);
+
+    private final HitListener[] listeners;
+    private volatile Transition added;
+    private volatile Transition removed;
+
+    /**
+     * Constructs a ListenerSet of the given listeners, which are not copied.
+     *
+     * @param listeners the listeners, in the order they are notified.
+     */
+    private ListenerSet(HitListener[] listeners) {
+        this.listeners = listeners;
+    }
+
+    /**
+     * Returns a set of the given listeners, in the given order; a listener given twice is kept once.
+     *
+     * @param hitListeners the listeners.
+     * @return the set of the listeners.
+     */
+    public static ListenerSet of(HitListener... hitListeners) {
+        ListenerSet set = EMPTY;
+        for (HitListener hl : hitListeners) {
+            set = set.with(hl);
+        }
+        return set;
+    }
+
+    /**
+     * Returns the number of listeners in this set.
+     *
+     * @return the number of listeners.
+     */
+    public int size() {
+        return listeners.length;
+    }
+
+    /**
+     * Returns the listener at the given position.
+     *
+     * @param index the position, between 0 and size() - 1.
+     * @return the listener.
+     */
+    public HitListener get(int index) {
+        return listeners[index];
+    }
+
+    /**
+     * Checks whether the given listener is in this set.
+     *
+     * @param hl the listener.
+     * @return true if the listener is in the set, false otherwise.
+     */
+    public boolean contains(HitListener hl) {
+        return indexOf(hl) >= 0;
+    }
+
+    /**
+     * Returns the position of the given listener in this set.
+     *
+     * @param hl the listener.
+     * @return the position of the listener, or -1 if it is not in the set.
+     */
+    private int indexOf(HitListener hl) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == hl) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the set of the listeners of this set and the given one, notified last.
+     *
+     * @param hl the listener to add.
+     * @return this set if the listener is in it already, or a set with the listener added.
+     */
+    public ListenerSet with(HitListener hl) {
+        if (contains(hl)) {
+            return this;
+        }
+        Transition last = added;
+        if (last != null && last.listener == hl) {
+            return last.result;
+        }
+        HitListener[] grown = Arrays.copyOf(listeners, listeners.length + 1);
+        grown[listeners.length] = hl;
+        ListenerSet result = new ListenerSet(grown);
+        if (this != EMPTY) {
+            added = new Transition(hl, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the set of the listeners of this set but the given one.
+     *
+     * @param hl the listener to remove.
+     * @return this set if the listener is not in it, or a set with the listener removed.
+     */
+    public ListenerSet without(HitListener hl) {
+        int index = indexOf(hl);
+        if (index < 0) {
+            return this;
+        }
+        Transition last = removed;
+        if (last != null && last.listener == hl) {
+            return last.result;
+        }
+        HitListener[] shrunk = new HitListener[listeners.length - 1];
+        System.arraycopy(listeners, 0, shrunk, 0, index);
+        System.arraycopy(listeners, index + 1, shrunk, index, shrunk.length - index);
+        ListenerSet result = shrunk.length == 0 ? EMPTY : new ListenerSet(shrunk);
+        removed = new Transition(hl, result);
+        return result;
+    }
+
+    /**
+     * The ListenerSet.Transition class remembers the set returned for a listener, as one immutable pair, so
+     * that threads sharing the set always read a listener together with its own result.
+     */
+    private static final class Transition {
+        private final HitListener listener;
+        private final ListenerSet result;
+
+        /**
+         * Constructs a transition to the given set.
+         *
+         * @param listener the listener added or removed.
+         * @param result   the set returned for it.
+         */
+        Transition(HitListener listener, ListenerSet result) {
+            this.listener = listener;
+            this.result = result;
+        }
+    }
+}
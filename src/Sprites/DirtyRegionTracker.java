@@ -0,0 +1,260 @@
+//209852706 Maya Diamant
+package Sprites;
+
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.Path2D;
+import java.util.Arrays;
+
+/**
+ * The Sprites.DirtyRegionTracker class keeps track of the parts of the screen that have to be redrawn.
+ * The screen is divided into square tiles, and a tile is dirty once anything is drawn over it.
+ * The tracker is itself a drawing surface: drawing a sprite onto it marks the tiles the sprite covers,
+ * so a sprite reports its bounds simply by drawing itself (at its old position, to erase it, and at its
+ * new position). The dirty tiles are then turned into a clip made of horizontal runs of tiles.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class DirtyRegionTracker implements DrawSurface {
+    // The side of a tile, in pixels
+    private static final int TILE = 16;
+    // The fraction of dirty tiles above which the whole screen is redrawn, with a plain rectangular clip
+    private static final double FULL_REDRAW_FRACTION = 0.6;
+
+    private final int width;
+    private final int height;
+    private final int columns;
+    private final int rows;
+    private final boolean[] dirty;
+    private int dirtyTiles;
+
+    /**
+     * Constructs a Sprites.DirtyRegionTracker of a screen of the given size, with every tile dirty.
+     *
+     * @param width  the width of the screen.
+     * @param height the height of the screen.
+     */
+    public DirtyRegionTracker(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.columns = (width + TILE - 1) / TILE;
+        this.rows = (height + TILE - 1) / TILE;
+        this.dirty = new boolean[columns * rows];
+        markAll();
+    }
+
+    /**
+     * Marks the whole screen as dirty.
+     */
+    public void markAll() {
+        Arrays.fill(dirty, true);
+        dirtyTiles = dirty.length;
+    }
+
+    /**
+     * Marks the tiles that the given rectangle overlaps as dirty.
+     *
+     * @param x0 the smallest x-coordinate of the rectangle.
+     * @param y0 the smallest y-coordinate of the rectangle.
+     * @param x1 the largest x-coordinate of the rectangle (exclusive).
+     * @param y1 the largest y-coordinate of the rectangle (exclusive).
+     */
+    public void mark(int x0, int y0, int x1, int y1) {
+        if (x1 <= 0 || y1 <= 0 || x1 <= x0 || y1 <= y0) {
+            return;
+        }
+        int fromColumn = Math.max(0, x0 / TILE);
+        int toColumn = Math.min(columns - 1, (x1 - 1) / TILE);
+        int fromRow = Math.max(0, y0 / TILE);
+        int toRow = Math.min(rows - 1, (y1 - 1) / TILE);
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int column = fromColumn; column <= toColumn; column++) {
+                int tile = row * columns + column;
+                if (!dirty[tile]) {
+                    dirty[tile] = true;
+                    dirtyTiles++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether nothing has to be redrawn.
+     *
+     * @return true if no tile is dirty, false otherwise.
+     */
+    public boolean isClean() {
+        return dirtyTiles == 0;
+    }
+
+    /**
+     * Returns the number of pixels of the screen covered by the dirty tiles.
+     *
+     * @return the number of dirty pixels.
+     */
+    public int getDirtyPixels() {
+        if (dirtyTiles == dirty.length) {
+            return width * height;
+        }
+        int pixels = 0;
+        for (int row = 0; row < rows; row++) {
+            int tileHeight = Math.min(TILE, height - row * TILE);
+            for (int column = 0; column < columns; column++) {
+                if (dirty[row * columns + column]) {
+                    pixels += Math.min(TILE, width - column * TILE) * tileHeight;
+                }
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * Returns the region covered by the dirty tiles, as a clip made of horizontal runs of dirty tiles.
+     *
+     * @return the dirty region.
+     */
+    public Shape toClip() {
+        if (dirtyTiles >= dirty.length * FULL_REDRAW_FRACTION) {
+            return new Rectangle(0, 0, width, height);
+        }
+        Path2D.Float region = new Path2D.Float(Path2D.WIND_NON_ZERO);
+        for (int row = 0; row < rows; row++) {
+            int column = 0;
+            while (column < columns) {
+                if (!dirty[row * columns + column]) {
+                    column++;
+                    continue;
+                }
+                int start = column;
+                while (column < columns && dirty[row * columns + column]) {
+                    column++;
+                }
+                float x0 = start * TILE;
+                float x1 = Math.min(width, column * TILE);
+                float y0 = row * TILE;
+                float y1 = Math.min(height, (row + 1) * TILE);
+                region.moveTo(x0, y0);
+                region.lineTo(x1, y0);
+                region.lineTo(x1, y1);
+                region.lineTo(x0, y1);
+                region.closePath();
+            }
+        }
+        return region;
+    }
+
+    /**
+     * Returns the smallest rectangle that holds every dirty tile.
+     *
+     * @return the bounds of the dirty region, empty if no tile is dirty.
+     */
+    public Rectangle getDirtyBounds() {
+        int minColumn = columns;
+        int minRow = rows;
+        int maxColumn = -1;
+        int maxRow = -1;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                if (dirty[row * columns + column]) {
+                    minColumn = Math.min(minColumn, column);
+                    maxColumn = Math.max(maxColumn, column);
+                    minRow = Math.min(minRow, row);
+                    maxRow = Math.max(maxRow, row);
+                }
+            }
+        }
+        if (maxColumn < 0) {
+            return new Rectangle();
+        }
+        int x0 = minColumn * TILE;
+        int y0 = minRow * TILE;
+        return new Rectangle(x0, y0, Math.min(width, (maxColumn + 1) * TILE) - x0,
+                Math.min(height, (maxRow + 1) * TILE) - y0);
+    }
+
+    /**
+     * Marks every tile as clean.
+     */
+    public void clear() {
+        Arrays.fill(dirty, false);
+        dirtyTiles = 0;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    @Override
+    public void setColor(Color color) {
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        mark(Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2) + 1, Math.max(y1, y2) + 1);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int w, int h) {
+        mark(x, y, x + w + 1, y + h + 1);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int w, int h) {
+        mark(x, y, x + w + 1, y + h + 1);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int w, int h) {
+        mark(x, y, x + w + 1, y + h + 1);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int w, int h) {
+        mark(x, y, x + w + 1, y + h + 1);
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image image) {
+        mark(x, y, x + image.getWidth(null), y + image.getHeight(null));
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        mark(x - r, y - r, x + r + 1, y + r + 1);
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        mark(x - r, y - r, x + r + 1, y + r + 1);
+    }
+
+    @Override
+    public void drawText(int x, int y, String s, int fontSize) {
+        // The text is measured generously, as the font metrics are not known here
+        mark(x, y - fontSize, x + s.length() * fontSize, y + fontSize / 2 + 1);
+    }
+
+    @Override
+    public void drawPolygon(Polygon p) {
+        Rectangle bounds = p.getBounds();
+        mark(bounds.x, bounds.y, bounds.x + bounds.width + 1, bounds.y + bounds.height + 1);
+    }
+
+    @Override
+    public void fillPolygon(Polygon p) {
+        drawPolygon(p);
+    }
+}
@@ -0,0 +1,240 @@
+//209852706 Maya Diamant
+package Sprites;
+
+import Game.FrameSnapshot;
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The Sprites.DrawBatch class is a drawing surface that collects the drawing commands of a frame and draws
+ * them grouped by color, so the color is changed once per color rather than once or twice per sprite.
+ * Images and filled shapes are drawn first, grouped by color in the order the colors first appear; then
+ * outlines, lines and texts are drawn in one more pass, grouped the same way.
+ * The order of the commands changes, so the batched frame is the same as the unbatched one only if filled
+ * shapes of different colors do not overlap; otherwise outlines end up above every fill (for example, the
+ * outline of a ball above another ball it touches). The commands of each color are recorded into a
+ * Game.FrameSnapshot, and the groups and their snapshots are kept from frame to frame, so a frame allocates
+ * nothing once its colors have been seen.
+ * Game.DrawBenchmark measures it ("--draw-bench"): on a board of 5000 blocks the 10000 color changes of a frame
+ * become 8, with the same pixels, but on an offscreen image a color change costs next to nothing, so recording
+ * and replaying the commands still makes the frame about 5% slower (0.60 ms against 0.57 ms). The game does
+ * not draw through a batch for that reason; the batch is kept for the benchmark, and for surfaces where a
+ * color change is costly.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class DrawBatch implements DrawSurface {
+    // The number of colors the groups have room for at first
+    private static final int INITIAL_GROUPS = 16;
+
+    private final int width;
+    private final int height;
+    private final Groups fills;
+    private final Groups outlines;
+    private Color color;
+    private int colorChanges;
+
+    /**
+     * Constructs an empty Sprites.DrawBatch of a surface of the given size.
+     *
+     * @param width  the width of the surface.
+     * @param height the height of the surface.
+     */
+    public DrawBatch(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.fills = new Groups();
+        this.outlines = new Groups();
+        this.color = Color.black;
+        this.colorChanges = 0;
+    }
+
+    /**
+     * Draws the collected commands onto the given drawing surface, fills first and outlines last, and empties
+     * the batch.
+     *
+     * @param d the drawing surface.
+     */
+    public void flush(DrawSurface d) {
+        colorChanges = 0;
+        Color current = fills.flush(d, null);
+        outlines.flush(d, current);
+        color = Color.black;
+    }
+
+    /**
+     * Returns the number of times the color was changed by the last flush.
+     *
+     * @return the number of color changes.
+     */
+    public int getColorChanges() {
+        return this.colorChanges;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    @Override
+    public void setColor(Color newColor) {
+        this.color = newColor;
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        outlines.get(color).drawLine(x1, y1, x2, y2);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int w, int h) {
+        outlines.get(color).drawOval(x, y, w, h);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int w, int h) {
+        fills.get(color).fillOval(x, y, w, h);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int w, int h) {
+        outlines.get(color).drawRectangle(x, y, w, h);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int w, int h) {
+        fills.get(color).fillRectangle(x, y, w, h);
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image image) {
+        fills.get(null).drawImage(x, y, image);
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        outlines.get(color).drawCircle(x, y, r);
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        fills.get(color).fillCircle(x, y, r);
+    }
+
+    @Override
+    public void drawText(int x, int y, String s, int fontSize) {
+        outlines.get(color).drawText(x, y, s, fontSize);
+    }
+
+    @Override
+    public void drawPolygon(Polygon p) {
+        outlines.get(color).drawPolygon(p);
+    }
+
+    @Override
+    public void fillPolygon(Polygon p) {
+        fills.get(color).fillPolygon(p);
+    }
+
+    /**
+     * The DrawBatch.Groups class holds the commands of a frame grouped by color, in the order the colors first
+     * appeared. The groups are kept from frame to frame, with the snapshots that record them, so a frame that
+     * uses the colors of the frames before allocates nothing: a color is looked up only when it changes, and
+     * its group is emptied the first time it is used in a frame.
+     */
+    private final class Groups {
+        private final Map<Color, Integer> slots;
+        private Color[] keys;
+        private FrameSnapshot[] snapshots;
+        private long[] frames;
+        private int[] order;
+        private int used;
+        private long frame;
+        private Color lastKey;
+        private FrameSnapshot last;
+
+        /**
+         * Constructs empty groups.
+         */
+        Groups() {
+            this.slots = new HashMap<>();
+            this.keys = new Color[INITIAL_GROUPS];
+            this.snapshots = new FrameSnapshot[INITIAL_GROUPS];
+            this.frames = new long[INITIAL_GROUPS];
+            this.order = new int[INITIAL_GROUPS];
+        }
+
+        /**
+         * Returns the snapshot that records the commands of the given color in this frame.
+         *
+         * @param key the color of the commands, or null for images.
+         * @return the snapshot of the color.
+         */
+        FrameSnapshot get(Color key) {
+            if (last != null && key == lastKey) {
+                return last;
+            }
+            Integer slot = slots.get(key);
+            if (slot == null) {
+                slot = slots.size();
+                if (slot == keys.length) {
+                    keys = Arrays.copyOf(keys, 2 * slot);
+                    snapshots = Arrays.copyOf(snapshots, 2 * slot);
+                    frames = Arrays.copyOf(frames, 2 * slot);
+                    order = Arrays.copyOf(order, 2 * slot);
+                }
+                keys[slot] = key;
+                snapshots[slot] = new FrameSnapshot(width, height);
+                frames[slot] = frame - 1;
+                slots.put(key, slot);
+            }
+            int i = slot;
+            if (frames[i] != frame) {
+                frames[i] = frame;
+                snapshots[i].reset(0);
+                order[used++] = i;
+            }
+            lastKey = key;
+            last = snapshots[i];
+            return last;
+        }
+
+        /**
+         * Draws the commands of this frame onto the given drawing surface, one color after the other, and
+         * starts the next frame.
+         *
+         * @param d       the drawing surface.
+         * @param current the color the surface draws with, or null if it is not known.
+         * @return the color the surface draws with afterwards.
+         */
+        Color flush(DrawSurface d, Color current) {
+            for (int k = 0; k < used; k++) {
+                int i = order[k];
+                Color key = keys[i];
+                if (key != null && !key.equals(current)) {
+                    d.setColor(key);
+                    current = key;
+                    colorChanges++;
+                }
+                snapshots[i].replay(d);
+            }
+            used = 0;
+            frame++;
+            last = null;
+            return current;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+//209852706 Maya Diamant
+package Sprites;
+
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.awt.Shape;
+import java.awt.image.BufferedImage;
+
+/**
+ * The Sprites.ImageDrawSurface class is a drawing surface that draws directly onto an offscreen image,
+ * the same way the surface of a biuoop.GUI draws onto its window.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class ImageDrawSurface implements DrawSurface {
+    private final BufferedImage image;
+    private final Graphics graphics;
+
+    /**
+     * Constructs a Sprites.ImageDrawSurface that draws onto the given image.
+     *
+     * @param image the image to draw onto.
+     */
+    public ImageDrawSurface(BufferedImage image) {
+        this.image = image;
+        this.graphics = image.getGraphics();
+    }
+
+    /**
+     * Restricts the following drawing to the given region of the image.
+     *
+     * @param clip the region to draw in, or null to draw anywhere.
+     */
+    public void setClip(Shape clip) {
+        graphics.setClip(clip);
+    }
+
+    /**
+     * Returns the image this surface draws onto.
+     *
+     * @return the image.
+     */
+    public BufferedImage getImage() {
+        return this.image;
+    }
+
+    /**
+     * Releases the graphics of the image; the surface may not be drawn on afterwards.
+     */
+    public void dispose() {
+        graphics.dispose();
+    }
+
+    @Override
+    public int getWidth() {
+        return image.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return image.getHeight();
+    }
+
+    @Override
+    public void setColor(Color color) {
+        graphics.setColor(color);
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        graphics.drawLine(x1, y1, x2, y2);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int w, int h) {
+        graphics.drawOval(x, y, w, h);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int w, int h) {
+        graphics.fillOval(x, y, w, h);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int w, int h) {
+        graphics.drawRect(x, y, w, h);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int w, int h) {
+        graphics.fillRect(x, y, w, h);
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image img) {
+        graphics.drawImage(img, x, y, null);
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        graphics.drawOval(x - r, y - r, r * 2, r * 2);
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        graphics.fillOval(x - r, y - r, r * 2, r * 2);
+    }
+
+    @Override
+    public void drawText(int x, int y, String s, int fontSize) {
+        Font font = graphics.getFont();
+        graphics.setFont(new Font(font.getFontName(), font.getStyle(), fontSize));
+        graphics.drawString(s, x, y);
+    }
+
+    @Override
+    public void drawPolygon(Polygon p) {
+        graphics.drawPolygon(p);
+    }
+
+    @Override
+    public void fillPolygon(Polygon p) {
+        graphics.fillPolygon(p);
+    }
+}
@@ -19,6 +19,29 @@ public interface Sprite {
      */
     void drawOn(DrawSurface d);
 
+    /**
+     * Draws the sprite to the given drawing surface, between its state at the previous simulation tick
+     * and its current state. Sprites that do not move draw their current state.
+     *
+     * @param d     The drawing surface on which to draw the sprite.
+     * @param alpha How far the frame is from the previous tick to the current one, between 0 and 1.
+     */
+    default void drawOn(DrawSurface d, double alpha) {
+        drawOn(d);
+    }
+
+    /**
+     * Draws the part of the sprite that lies in the given region of the drawing surface, which is clipped to
+     * that region. Sprites draw themselves whole by default, leaving the rest to the clip; a sprite made of many
+     * parts (such as a tile field) may skip the parts outside the region.
+     *
+     * @param d      The drawing surface on which to draw the sprite, clipped to the region.
+     * @param region The region of the surface to draw in.
+     */
+    default void drawOn(DrawSurface d, java.awt.Rectangle region) {
+        drawOn(d);
+    }
+
     /**
      * Notifies the sprite that time has passed, allowing it to update its state.
      */
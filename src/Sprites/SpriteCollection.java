@@ -1,22 +1,31 @@
 //209852706 Maya Diamant
 package Sprites;
 
+import Game.SlotList;
 import biuoop.DrawSurface;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 /**
  * The Sprites.SpriteCollection class manages a collection of sprites.
  * It allows adding sprites, notifying all sprites that time has passed,
  * and drawing all sprites on a given drawing surface.
+ * The sprites are kept in a Game.SlotList, so a sprite is removed in constant time; removing a sprite may
+ * change the drawing order of the sprites added after it. Sprites added or removed while the sprites are
+ * notified that time has passed (for example, a ball removed by a hit listener) are buffered, and the
+ * collection changes once every sprite has been notified, so the notification loop never copies the list.
  *
  * @author Maya Diamant usamaya@gmail.com
  * @version 1
  * @since 2024-07-04
  */
 public class SpriteCollection {
-    private final List<Sprite> spriteList;
+    private final SlotList<Sprite> spriteList;
+    private final List<Sprite> pending;
+    private final BitSet pendingRemovals;
+    private boolean notifying;
 
     /**
      * Constructs a Sprites.SpriteCollection with the specified list of sprites.
@@ -24,35 +33,72 @@ public class SpriteCollection {
      * @param spriteList The list of sprites to be managed.
      */
     public SpriteCollection(List<Sprite> spriteList) {
-        this.spriteList = spriteList;
+        this.spriteList = new SlotList<>();
+        this.spriteList.addAll(spriteList);
+        this.pending = new ArrayList<>();
+        this.pendingRemovals = new BitSet();
+        this.notifying = false;
     }
 
     /**
      * Adds a sprite to the collection.
+     * While the sprites are notified that time has passed, the sprite is added once all of them are notified.
      *
      * @param s The sprite to be added.
      */
     public void addSprite(Sprite s) {
-        spriteList.add(s);
+        if (notifying) {
+            pending.add(s);
+        } else {
+            spriteList.add(s);
+        }
     }
+
     /**
      * Removes the specified sprite from the list of sprites.
+     * While the sprites are notified that time has passed, the sprite is removed once all of them are notified.
      *
      * @param s the sprite to be removed.
      */
     public void removeSprite(Sprite s) {
-        spriteList.remove(s);
+        if (notifying) {
+            pendingRemovals.set(pending.size());
+            pending.add(s);
+        } else {
+            spriteList.remove(s);
+        }
     }
 
     /**
      * Calls the timePassed() method on all sprites in the collection.
-     * This notifies each sprite that time has passed.
+     * This notifies each sprite that time has passed. The sprites added or removed meanwhile are added or
+     * removed afterwards, in order, so every sprite in the collection when the call starts is notified once.
      */
     public void notifyAllTimePassed() {
-        List<Sprite> newSprites = new ArrayList<>(spriteList);
-        for (Sprite sprite : newSprites) {
-            sprite.timePassed();
+        notifying = true;
+        try {
+            for (int i = 0; i < spriteList.size(); i++) {
+                spriteList.get(i).timePassed();
+            }
+        } finally {
+            notifying = false;
+            flush();
+        }
+    }
+
+    /**
+     * Applies the buffered additions and removals, in the order they were made.
+     */
+    private void flush() {
+        for (int i = 0; i < pending.size(); i++) {
+            if (pendingRemovals.get(i)) {
+                spriteList.remove(pending.get(i));
+            } else {
+                spriteList.add(pending.get(i));
+            }
         }
+        pending.clear();
+        pendingRemovals.clear();
     }
 
     /**
@@ -66,4 +112,30 @@ public class SpriteCollection {
             sprite.drawOn(d);
         }
     }
+
+    /**
+     * Calls the drawOn(d, alpha) method on all sprites in the collection.
+     * This draws each sprite between its previous and its current simulation tick.
+     *
+     * @param d     The drawing surface on which to draw the sprites.
+     * @param alpha How far the frame is from the previous tick to the current one, between 0 and 1.
+     */
+    public void drawAllOn(DrawSurface d, double alpha) {
+        for (Sprite sprite : spriteList) {
+            sprite.drawOn(d, alpha);
+        }
+    }
+
+    /**
+     * Draws all sprites in the collection on the given drawing surface through the given batch, so the
+     * commands are grouped by color (see Sprites.DrawBatch).
+     *
+     * @param d     The drawing surface on which to draw the sprites.
+     * @param alpha How far the frame is from the previous tick to the current one, between 0 and 1.
+     * @param batch The batch that collects the drawing commands.
+     */
+    public void drawAllOn(DrawSurface d, double alpha, DrawBatch batch) {
+        drawAllOn(batch, alpha);
+        batch.flush(d);
+    }
 }
@@ -0,0 +1,201 @@
+//209852706 Maya Diamant
+package Sprites;
+
+import biuoop.DrawSurface;
+import Game.Game;
+import Game.SlotList;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The Sprites.StaticLayer class draws the sprites that do not move (the background, the blocks and the edges)
+ * as a single image. The sprites are drawn once into an offscreen image, and every frame only draws
+ * that image. Adding or removing a sprite damages the part of the image the sprite covers, which is found by
+ * drawing the sprite onto a Sprites.DirtyRegionTracker, and only that part of the image is drawn again, in place,
+ * with the sprites clipped to it (see Sprite#drawOn(DrawSurface, java.awt.Rectangle)); an invalidated layer is
+ * drawn whole, into a new image. A frame recorded with the image (see Game.FrameSnapshot) and drawn on the
+ * render thread while a part of it is drawn again may show that change a frame early.
+ * A composited layer is not drawn by drawOn, but by a compositor that redraws parts of it (see
+ * Game.DirtyRectRenderer); it remembers the sprites added or removed since the compositor last asked.
+ *
+ * @author Maya Diamant usamaya@gmail.com
+ * @version 1
+ * @since 2024-07-04
+ */
+public class StaticLayer implements Sprite {
+    private final SlotList<Sprite> layerSprites;
+    private final List<Sprite> changedSprites;
+    private BufferedImage image;
+    private ImageDrawSurface imageSurface;
+    private DirtyRegionTracker damage;
+    private boolean composited;
+
+    /**
+     * Constructs an empty Sprites.StaticLayer.
+     */
+    public StaticLayer() {
+        this.layerSprites = new SlotList<>();
+        this.changedSprites = new ArrayList<>();
+        this.image = null;
+        this.composited = false;
+    }
+
+    /**
+     * Adds a sprite to the layer, above the sprites already in it. Removing a sprite (in constant time) may
+     * move the last sprite of the layer into its place, so a sprite that has to stay below the others (the
+     * background) should be added first and never removed.
+     *
+     * @param s the sprite to add.
+     */
+    public void addSprite(Sprite s) {
+        layerSprites.add(s);
+        changed(s);
+    }
+
+    /**
+     * Removes a sprite from the layer, if it is in it.
+     *
+     * @param s the sprite to remove.
+     * @return true if the sprite was in the layer, false otherwise.
+     */
+    public boolean removeSprite(Sprite s) {
+        if (layerSprites.remove(s)) {
+            changed(s);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Forgets the cached image, so the sprites are drawn again on the next frame.
+     */
+    public void invalidate() {
+        this.image = null;
+    }
+
+    /**
+     * Damages the part of the cached image that a sprite of the layer changed how it looks in (for example,
+     * the tile a tile field emptied).
+     *
+     * @param part a sprite that draws over the part of the layer that changed.
+     */
+    public void redraw(Sprite part) {
+        changed(part);
+    }
+
+    /**
+     * Damages the part of the cached image the given sprite covers, because the sprite was added or removed,
+     * and remembers it if the layer is composited.
+     *
+     * @param s the sprite that was added or removed.
+     */
+    private void changed(Sprite s) {
+        if (image != null) {
+            s.drawOn(damage);
+        }
+        if (composited) {
+            changedSprites.add(s);
+        }
+    }
+
+    /**
+     * Sets whether the layer is drawn by a compositor rather than by drawOn.
+     *
+     * @param isComposited true if a compositor draws the layer, false otherwise.
+     */
+    public void setComposited(boolean isComposited) {
+        this.composited = isComposited;
+        changedSprites.clear();
+    }
+
+    /**
+     * Draws every sprite added to or removed from the layer since the changes were last forgotten onto the
+     * given surface. Drawing them onto a Sprites.DirtyRegionTracker marks the region they cover.
+     *
+     * @param d the drawing surface.
+     */
+    public void drawChangesOn(DrawSurface d) {
+        for (Sprite sprite : changedSprites) {
+            sprite.drawOn(d);
+        }
+    }
+
+    /**
+     * Forgets the sprites added to or removed from the layer so far.
+     */
+    public void forgetChanges() {
+        changedSprites.clear();
+    }
+
+    /**
+     * Returns the image of the layer, drawing it first if it is not cached, or drawing its damaged part again.
+     *
+     * @param width  the width of the image.
+     * @param height the height of the image.
+     * @return the image of the layer.
+     */
+    public BufferedImage getImage(int width, int height) {
+        if (image == null || image.getWidth() != width || image.getHeight() != height) {
+            if (imageSurface != null) {
+                imageSurface.dispose();
+            }
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            imageSurface = new ImageDrawSurface(image);
+            damage = new DirtyRegionTracker(width, height);
+            drawSprites(new Rectangle(0, 0, width, height));
+            damage.clear();
+        } else if (!damage.isClean()) {
+            // The bounds of the damage are drawn again, not just the damaged tiles: the sprites are drawn in the same
+            // order, so the pixels around the damage come out the same, and a rectangular clip is the fast one
+            Rectangle bounds = damage.getDirtyBounds();
+            imageSurface.setClip(bounds);
+            drawSprites(bounds);
+            imageSurface.setClip(null);
+            damage.clear();
+        }
+        return image;
+    }
+
+    /**
+     * Draws the sprites of the layer, in order, onto the image, within the given region (the image surface is
+     * clipped to the region by the caller).
+     *
+     * @param region the region of the image to draw in.
+     */
+    private void drawSprites(Rectangle region) {
+        for (int i = 0; i < layerSprites.size(); i++) {
+            layerSprites.get(i).drawOn(imageSurface, region);
+        }
+    }
+
+    /**
+     * Checks whether the cached image is up to date.
+     *
+     * @return true if the next frame only draws the cached image, false otherwise.
+     */
+    public boolean isCached() {
+        return this.image != null && damage.isClean();
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+        if (!composited) {
+            d.drawImage(0, 0, getImage(d.getWidth(), d.getHeight()));
+        }
+    }
+
+    @Override
+    public void timePassed() {
+        for (int i = 0; i < layerSprites.size(); i++) {
+            layerSprites.get(i).timePassed();
+        }
+    }
+
+    @Override
+    public void addToGame(Game game) {
+        game.addSprite(this);
+    }
+}